@@ -0,0 +1,24 @@
+package com.socialpizza.backend.cache;
+
+import org.springframework.boot.autoconfigure.condition.AllNestedConditions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+/**
+ * Cache di secondo livello attiva: entity-cache.enabled (predefinito true) e nessuna replica.
+ * Con le repliche un miss verrebbe caricato da una replica in ritardo e la voce superata
+ * (ad esempio un utente appena bannato) resterebbe in memoria fino alla scadenza della regione.
+ */
+class EntityCacheCondition extends AllNestedConditions {
+
+    EntityCacheCondition() {
+        super(ConfigurationPhase.PARSE_CONFIGURATION);
+    }
+
+    @ConditionalOnProperty(prefix = "entity-cache", name = "enabled", matchIfMissing = true)
+    static class Enabled {
+    }
+
+    @ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "false", matchIfMissing = true)
+    static class WithoutReplicas {
+    }
+}
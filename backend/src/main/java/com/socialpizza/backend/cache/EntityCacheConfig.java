@@ -0,0 +1,80 @@
+package com.socialpizza.backend.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.SharedCacheMode;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache di secondo livello di Hibernate su JCache, con Caffeine come provider nello stesso processo.
+ * Le entità annotate con @Cache (città, categorie, locali, utenti) vengono lette dal database una volta
+ * e poi servite dalla memoria; le query marcate cacheable salvano gli id del risultato.
+ * Hibernate aggiorna o invalida le voci a ogni scrittura fatta tramite JPA, comprese le UPDATE/DELETE JPQL.
+ * Con le repliche attive non viene configurata (vedi {@link EntityCacheCondition}).
+ */
+@Configuration
+@Conditional(EntityCacheCondition.class)
+public class EntityCacheConfig {
+
+    // Regioni delle entità, come indicate in @Cache(region = ...)
+    public static final List<String> REFERENCE_REGIONS = List.of("city", "category", "restaurant");
+    public static final String USER_REGION = "app_user";
+
+    private static final AtomicInteger MANAGERS = new AtomicInteger();
+
+    /**
+     * CacheManager con tutte le regioni già create e dimensionate.
+     * URI diverso per ogni contesto Spring: più contesti nella stessa JVM (i test) non condividono le cache.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("socialpizza-entity-cache-" + MANAGERS.incrementAndGet()),
+                        getClass().getClassLoader());
+        for (String region : REFERENCE_REGIONS) {
+            create(manager, region, properties.getReference());
+        }
+        create(manager, USER_REGION, properties.getUsers());
+        create(manager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, properties.getQueries());
+        // Ultima scrittura per tabella, con cui si validano i risultati delle query: mai scartata,
+        // altrimenti un risultato superato sembrerebbe ancora valido
+        create(manager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null);
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            // Equivale a org.hibernate.cache.jcache.ConfigSettings.CACHE_MANAGER: usa il CacheManager qui sopra
+            properties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+            // Solo le entità annotate @Cacheable: eventi e iscrizioni cambiano troppo spesso
+            properties.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+        };
+    }
+
+    private static void create(CacheManager manager, String name, EntityCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (region != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        }
+        // Contatori JCache (hit, miss, put) letti da EntityCacheMonitor
+        configuration.setStatisticsEnabled(true);
+        manager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,70 @@
+package com.socialpizza.backend.cache;
+
+import com.socialpizza.backend.dto.CacheRegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistiche e svuotamento della cache di secondo livello per il pannello admin.
+ * I contatori sono quelli standard JCache, pubblicati da Caffeine come MXBean per ogni regione.
+ */
+@Component
+@Conditional(EntityCacheCondition.class)
+public class EntityCacheMonitor {
+
+    @Autowired
+    private CacheManager entityCacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    public List<CacheRegionStats> snapshot() {
+        List<CacheRegionStats> regions = new ArrayList<>();
+        for (String name : entityCacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = entityCacheManager.getCache(name);
+            long size = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+            CacheStatisticsMXBean statistics = statistics(name);
+            if (statistics == null) {
+                regions.add(new CacheRegionStats(name, size, 0, 0, 0, 0, 0, 0.0));
+                continue;
+            }
+            regions.add(new CacheRegionStats(name, size, statistics.getCacheHits(), statistics.getCacheMisses(),
+                    statistics.getCachePuts(), statistics.getCacheRemovals(), statistics.getCacheEvictions(),
+                    statistics.getCacheHitPercentage() / 100.0));
+        }
+        return regions;
+    }
+
+    /**
+     * Svuota tutte le regioni tramite Hibernate, da usare dopo modifiche fatte direttamente sul database.
+     */
+    public void evictAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private CacheStatisticsMXBean statistics(String cacheName) {
+        try {
+            ObjectName name = new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                    + entityCacheManager.getURI() + ",Cache=" + cacheName);
+            return server.isRegistered(name) ? JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class) : null;
+        } catch (MalformedObjectNameException e) {
+            return null;
+        }
+    }
+}
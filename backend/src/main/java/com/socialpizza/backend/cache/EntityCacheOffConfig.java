@@ -0,0 +1,42 @@
+package com.socialpizza.backend.cache;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache di secondo livello spenta (l'opposto di {@link EntityCacheCondition}).
+ * Va disattivata in modo esplicito: con hibernate-jcache nel classpath Hibernate userebbe comunque JCache
+ * con il CacheManager predefinito.
+ */
+@Configuration
+@Conditional(EntityCacheOffConfig.Off.class)
+public class EntityCacheOffConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheOffCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        };
+    }
+
+    static class Off extends AnyNestedCondition {
+
+        Off() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @ConditionalOnProperty(prefix = "entity-cache", name = "enabled", havingValue = "false")
+        static class Disabled {
+        }
+
+        @ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "true")
+        static class WithReplicas {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.socialpizza.backend.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configurazione della cache di secondo livello di Hibernate (prefisso "entity-cache" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+
+    // false = nessuna cache di secondo livello: ogni lettura di entità va al database
+    private boolean enabled = true;
+
+    // Città, categorie e locali: cambiano solo dal pannello admin
+    private Region reference = new Region(Duration.ofHours(1), 10_000);
+
+    // Utenti: letti a ogni richiesta autenticata e come organizzatori o proprietari nelle join degli eventi
+    private Region users = new Region(Duration.ofMinutes(30), 100_000);
+
+    // Risultati delle query in cache (liste delle risorse, ricerca per email)
+    private Region queries = new Region(Duration.ofMinutes(10), 10_000);
+
+    /**
+     * Durata dalla scrittura e numero massimo di elementi: oltre, Caffeine scarta i meno usati.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private Duration ttl;
+        private long maxEntries;
+    }
+}
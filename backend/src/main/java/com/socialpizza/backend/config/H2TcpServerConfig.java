@@ -1,12 +1,14 @@
 package com.socialpizza.backend.config;
 
 import org.h2.tools.Server;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.sql.SQLException;
 
 @Configuration
+@ConditionalOnProperty(name = "h2.tcp.enabled", havingValue = "true", matchIfMissing = true)
 public class H2TcpServerConfig {
 
     @Bean(initMethod = "start", destroyMethod = "stop")
@@ -0,0 +1,33 @@
+package com.socialpizza.backend.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Registra un FilterProvider vuoto: le viste con @JsonFilter vengono serializzate per intero
+     * se la richiesta non contiene ?fields= (vedi SparseFieldsetAdvice).
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsetFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    /**
+     * Risposte CBOR (Accept: application/cbor) per client che leggono liste grandi: stesso modello del JSON,
+     * codifica binaria più compatta e più veloce da leggere. Il mapper nasce dal builder di Spring Boot,
+     * quindi ha gli stessi moduli, le stesse date e lo stesso filtro per ?fields= del JSON; il convertitore
+     * di default di Spring MVC userebbe invece un builder senza la configurazione dell'applicazione.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
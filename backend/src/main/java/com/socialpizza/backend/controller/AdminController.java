@@ -1,14 +1,35 @@
 package com.socialpizza.backend.controller;
 
+import com.socialpizza.backend.cache.EntityCacheMonitor;
+import com.socialpizza.backend.dto.UserView;
 import com.socialpizza.backend.entity.AppUser;
 import com.socialpizza.backend.entity.Category;
 import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.metrics.EndpointMetrics;
+import com.socialpizza.backend.replica.ReplicaRouting;
 import com.socialpizza.backend.repository.*;
+import com.socialpizza.backend.service.AdminJob;
 import com.socialpizza.backend.service.AppUserService;
-import jakarta.servlet.http.HttpSession;
+import com.socialpizza.backend.service.CascadeDeleteService;
+import com.socialpizza.backend.service.ContentVersions;
+import com.socialpizza.backend.service.ContentVersions.Resource;
+import com.socialpizza.backend.service.EventArchiveService;
+import com.socialpizza.backend.service.EventService;
+import com.socialpizza.backend.service.HashingBusyException;
+import com.socialpizza.backend.service.PlatformStats;
+import com.socialpizza.backend.session.AuthProperties;
+import com.socialpizza.backend.session.SessionPrincipal;
+import com.socialpizza.backend.session.SessionPrincipals;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller dedicato alle operazioni amministrative.
@@ -16,24 +37,39 @@ import org.springframework.web.bind.annotation.*;
  */
 @RestController
 @RequestMapping("/api/admin")
-@CrossOrigin(origins = "${cors.allowed.origins}", allowCredentials = "true")
+@CrossOrigin(origins = "${cors.allowed.origins}", allowCredentials = "true", exposedHeaders = HttpHeaders.RETRY_AFTER)
 public class AdminController {
 
     @Autowired
     private AppUserService userService;
 
+    @Autowired
+    private EventService eventService;
+
     @Autowired private AppUserRepository userRepository;
     @Autowired private RestaurantRepository restaurantRepository;
     @Autowired private CategoryRepository categoryRepository;
     @Autowired private SocialEventRepository eventRepository;
     @Autowired private ParticipationRepository participationRepository;
+    @Autowired private NdjsonStreamer ndjsonStreamer;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private CascadeDeleteService cascadeDeleteService;
+    @Autowired private EventArchiveService eventArchiveService;
+    @Autowired private SessionPrincipals principals;
+    @Autowired private AuthProperties authProperties;
+    @Autowired private PlatformStats platformStats;
+    @Autowired private EndpointMetrics endpointMetrics;
+    // Presente solo con replica.enabled=true
+    @Autowired(required = false) private ReplicaRouting replicaRouting;
+    // Presente solo con entity-cache.enabled=true e senza repliche
+    @Autowired(required = false) private EntityCacheMonitor entityCacheMonitor;
 
     /**
      *  verificare se l'utente loggato è un ADMIN.
      */
-    private boolean isAdmin(HttpSession session) {
-        String role = (String) session.getAttribute("role");
-        return "ADMIN".equals(role);
+    private boolean isAdmin() {
+        SessionPrincipal principal = principals.current();
+        return principal != null && principal.hasRole("ADMIN");
     }
 
     // --- SEZIONE GESTIONE UTENTI ---
@@ -42,41 +78,55 @@ public class AdminController {
      * Recupera la lista completa di tutti gli utenti registrati.
      */
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers(HttpSession session) {
+    public ResponseEntity<?> getAllUsers() {
         // Controllo di sicurezza: solo gli admin possono vedere la lista
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
-        return ResponseEntity.ok(userRepository.findAll());
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        return ResponseEntity.ok(userRepository.findAllViews());
+    }
+
+    /**
+     * Lista utenti in streaming NDJSON, per basi utenti molto grandi.
+     */
+    @GetMapping(value = "/users", produces = NdjsonStreamer.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(@RequestParam(required = false) String fields) {
+        if (!isAdmin()) return ndjsonStreamer.error(403, "Accesso negato");
+        return ndjsonStreamer.stream(userRepository::streamAllViews, fields);
     }
 
     /**
      * Crea un nuovo utente manualmente
      */
     @PostMapping("/users")
-    public ResponseEntity<?> createUser(@RequestBody AppUser user, HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
+    public CompletableFuture<ResponseEntity<?>> createUser(@RequestBody AppUser user) {
+        if (!isAdmin()) return CompletableFuture.completedFuture(ResponseEntity.status(403).body("Accesso negato"));
 
         try {
-            // Delega al service la logica
-            AppUser created = userService.registerUser(user);
-            return ResponseEntity.ok(created);
+            // Delega al service la logica (l'hash della password viene calcolato sul pool dedicato)
+            return userService.registerUser(user)
+                    .<ResponseEntity<?>>thenApply(created -> ResponseEntity.ok(UserView.of(created)))
+                    .exceptionally(e -> AuthController.unwrap(e) instanceof HashingBusyException busy
+                            ? ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                    .header(HttpHeaders.RETRY_AFTER, Long.toString(authProperties.getHashing().getRetryAfter().toSeconds()))
+                                    .body(busy.getMessage())
+                            : ResponseEntity.badRequest().body(AuthController.unwrap(e).getMessage()));
         } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
         }
     }
 
     /**
      * Banna un utente e rimuove tutti i dati associati.
+     * La cancellazione prosegue in background: la risposta 202 contiene il job da interrogare.
      */
     @DeleteMapping("/users/{id}/ban")
-    public ResponseEntity<?> banUser(@PathVariable Long id, HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
+    public ResponseEntity<?> banUser(@PathVariable Long id) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
 
         // Recupera l'ID dell'admin che sta effettuando l'azione per i controlli nel service
-        Long adminId = (Long) session.getAttribute("userId");
+        Long adminId = principals.current().getId();
         try {
-            // Il service gestisce la cancellazione a cascata (eventi, partecipazioni, ristoranti)
-            userService.banUser(id, adminId);
-            return ResponseEntity.ok("Utente bannato ed eliminato");
+            // Il service avvia la cancellazione a cascata (eventi, partecipazioni, ristoranti)
+            return accepted(userService.banUser(id, adminId));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -86,15 +136,20 @@ public class AdminController {
      * Modifica il ruolo di un utente esistente.
      */
     @PatchMapping("/users/{id}/role")
-    public ResponseEntity<?> changeRole(@PathVariable Long id, @RequestParam String role, HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
-
-        AppUser user = userRepository.findById(id).orElse(null);
-        if (user == null) return ResponseEntity.badRequest().body("Utente non trovato");
+    public ResponseEntity<?> changeRole(@PathVariable Long id, @RequestParam String role) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
 
-        user.setRole(role);
-        userRepository.save(user);
-        return ResponseEntity.ok(user);
+        AppUser user;
+        try {
+            user = userService.changeRole(id, role);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        // Le sessioni aperte dall'utente ricaricano il ruolo alla prossima richiesta
+        principals.invalidate(id);
+        // Il ruolo del proprietario compare nella lista ristoranti
+        contentVersions.bump(Resource.RESTAURANTS);
+        return ResponseEntity.ok(UserView.of(user));
     }
 
     // --- SEZIONE GESTIONE RISTORANTI ---
@@ -103,36 +158,47 @@ public class AdminController {
      * Restituisce la lista di tutti i ristoranti presenti nel sistema.
      */
     @GetMapping("/restaurants")
-    public ResponseEntity<?> getAllRestaurants(HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
-        return ResponseEntity.ok(restaurantRepository.findAll());
+    public ResponseEntity<?> getAllRestaurants() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        return ResponseEntity.ok(restaurantRepository.findAllViews());
+    }
+
+    /**
+     * Lista ristoranti in streaming NDJSON.
+     */
+    @GetMapping(value = "/restaurants", produces = NdjsonStreamer.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllRestaurants(@RequestParam(required = false) String fields) {
+        if (!isAdmin()) return ndjsonStreamer.error(403, "Accesso negato");
+        return ndjsonStreamer.stream(restaurantRepository::streamAllViews, fields);
     }
 
     /**
      * Crea un nuovo ristorante.
      */
     @PostMapping("/restaurants")
-    public ResponseEntity<?> createRestaurant(@RequestBody Restaurant restaurant, HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
+    public ResponseEntity<?> createRestaurant(@RequestBody Restaurant restaurant) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
         try {
-            return ResponseEntity.ok(restaurantRepository.save(restaurant));
+            Restaurant saved = restaurantRepository.save(restaurant);
+            contentVersions.bump(Resource.RESTAURANTS);
+            // Non l'entità: il proprietario porterebbe con sé hash della password e bio
+            return ResponseEntity.ok(restaurantRepository.findViewById(saved.getId()).orElseThrow());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Errore creazione ristorante: " + e.getMessage());
         }
     }
 
     /**
-     * Elimina un ristorante tramite ID.
+     * Elimina un ristorante tramite ID, insieme agli eventi ospitati e alle relative iscrizioni.
      */
     @DeleteMapping("/restaurants/{id}")
-    public ResponseEntity<?> deleteRestaurant(@PathVariable Long id, HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
+    public ResponseEntity<?> deleteRestaurant(@PathVariable Long id) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        if (!restaurantRepository.existsById(id)) return ResponseEntity.badRequest().body("Ristorante non trovato");
         try {
-            restaurantRepository.deleteById(id);
-            return ResponseEntity.ok("Ristorante eliminato");
-        } catch (Exception e) {
-            // Gestisce il caso in cui il ristorante non possa essere eliminato per vincoli di chiave esterna (es. eventi associati)
-            return ResponseEntity.status(409).body("Impossibile eliminare: il ristorante è collegato a degli eventi.");
+            return accepted(cascadeDeleteService.deleteRestaurant(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(503).body(e.getMessage());
         }
     }
 
@@ -142,8 +208,8 @@ public class AdminController {
      * Restituisce tutte le categorie di eventi disponibili.
      */
     @GetMapping("/categories")
-    public ResponseEntity<?> getAllCategories(HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
+    public ResponseEntity<?> getAllCategories() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
         return ResponseEntity.ok(categoryRepository.findAll());
     }
 
@@ -151,19 +217,22 @@ public class AdminController {
      * Aggiunge una nuova categoria al sistema.
      */
     @PostMapping("/categories")
-    public ResponseEntity<?> createCategory(@RequestBody Category category, HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
-        return ResponseEntity.ok(categoryRepository.save(category));
+    public ResponseEntity<?> createCategory(@RequestBody Category category) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        Category saved = categoryRepository.save(category);
+        contentVersions.bump(Resource.CATEGORIES);
+        return ResponseEntity.ok(saved);
     }
 
     /**
      * Elimina una categoria esistente.
      */
     @DeleteMapping("/categories/{id}")
-    public ResponseEntity<?> deleteCategory(@PathVariable Long id, HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
+    public ResponseEntity<?> deleteCategory(@PathVariable Long id) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
         try {
             categoryRepository.deleteById(id);
+            contentVersions.bump(Resource.CATEGORIES);
             return ResponseEntity.ok("Categoria eliminata");
         } catch (Exception e) {
             // Impedisce l'eliminazione se la categoria è già in uso in qualche evento
@@ -173,20 +242,137 @@ public class AdminController {
 
     // --- SEZIONE GESTIONE EVENTI ---
 
+    /**
+     * Iscrive in blocco una lista di utenti a un evento (es. prenotazioni di gruppo o import).
+     */
+    @PostMapping("/events/{id}/participants")
+    public ResponseEntity<?> bulkJoinEvent(@PathVariable Long id, @RequestBody List<Long> userIds) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+
+        try {
+            int joined = eventService.bulkJoinEvent(id, userIds);
+            return ResponseEntity.ok("Iscrizioni aggiunte: " + joined);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Permette all'admin di cancellare un evento.
      */
     @DeleteMapping("/events/{id}")
-    public ResponseEntity<?> deleteEvent(@PathVariable Long id, HttpSession session) {
-        if (!isAdmin(session)) return ResponseEntity.status(403).body("Accesso negato");
+    public ResponseEntity<?> deleteEvent(@PathVariable Long id) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
 
         try {
-            // Rimuove manualmente le partecipazioni associate prima di eliminare l'evento per mantenere l'integrità
-            participationRepository.deleteByEventId(id);
-            eventRepository.deleteById(id);
+            // Il service rimuove prima le partecipazioni associate per mantenere l'integrità
+            eventService.deleteEvent(id);
             return ResponseEntity.ok("Evento eliminato dall'amministratore");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Errore cancellazione evento: " + e.getMessage());
         }
     }
+
+    // --- SEZIONE MONITORAGGIO ---
+
+    /**
+     * Statistiche aggregate della piattaforma: eventi per città, categoria e mese, tassi di approvazione,
+     * riempimento e locali più frequentati. Lette dai contatori in memoria, senza query.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        return ResponseEntity.ok(platformStats.snapshot());
+    }
+
+    /**
+     * Tempi di risposta per endpoint (media, percentili, istogramma) e lavoro SQL medio per richiesta:
+     * statement, entità caricate e flush. Un endpoint con molti statement per richiesta indica un problema N+1.
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<?> getMetrics() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        return ResponseEntity.ok(endpointMetrics.snapshot());
+    }
+
+    /**
+     * Azzera le metriche per endpoint, ad esempio prima di misurare un intervento.
+     */
+    @DeleteMapping("/metrics")
+    public ResponseEntity<?> resetMetrics() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        endpointMetrics.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Primario e repliche in lettura: ritardo misurato dal battito, stato e letture servite.
+     * Vuoto se le repliche non sono attive.
+     */
+    @GetMapping("/replicas")
+    public ResponseEntity<?> getReplicas() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        return ResponseEntity.ok(replicaRouting != null ? replicaRouting.status() : List.of());
+    }
+
+    /**
+     * Regioni della cache di secondo livello (entità e risultati di query): elementi, hit, miss e scarti.
+     * Vuoto se la cache non è attiva.
+     */
+    @GetMapping("/cache")
+    public ResponseEntity<?> getCache() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        return ResponseEntity.ok(entityCacheMonitor != null ? entityCacheMonitor.snapshot() : List.of());
+    }
+
+    /**
+     * Svuota la cache di secondo livello, ad esempio dopo modifiche fatte direttamente sul database.
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<?> evictCache() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        if (entityCacheMonitor != null) entityCacheMonitor.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    // --- SEZIONE JOB IN BACKGROUND ---
+
+    /**
+     * Avvia subito un passaggio di archiviazione degli eventi conclusi, senza attendere quello periodico.
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<?> startArchive() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+        return ResponseEntity.accepted().body(eventArchiveService.start());
+    }
+
+    /**
+     * Stato dell'ultimo passaggio di archiviazione: eventi e iscrizioni spostati, esito.
+     */
+    @GetMapping("/archive")
+    public ResponseEntity<?> getArchive() {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+
+        AdminJob job = eventArchiveService.getLastRun();
+        if (job == null) return ResponseEntity.status(404).body("Nessuna archiviazione eseguita");
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Stato di un job di cancellazione avviato da ban o rimozione di un ristorante.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        if (!isAdmin()) return ResponseEntity.status(403).body("Accesso negato");
+
+        AdminJob job = cascadeDeleteService.getJob(jobId);
+        if (job == null) return ResponseEntity.status(404).body("Job non trovato");
+        return ResponseEntity.ok(job);
+    }
+
+    private ResponseEntity<AdminJob> accepted(AdminJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/admin/jobs/" + job.getId()))
+                .body(job);
+    }
 }
\ No newline at end of file
@@ -1,53 +1,69 @@
 package com.socialpizza.backend.controller;
 
+import com.socialpizza.backend.dto.UserView;
 import com.socialpizza.backend.entity.AppUser;
 import com.socialpizza.backend.service.AppUserService;
+import com.socialpizza.backend.service.HashingBusyException;
+import com.socialpizza.backend.session.AuthProperties;
 import com.socialpizza.backend.session.SessionData;
-import jakarta.servlet.http.HttpSession;
+import com.socialpizza.backend.session.SessionPrincipal;
+import com.socialpizza.backend.session.SessionPrincipals;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Gestisce login, logout, registrazione e verifica dello stato della sessione corrente.
  */
 @RestController
 @RequestMapping("/api/auth")
-@CrossOrigin(origins = "${cors.allowed.origins}", allowCredentials = "true")
+@CrossOrigin(origins = "${cors.allowed.origins}", allowCredentials = "true", exposedHeaders = HttpHeaders.RETRY_AFTER)
 public class AuthController {
 
     @Autowired
     private AppUserService userService;
 
+    @Autowired
+    private SessionPrincipals principals;
+
+    @Autowired
+    private AuthProperties authProperties;
+
     /**
      * Gestisce il processo di login.
+     * La verifica della password gira sul pool di hashing: il thread di Tomcat viene liberato subito
+     * e, se il pool è saturo, si risponde 503 con Retry-After. Sessione e cookie vengono scritti da
+     * LoginSessionAdvice sul thread della richiesta, non dal pool.
      */
     @PostMapping("/login")
-    public ResponseEntity<SessionData> login(@RequestBody AppUser loginData, HttpSession session) {
-        try {
-            // Verifica email e password tramite il service
-            AppUser user = userService.login(loginData.getEmail(), loginData.getPassword());
-
-            // Inizializza la sessione salvando attributi chiave per controlli futuri
-            session.setAttribute("username", user.getEmail());
-            session.setAttribute("userId", user.getId());
-            session.setAttribute("role", user.getRole());
-
-            // Restituisce i dati al frontend
-            return ResponseEntity.ok(new SessionData(user.getEmail(), user.getName(), user.getRole(), "Login effettuato"));
-        } catch (RuntimeException e) {
-            // 401 Unauthorized se le credenziali sono errate
-            return ResponseEntity.status(401).body(new SessionData("", "", "", "Credenziali errate"));
-        }
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody AppUser loginData) {
+        // Verifica email e password tramite il service
+        return userService.login(loginData.getEmail(), loginData.getPassword())
+                .<ResponseEntity<?>>thenApply(user -> principals.isBanned(user.getId())
+                        // Bannato ma non ancora cancellato dalla cascata: come un utente inesistente
+                        ? ResponseEntity.status(401).body(new SessionData("", "", "", "Credenziali errate"))
+                        : ResponseEntity.ok(new LoginSessionAdvice.PendingLogin(user)))
+                .exceptionally(e -> {
+                    if (unwrap(e) instanceof HashingBusyException busy) {
+                        return serviceUnavailable(new SessionData("", "", "", busy.getMessage()));
+                    }
+                    // 401 Unauthorized se le credenziali sono errate
+                    return ResponseEntity.status(401).body(new SessionData("", "", "", "Credenziali errate"));
+                });
     }
 
     /**
      * Effettua il logout invalidando la sessione corrente del server.
      */
     @PostMapping("/logout")
-    public ResponseEntity<SessionData> logout(HttpSession session) {
-        // Invalida la sessione rimuovendo tutti gli attributi salvati
-        session.invalidate();
+    public ResponseEntity<SessionData> logout() {
+        // Invalida la sessione, o cancella il cookie con il token in modalità stateless
+        principals.logout();
         return ResponseEntity.ok(new SessionData("", "", "", "Logout effettuato"));
     }
 
@@ -56,17 +72,12 @@ public class AuthController {
      * Utile al frontend per ripristinare lo stato dell'utente al ricaricamento della pagina.
      */
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(HttpSession session) {
-        // Controlla se esiste un utente nella sessione
-        String username = (String) session.getAttribute("username");
-        if (username == null) {
-            return ResponseEntity.status(401).body("Non autenticato");
-        }
-
-        // Recupera i dati aggiornati dal database per garantire coerenza
-        AppUser user = userService.findByEmail(username);
+    public ResponseEntity<?> getCurrentUser() {
+        // Controlla se esiste un utente nella sessione: l'istantanea viene ricaricata
+        // solo se un admin ha modificato o eliminato l'utente nel frattempo
+        SessionPrincipal user = principals.current();
         if (user == null) {
-            return ResponseEntity.status(401).body("Utente non trovato");
+            return ResponseEntity.status(401).body("Non autenticato");
         }
 
         return ResponseEntity.ok(new SessionData(user.getEmail(), user.getName(), user.getRole(), "Sessione attiva"));
@@ -76,14 +87,28 @@ public class AuthController {
      * Gestisce la registrazione di un nuovo utente.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody AppUser user) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody AppUser user) {
         try {
             // Delega la validazione e il salvataggio al service
-            AppUser savedUser = userService.registerUser(user);
-            return ResponseEntity.ok(savedUser);
+            return userService.registerUser(user)
+                    .<ResponseEntity<?>>thenApply(savedUser -> ResponseEntity.ok(UserView.of(savedUser)))
+                    .exceptionally(e -> unwrap(e) instanceof HashingBusyException busy
+                            ? serviceUnavailable(busy.getMessage())
+                            : ResponseEntity.badRequest().body(unwrap(e).getMessage()));
         } catch (RuntimeException e) {
             // Restituisce un errore se i dati non sono validi o l'email esiste già
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
         }
     }
+
+    // Le eccezioni lanciate dentro thenApply arrivano avvolte in una CompletionException
+    static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private <T> ResponseEntity<T> serviceUnavailable(T body) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(authProperties.getHashing().getRetryAfter().toSeconds()))
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -1,15 +1,28 @@
 package com.socialpizza.backend.controller;
 
-import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.dto.EventCursor;
+import com.socialpizza.backend.dto.EventSearchCriteria;
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.dto.ParticipantView;
 import com.socialpizza.backend.entity.Participation;
 import com.socialpizza.backend.entity.SocialEvent;
-import com.socialpizza.backend.service.AppUserService;
+import com.socialpizza.backend.live.EventUpdateBroadcaster;
+import com.socialpizza.backend.service.ContentVersions;
+import com.socialpizza.backend.service.EventArchiveService;
 import com.socialpizza.backend.service.EventService;
-import jakarta.servlet.http.HttpSession;
+import com.socialpizza.backend.session.SessionPrincipal;
+import com.socialpizza.backend.session.SessionPrincipals;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,7 +37,22 @@ public class EventController {
     private EventService eventService;
 
     @Autowired
-    private AppUserService userService;
+    private SessionPrincipals principals;
+
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Autowired
+    private EventUpdateBroadcaster liveUpdates;
+
+    @Autowired
+    private EventArchiveService eventArchiveService;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
 
     /**
@@ -33,16 +61,15 @@ public class EventController {
     @PostMapping("/create")
     public ResponseEntity<?> createEvent(
             @RequestBody SocialEvent event,
-            @RequestParam Long restaurantId,
-            HttpSession session) {
+            @RequestParam Long restaurantId) {
 
-        AppUser organizer = getAuthenticatedUser(session);
+        SessionPrincipal organizer = getAuthenticatedUser();
         if (organizer == null) return ResponseEntity.status(401).body("Devi essere loggato");
 
         try {
             // Delega al service la logica di stato iniziale (PENDING vs APPROVED)
             SocialEvent created = eventService.createEvent(event, restaurantId, organizer.getId());
-            return ResponseEntity.ok(created);
+            return ResponseEntity.ok(EventView.of(created));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -52,23 +79,107 @@ public class EventController {
      * Restituisce la lista di tutti gli eventi confermati (APPROVED).
      */
     @GetMapping("/approved")
-    public List<SocialEvent> getApprovedEvents() {
+    public List<EventView> getApprovedEvents() {
         return eventService.getAllApprovedEvents();
     }
 
     /**
      *  Restituisce eventi sia approvati che in attesa.
+     *  Risponde 304 se la bacheca non è cambiata dall'ultima richiesta del client.
      */
     @GetMapping("/public")
-    public List<SocialEvent> getApprovedOrPending() {
-        return eventService.getApprovedOrPendingEvents();
+    public ResponseEntity<List<EventView>> getApprovedOrPending(WebRequest request) {
+        return contentVersions.conditional(ContentVersions.Resource.EVENTS, request, eventService::getApprovedOrPendingEvents);
+    }
+
+    /**
+     * Variante in streaming NDJSON di /public (Accept: application/x-ndjson).
+     */
+    @GetMapping(value = "/public", produces = NdjsonStreamer.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamApprovedOrPending(@RequestParam(required = false) String fields) {
+        return ndjsonStreamer.stream(eventService::streamApprovedOrPendingEvents, fields);
+    }
+
+    /**
+     * Ricerca eventi lato server con filtri opzionali e paginazione a cursore.
+     * Le date sono inclusive; per la pagina successiva va passato il nextCursor ricevuto.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchEvents(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long cityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(eventService.searchEvents(buildCriteria(status, categoryId, cityId, from, to, q, cursor), pageSize(size)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Bacheca eventi: stessi filtri di /search, ma ogni evento include il numero di iscritti,
+     * i posti rimasti e se l'utente corrente partecipa già.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getEventFeed(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long cityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        SessionPrincipal user = getAuthenticatedUser();
+        try {
+            EventSearchCriteria criteria = buildCriteria(status, categoryId, cityId, from, to, q, cursor);
+            return ResponseEntity.ok(eventService.getEventFeed(criteria, pageSize(size), user != null ? user.getId() : null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Stream SSE delle variazioni: posti occupati (SEATS), cambi di stato (STATUS),
+     * nuove proposte (CREATED) e cancellazioni (CANCELLED).
+     * Filtri facoltativi e ripetibili eventId, restaurantId, cityId; con mine=true i locali del ristoratore loggato.
+     * Un evento "resync" indica che alcuni messaggi sono stati scartati: il client deve ricaricare i dati.
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> liveUpdates(
+            @RequestParam(required = false) List<Long> eventId,
+            @RequestParam(required = false) List<Long> restaurantId,
+            @RequestParam(required = false) List<Long> cityId,
+            @RequestParam(defaultValue = "false") boolean mine) {
+        SessionPrincipal user = getAuthenticatedUser();
+        if (user == null) return ResponseEntity.status(401).build();
+
+        List<Long> restaurants = restaurantId != null ? new ArrayList<>(restaurantId) : new ArrayList<>();
+        if (mine) {
+            List<Long> owned = eventService.getRestaurantIdsByOwner(user.getId());
+            // Nessun locale da seguire: 204 chiude l'EventSource senza tentativi di riconnessione
+            if (owned.isEmpty() && restaurants.isEmpty()) return ResponseEntity.noContent().build();
+            restaurants.addAll(owned);
+        }
+
+        try {
+            return ResponseEntity.ok(liveUpdates.subscribe(
+                    eventId != null ? eventId : List.of(), restaurants, cityId != null ? cityId : List.of()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(503).build();
+        }
     }
 
     /**
      *  Filtra gli eventi per uno specifico ristorante.
      */
     @GetMapping("/restaurant/{restaurantId}")
-    public List<SocialEvent> getRestaurantEvents(@PathVariable Long restaurantId) {
+    public List<EventView> getRestaurantEvents(@PathVariable Long restaurantId) {
         return eventService.getEventsByRestaurant(restaurantId);
     }
 
@@ -81,7 +192,7 @@ public class EventController {
             @PathVariable Long eventId,
             @RequestParam String status) {
         try {
-            return ResponseEntity.ok(eventService.changeEventStatus(eventId, status));
+            return ResponseEntity.ok(EventView.of(eventService.changeEventStatus(eventId, status)));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -91,13 +202,13 @@ public class EventController {
      * Permette a un utente loggato di iscriversi a un evento.
      */
     @PostMapping("/{eventId}/join")
-    public ResponseEntity<?> joinEvent(@PathVariable Long eventId, HttpSession session) {
-        AppUser user = getAuthenticatedUser(session);
+    public ResponseEntity<?> joinEvent(@PathVariable Long eventId) {
+        SessionPrincipal user = getAuthenticatedUser();
         if (user == null) return ResponseEntity.status(401).body("Devi essere loggato");
 
         try {
             Participation p = eventService.joinEvent(user.getId(), eventId);
-            return ResponseEntity.ok(p);
+            return ResponseEntity.ok(ParticipantView.of(p));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage()); // Es. "Sold Out" o "Già iscritto"
         }
@@ -108,8 +219,8 @@ public class EventController {
      * Restituisce gli eventi a cui l'utente loggato si è iscritto.
      */
     @GetMapping("/joined")
-    public ResponseEntity<?> getJoinedEvents(HttpSession session) {
-        AppUser user = getAuthenticatedUser(session);
+    public ResponseEntity<?> getJoinedEvents() {
+        SessionPrincipal user = getAuthenticatedUser();
         if (user == null) return ResponseEntity.status(401).body("Devi essere loggato");
 
         return ResponseEntity.ok(eventService.getEventsJoinedByUser(user.getId()));
@@ -119,13 +230,64 @@ public class EventController {
      * Restituisce gli eventi creati (organizzati) dall'utente loggato.
      */
     @GetMapping("/created")
-    public ResponseEntity<?> getCreatedEvents(HttpSession session) {
-        AppUser user = getAuthenticatedUser(session);
+    public ResponseEntity<?> getCreatedEvents() {
+        SessionPrincipal user = getAuthenticatedUser();
         if (user == null) return ResponseEntity.status(401).body("Devi essere loggato");
 
         return ResponseEntity.ok(eventService.getEventsCreatedByUser(user.getId()));
     }
 
+    // --- Storico degli eventi conclusi, spostati in archivio da EventArchiveService ---
+
+    /**
+     * Eventi archiviati a cui l'utente loggato si era iscritto, dal più recente.
+     */
+    @GetMapping("/archive/joined")
+    public ResponseEntity<?> getArchivedJoinedEvents(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        SessionPrincipal user = getAuthenticatedUser();
+        if (user == null) return ResponseEntity.status(401).body("Devi essere loggato");
+
+        try {
+            return ResponseEntity.ok(eventArchiveService.getArchivedEventsJoinedByUser(user.getId(), page, pageSize(size)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Eventi archiviati organizzati dall'utente loggato, dal più recente.
+     */
+    @GetMapping("/archive/created")
+    public ResponseEntity<?> getArchivedCreatedEvents(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        SessionPrincipal user = getAuthenticatedUser();
+        if (user == null) return ResponseEntity.status(401).body("Devi essere loggato");
+
+        try {
+            return ResponseEntity.ok(eventArchiveService.getArchivedEventsCreatedByUser(user.getId(), page, pageSize(size)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Eventi archiviati ospitati da un locale, dal più recente.
+     */
+    @GetMapping("/archive/restaurant/{restaurantId}")
+    public ResponseEntity<?> getArchivedRestaurantEvents(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(eventArchiveService.getArchivedEventsByRestaurant(restaurantId, page, pageSize(size)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     /**
      * Il Ristoratore accetta o rifiuta una proposta di evento nel suo locale.
      */
@@ -133,10 +295,9 @@ public class EventController {
     public ResponseEntity<?> moderatorDecision(
             @PathVariable Long eventId,
             @RequestParam String decision, // "APPROVED" o "REJECTED"
-            @RequestParam(required = false) String comment,
-            HttpSession session) {
+            @RequestParam(required = false) String comment) {
 
-        AppUser restaurateur = getAuthenticatedUser(session);
+        SessionPrincipal restaurateur = getAuthenticatedUser();
         if (restaurateur == null) return ResponseEntity.status(401).body("Non loggato");
 
         try {
@@ -145,7 +306,7 @@ public class EventController {
             }
             // verificherà che il ristoratore sia davvero il proprietario del locale in questione
             SocialEvent updated = eventService.moderatorDecision(eventId, restaurateur.getId(), decision, comment);
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok(EventView.of(updated));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -155,8 +316,8 @@ public class EventController {
      * Restituisce al ristoratore la lista delle proposte in attesa di decisione.
      */
     @GetMapping("/pending/for-restaurateur")
-    public ResponseEntity<?> getPendingEventsForRestaurateur(HttpSession session) {
-        AppUser restaurateur = getAuthenticatedUser(session);
+    public ResponseEntity<?> getPendingEventsForRestaurateur() {
+        SessionPrincipal restaurateur = getAuthenticatedUser();
         if (restaurateur == null) return ResponseEntity.status(401).body("Non loggato");
 
         try {
@@ -170,6 +331,21 @@ public class EventController {
     }
 
 
+    /**
+     * Dashboard del ristoratore: proposte in attesa, eventi confermati con i posti occupati
+     * e totali per locale, con un numero fisso di query.
+     */
+    @GetMapping("/dashboard/restaurateur")
+    public ResponseEntity<?> getRestaurateurDashboard() {
+        SessionPrincipal restaurateur = getAuthenticatedUser();
+        if (restaurateur == null) return ResponseEntity.status(401).body("Non loggato");
+
+        if (!"RISTORATORE".equals(restaurateur.getRole())) {
+            return ResponseEntity.status(403).body("Accesso negato");
+        }
+        return ResponseEntity.ok(eventService.getRestaurateurDashboard(restaurateur.getId()));
+    }
+
     /**
      * Lista degli utenti partecipanti a un evento specifico.
      */
@@ -182,8 +358,8 @@ public class EventController {
      * booleano per verificare  se l'utente corrente è già iscritto.
      */
     @GetMapping("/{eventId}/is-participating")
-    public ResponseEntity<?> isUserParticipating(@PathVariable Long eventId, HttpSession session) {
-        AppUser user = getAuthenticatedUser(session);
+    public ResponseEntity<?> isUserParticipating(@PathVariable Long eventId) {
+        SessionPrincipal user = getAuthenticatedUser();
         if (user == null) return ResponseEntity.ok(false);
 
         boolean isParticipating = eventService.isUserParticipating(user.getId(), eventId);
@@ -194,8 +370,8 @@ public class EventController {
      *Permette all'utente di cancellare la propria iscrizione.
      */
     @DeleteMapping("/{eventId}/leave")
-    public ResponseEntity<?> leaveEvent(@PathVariable Long eventId, HttpSession session) {
-        AppUser user = getAuthenticatedUser(session);
+    public ResponseEntity<?> leaveEvent(@PathVariable Long eventId) {
+        SessionPrincipal user = getAuthenticatedUser();
         if (user == null) return ResponseEntity.status(401).body("Devi essere loggato");
 
         try {
@@ -210,8 +386,8 @@ public class EventController {
      * L'organizzatore ritira una proposta prima che venga approvata.
      */
     @DeleteMapping("/{eventId}/withdraw")
-    public ResponseEntity<?> withdrawEvent(@PathVariable Long eventId, HttpSession session) {
-        AppUser user = getAuthenticatedUser(session);
+    public ResponseEntity<?> withdrawEvent(@PathVariable Long eventId) {
+        SessionPrincipal user = getAuthenticatedUser();
         if (user == null) return ResponseEntity.status(401).body("Devi essere loggato");
 
         try {
@@ -226,8 +402,8 @@ public class EventController {
      * Restituisce al ristoratore la lista dei suoi eventi già confermati.
      */
     @GetMapping("/approved/for-restaurateur")
-    public ResponseEntity<?> getApprovedEventsForRestaurateur(HttpSession session) {
-        AppUser restaurateur = getAuthenticatedUser(session);
+    public ResponseEntity<?> getApprovedEventsForRestaurateur() {
+        SessionPrincipal restaurateur = getAuthenticatedUser();
         if (restaurateur == null) return ResponseEntity.status(401).body("Non loggato");
 
         if (!"RISTORATORE".equals(restaurateur.getRole())) {
@@ -240,8 +416,8 @@ public class EventController {
      *  Permette al Ristoratore di cancellare un evento confermato nel suo locale.
      */
     @DeleteMapping("/{eventId}/restaurateur/cancel")
-    public ResponseEntity<?> cancelEventByRestaurateur(@PathVariable Long eventId, HttpSession session) {
-        AppUser restaurateur = getAuthenticatedUser(session);
+    public ResponseEntity<?> cancelEventByRestaurateur(@PathVariable Long eventId) {
+        SessionPrincipal restaurateur = getAuthenticatedUser();
         if (restaurateur == null) return ResponseEntity.status(401).body("Non loggato");
 
         try {
@@ -256,11 +432,34 @@ public class EventController {
     }
 
     /**
-     * ottenere l'utente corrente dalla sessione.
+     * Converte i parametri della richiesta nei criteri di ricerca.
+     * Senza stato esplicito vengono cercati gli eventi visibili in bacheca (APPROVED e PENDING).
+     */
+    private EventSearchCriteria buildCriteria(List<String> status, Long categoryId, Long cityId,
+                                              LocalDate from, LocalDate to, String q, String cursor) {
+        List<String> statuses = (status == null || status.isEmpty())
+                ? List.of("APPROVED", "PENDING")
+                : status.stream().map(String::toUpperCase).toList();
+
+        return new EventSearchCriteria(
+                statuses,
+                categoryId,
+                cityId,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                q,
+                null,
+                cursor != null && !cursor.isBlank() ? EventCursor.decode(cursor) : null);
+    }
+
+    private int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * ottenere l'utente corrente dalla sessione (senza query: vedi SessionPrincipals).
      */
-    private AppUser getAuthenticatedUser(HttpSession session) {
-        String email = (String) session.getAttribute("username");
-        if (email == null) return null;
-        return userService.findByEmail(email);
+    private SessionPrincipal getAuthenticatedUser() {
+        return principals.current();
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.socialpizza.backend.controller;
+
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.session.SessionData;
+import com.socialpizza.backend.session.SessionPrincipals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Completa il login sul thread della richiesta. AuthController.login verifica la password sul pool
+ * di hashing e restituisce un {@link PendingLogin}; Spring scrive la risposta nel dispatch asincrono,
+ * sul thread del container, ed è qui che vengono creati sessione e cookie. Dal thread del pool
+ * correrebbero con il completamento e il timeout della richiesta asincrona.
+ * Ordine massimo: deve agire prima di SparseFieldsetAdvice, che avvolge il body.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RestControllerAdvice(assignableTypes = AuthController.class)
+public class LoginSessionAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * Utente autenticato in attesa di sessione: non va mai serializzato così com'è.
+     */
+    record PendingLogin(AppUser user) {}
+
+    @Autowired
+    private SessionPrincipals principals;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof PendingLogin pending)) {
+            return body;
+        }
+        if (!(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            throw new IllegalStateException("Login completabile solo su una richiesta servlet");
+        }
+        AppUser user = pending.user();
+        // Salva l'istantanea dell'utente (in sessione o nel cookie firmato) per i controlli futuri
+        principals.login(user, servletRequest.getServletRequest(), servletResponse.getServletResponse());
+        return new SessionData(user.getEmail(), user.getName(), user.getRole(), "Login effettuato");
+    }
+}
@@ -0,0 +1,96 @@
+package com.socialpizza.backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.socialpizza.backend.dto.FieldsetFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scrive una query in streaming come NDJSON (un oggetto JSON per riga).
+ * Le righe vengono lette dal database a blocchi (fetch size della query) e scritte sulla risposta
+ * man mano, quindi la memoria usata non dipende dal numero di righe.
+ * Attivato dalle richieste con "Accept: application/x-ndjson".
+ */
+@Component
+public class NdjsonStreamer {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    // Ogni quante righe svuotare il buffer verso il client
+    private static final int FLUSH_EVERY = 500;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * @param query  metodo di repository che restituisce uno Stream (va consumato dentro la transazione)
+     * @param fields eventuale sparse fieldset (?fields=), come per le risposte JSON
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> query, String fields) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        ObjectWriter writer = writerFor(fields);
+
+        StreamingResponseBody body = out -> readOnly.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                int written = 0;
+                for (T row : (Iterable<T>) rows::iterator) {
+                    writer.writeValue(generator, row);
+                    if (++written % FLUSH_EVERY == 0) generator.flush();
+                }
+                if (written > 0) generator.writeRaw('\n');
+            } catch (IOException e) {
+                // Client disconnesso: la transazione di sola lettura viene chiusa comunque
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    /**
+     * Risposta di errore con messaggio testuale, per gli endpoint che restituiscono StreamingResponseBody.
+     */
+    public ResponseEntity<StreamingResponseBody> error(int status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ObjectWriter writerFor(String fields) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (fields == null || fields.isBlank()) return writer;
+
+        return writer.with(new SimpleFilterProvider()
+                .addFilter(FieldsetFilter.NAME, SimpleBeanPropertyFilter.filterOutAllExcept(
+                        Arrays.stream(fields.split(",")).map(String::trim).collect(Collectors.toSet())))
+                .setFailOnUnknownId(false));
+    }
+}
@@ -1,16 +1,20 @@
 package com.socialpizza.backend.controller;
 
+import com.socialpizza.backend.dto.RestaurantView;
 import com.socialpizza.backend.entity.Category;
 import com.socialpizza.backend.entity.City;
-import com.socialpizza.backend.entity.Restaurant;
 import com.socialpizza.backend.repository.CategoryRepository;
 import com.socialpizza.backend.repository.CityRepository;
 import com.socialpizza.backend.repository.RestaurantRepository;
+import com.socialpizza.backend.service.ContentVersions;
+import com.socialpizza.backend.service.ContentVersions.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -31,19 +35,23 @@ public class ResourceController {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private ContentVersions contentVersions;
+
+    // Le liste cambiano solo da pannello admin: con ETag il browser riceve 304 senza query al database
 
     @GetMapping("/cities")
-    public List<City> getAllCities() {
-        return cityRepository.findAll();
+    public ResponseEntity<List<City>> getAllCities(WebRequest request) {
+        return contentVersions.conditional(Resource.CITIES, request, cityRepository::findAll);
     }
 
     @GetMapping("/categories")
-    public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+    public ResponseEntity<List<Category>> getAllCategories(WebRequest request) {
+        return contentVersions.conditional(Resource.CATEGORIES, request, categoryRepository::findAll);
     }
 
     @GetMapping("/restaurants")
-    public List<Restaurant> getAllRestaurants() {
-        return restaurantRepository.findAll();
+    public ResponseEntity<List<RestaurantView>> getAllRestaurants(WebRequest request) {
+        return contentVersions.conditional(Resource.RESTAURANTS, request, restaurantRepository::findAllViews);
     }
 }
\ No newline at end of file
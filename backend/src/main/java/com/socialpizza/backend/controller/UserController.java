@@ -1,12 +1,15 @@
 package com.socialpizza.backend.controller;
 
-import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.dto.UserView;
 import com.socialpizza.backend.repository.AppUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,8 +22,17 @@ public class UserController {
     @Autowired
     private AppUserRepository userRepository;
 
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+
     @GetMapping
-    public List<AppUser> getAllUsers() {
-            return userRepository.findAll();
+    public List<UserView> getAllUsers() {
+            return userRepository.findAllViews();
+    }
+
+    // Stessa lista in streaming NDJSON (Accept: application/x-ndjson)
+    @GetMapping(produces = NdjsonStreamer.NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(@RequestParam(required = false) String fields) {
+        return ndjsonStreamer.stream(userRepository::streamAllViews, fields);
     }
 }
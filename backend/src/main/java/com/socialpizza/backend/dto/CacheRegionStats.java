@@ -0,0 +1,36 @@
+package com.socialpizza.backend.dto;
+
+/**
+ * Contatori di una regione della cache di secondo livello (entità o risultati di query) per l'admin.
+ */
+public class CacheRegionStats {
+    private final String region;
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long removals;
+    private final long evictions;
+    private final double hitRatio;
+
+    public CacheRegionStats(String region, long size, long hits, long misses, long puts, long removals,
+                            long evictions, double hitRatio) {
+        this.region = region;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.removals = removals;
+        this.evictions = evictions;
+        this.hitRatio = hitRatio;
+    }
+
+    public String getRegion() { return region; }
+    public long getSize() { return size; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getPuts() { return puts; }
+    public long getRemovals() { return removals; }
+    public long getEvictions() { return evictions; }
+    public double getHitRatio() { return hitRatio; }
+}
@@ -0,0 +1,65 @@
+package com.socialpizza.backend.dto;
+
+import java.util.Map;
+
+/**
+ * Metriche di un endpoint (metodo HTTP + percorso) dall'avvio o dall'ultimo azzeramento.
+ * I percentili sono il limite superiore del bucket dell'istogramma in cui cadono.
+ */
+public class EndpointMetricsView {
+    private final String endpoint;
+    private final String handler;
+    private final long requests;
+    private final long clientErrors;
+    private final long serverErrors;
+    private final double avgMs;
+    private final double maxMs;
+    private final double p50Ms;
+    private final double p95Ms;
+    private final double p99Ms;
+    private final Map<String, Long> histogram;
+    private final long sqlStatements;
+    private final double avgSqlStatements;
+    private final long maxSqlStatements;
+    private final double avgEntityLoads;
+    private final double avgFlushes;
+
+    public EndpointMetricsView(String endpoint, String handler, long requests, long clientErrors, long serverErrors,
+                               double avgMs, double maxMs, double p50Ms, double p95Ms, double p99Ms,
+                               Map<String, Long> histogram, long sqlStatements, double avgSqlStatements,
+                               long maxSqlStatements, double avgEntityLoads, double avgFlushes) {
+        this.endpoint = endpoint;
+        this.handler = handler;
+        this.requests = requests;
+        this.clientErrors = clientErrors;
+        this.serverErrors = serverErrors;
+        this.avgMs = avgMs;
+        this.maxMs = maxMs;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+        this.histogram = histogram;
+        this.sqlStatements = sqlStatements;
+        this.avgSqlStatements = avgSqlStatements;
+        this.maxSqlStatements = maxSqlStatements;
+        this.avgEntityLoads = avgEntityLoads;
+        this.avgFlushes = avgFlushes;
+    }
+
+    public String getEndpoint() { return endpoint; }
+    public String getHandler() { return handler; }
+    public long getRequests() { return requests; }
+    public long getClientErrors() { return clientErrors; }
+    public long getServerErrors() { return serverErrors; }
+    public double getAvgMs() { return avgMs; }
+    public double getMaxMs() { return maxMs; }
+    public double getP50Ms() { return p50Ms; }
+    public double getP95Ms() { return p95Ms; }
+    public double getP99Ms() { return p99Ms; }
+    public Map<String, Long> getHistogram() { return histogram; }
+    public long getSqlStatements() { return sqlStatements; }
+    public double getAvgSqlStatements() { return avgSqlStatements; }
+    public long getMaxSqlStatements() { return maxSqlStatements; }
+    public double getAvgEntityLoads() { return avgEntityLoads; }
+    public double getAvgFlushes() { return avgFlushes; }
+}
@@ -0,0 +1,43 @@
+package com.socialpizza.backend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursore opaco per la paginazione keyset degli eventi.
+ * Contiene la chiave di ordinamento (eventDate, id) dell'ultimo elemento restituito.
+ */
+public class EventCursor {
+    private final LocalDateTime eventDate;
+    private final Long id;
+
+    public EventCursor(LocalDateTime eventDate, Long id) {
+        this.eventDate = eventDate;
+        this.id = id;
+    }
+
+    public LocalDateTime getEventDate() { return eventDate; }
+    public Long getId() { return id; }
+
+    /**
+     * Serializza il cursore in una stringa sicura per l'URL.
+     */
+    public String encode() {
+        String raw = eventDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ricostruisce il cursore ricevuto dal client.
+     */
+    public static EventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new EventCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursore non valido");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.socialpizza.backend.dto;
+
+/**
+ * Evento della bacheca arricchito con i dati che prima richiedevano chiamate separate:
+ * posti occupati, posti rimasti e iscrizione dell'utente corrente.
+ */
+public class EventFeedItem extends EventView {
+    private final long participantCount;
+    private final long remainingSeats;
+    private final boolean joined;
+
+    public EventFeedItem(EventView event, long participantCount, long remainingSeats, boolean joined) {
+        super(event);
+        this.participantCount = participantCount;
+        this.remainingSeats = remainingSeats;
+        this.joined = joined;
+    }
+
+    public long getParticipantCount() { return participantCount; }
+    public long getRemainingSeats() { return remainingSeats; }
+    public boolean isJoined() { return joined; }
+}
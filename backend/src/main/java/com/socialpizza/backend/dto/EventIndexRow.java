@@ -0,0 +1,33 @@
+package com.socialpizza.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Campi testuali di un evento letti per l'indice di ricerca in memoria, con la data usata per
+ * restituire i risultati nello stesso ordine della ricerca paginata.
+ */
+public class EventIndexRow {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String categoryName;
+    private final String restaurantName;
+    private final LocalDateTime eventDate;
+
+    public EventIndexRow(Long id, String title, String description, String categoryName, String restaurantName,
+                         LocalDateTime eventDate) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.categoryName = categoryName;
+        this.restaurantName = restaurantName;
+        this.eventDate = eventDate;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getCategoryName() { return categoryName; }
+    public String getRestaurantName() { return restaurantName; }
+    public LocalDateTime getEventDate() { return eventDate; }
+}
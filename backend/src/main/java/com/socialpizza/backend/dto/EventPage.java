@@ -0,0 +1,20 @@
+package com.socialpizza.backend.dto;
+
+import java.util.List;
+
+/**
+ * Pagina di risultati con il cursore per richiedere la pagina successiva
+ * (null se non ci sono altri elementi).
+ */
+public class EventPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public EventPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,30 @@
+package com.socialpizza.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filtri della ricerca eventi lato server.
+ * I campi null vengono ignorati; dateTo è esclusivo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSearchCriteria {
+    private List<String> statuses;
+    private Long categoryId;
+    private Long cityId;
+    private LocalDateTime dateFrom;
+    private LocalDateTime dateTo;
+    private String text;
+
+    // Restrizione agli id trovati dall'indice full-text (null = nessuna restrizione)
+    private List<Long> eventIds;
+
+    // Posizione dopo la quale riprendere (paginazione a cursore)
+    private EventCursor after;
+}
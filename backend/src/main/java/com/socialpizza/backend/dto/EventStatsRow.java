@@ -0,0 +1,51 @@
+package com.socialpizza.backend.dto;
+
+/**
+ * Riga della GROUP BY usata per riallineare i contatori di PlatformStats con il database:
+ * numero di eventi, posti occupati e capienza per ogni combinazione di stato, città, categoria,
+ * ristorante e mese.
+ */
+public class EventStatsRow {
+    private final String status;
+    private final Long cityId;
+    private final String cityName;
+    private final Long categoryId;
+    private final String categoryName;
+    private final Long restaurantId;
+    private final String restaurantName;
+    private final Integer year;
+    private final Integer month;
+    private final long events;
+    private final long reservedSeats;
+    private final long maxParticipants;
+
+    public EventStatsRow(String status, Long cityId, String cityName, Long categoryId, String categoryName,
+                         Long restaurantId, String restaurantName, Integer year, Integer month,
+                         Long events, Long reservedSeats, Long maxParticipants) {
+        this.status = status;
+        this.cityId = cityId;
+        this.cityName = cityName;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.restaurantId = restaurantId;
+        this.restaurantName = restaurantName;
+        this.year = year;
+        this.month = month;
+        this.events = events != null ? events : 0;
+        this.reservedSeats = reservedSeats != null ? reservedSeats : 0;
+        this.maxParticipants = maxParticipants != null ? maxParticipants : 0;
+    }
+
+    public String getStatus() { return status; }
+    public Long getCityId() { return cityId; }
+    public String getCityName() { return cityName; }
+    public Long getCategoryId() { return categoryId; }
+    public String getCategoryName() { return categoryName; }
+    public Long getRestaurantId() { return restaurantId; }
+    public String getRestaurantName() { return restaurantName; }
+    public Integer getYear() { return year; }
+    public Integer getMonth() { return month; }
+    public long getEvents() { return events; }
+    public long getReservedSeats() { return reservedSeats; }
+    public long getMaxParticipants() { return maxParticipants; }
+}
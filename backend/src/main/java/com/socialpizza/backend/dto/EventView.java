@@ -0,0 +1,105 @@
+package com.socialpizza.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.entity.SocialEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vista di sola lettura di un evento, costruita direttamente dalle query JPQL
+ * ("SELECT new ...") con le sole colonne usate dal frontend.
+ * Mantiene la stessa forma JSON dell'entità (category, restaurant.city, organizer)
+ * ma senza password, bio e proprietario del ristorante.
+ */
+@JsonFilter(FieldsetFilter.NAME)
+public class EventView {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final LocalDateTime eventDate;
+    private final int maxParticipants;
+    private final String status;
+    private final String moderatorComment;
+    private final String rejectionReason;
+    private final LocalDateTime decisionDate;
+    private final int reservedSeats;
+    private final NamedRef category;
+    private final RestaurantRef restaurant;
+    private final NamedRef organizer;
+
+    /**
+     * Costruttore "piatto" usato dalle constructor expression JPQL (vedi SocialEventRepository.EVENT_VIEW_SELECT).
+     */
+    public EventView(Long id, String title, String description, LocalDateTime eventDate, int maxParticipants,
+                     String status, String moderatorComment, String rejectionReason, LocalDateTime decisionDate,
+                     int reservedSeats, Long categoryId, String categoryName,
+                     Long restaurantId, String restaurantName, String restaurantAddress, Long cityId, String cityName,
+                     Long organizerId, String organizerName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.eventDate = eventDate;
+        this.maxParticipants = maxParticipants;
+        this.status = status;
+        this.moderatorComment = moderatorComment;
+        this.rejectionReason = rejectionReason;
+        this.decisionDate = decisionDate;
+        this.reservedSeats = reservedSeats;
+        this.category = NamedRef.of(categoryId, categoryName);
+        this.restaurant = restaurantId != null
+                ? new RestaurantRef(restaurantId, restaurantName, restaurantAddress, NamedRef.of(cityId, cityName))
+                : null;
+        this.organizer = NamedRef.of(organizerId, organizerName);
+    }
+
+    /**
+     * Vista di un'entità già caricata (risposte delle operazioni di scrittura).
+     */
+    public static EventView of(SocialEvent e) {
+        Restaurant r = e.getRestaurant();
+        return new EventView(e.getId(), e.getTitle(), e.getDescription(), e.getEventDate(), e.getMaxParticipants(),
+                e.getStatus(), e.getModeratorComment(), e.getRejectionReason(), e.getDecisionDate(),
+                e.getReservedSeats(),
+                e.getCategory() != null ? e.getCategory().getId() : null,
+                e.getCategory() != null ? e.getCategory().getName() : null,
+                r != null ? r.getId() : null,
+                r != null ? r.getName() : null,
+                r != null ? r.getAddress() : null,
+                r != null && r.getCity() != null ? r.getCity().getId() : null,
+                r != null && r.getCity() != null ? r.getCity().getName() : null,
+                e.getOrganizer() != null ? e.getOrganizer().getId() : null,
+                e.getOrganizer() != null ? e.getOrganizer().getName() : null);
+    }
+
+    // Copia per le sottoclassi che aggiungono campi calcolati (es. EventFeedItem)
+    protected EventView(EventView other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.eventDate = other.eventDate;
+        this.maxParticipants = other.maxParticipants;
+        this.status = other.status;
+        this.moderatorComment = other.moderatorComment;
+        this.rejectionReason = other.rejectionReason;
+        this.decisionDate = other.decisionDate;
+        this.reservedSeats = other.reservedSeats;
+        this.category = other.category;
+        this.restaurant = other.restaurant;
+        this.organizer = other.organizer;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public LocalDateTime getEventDate() { return eventDate; }
+    public int getMaxParticipants() { return maxParticipants; }
+    public String getStatus() { return status; }
+    public String getModeratorComment() { return moderatorComment; }
+    public String getRejectionReason() { return rejectionReason; }
+    public LocalDateTime getDecisionDate() { return decisionDate; }
+    public int getReservedSeats() { return reservedSeats; }
+    public NamedRef getCategory() { return category; }
+    public RestaurantRef getRestaurant() { return restaurant; }
+    public NamedRef getOrganizer() { return organizer; }
+}
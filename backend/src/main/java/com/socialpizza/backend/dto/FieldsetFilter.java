@@ -0,0 +1,12 @@
+package com.socialpizza.backend.dto;
+
+/**
+ * Nome del filtro Jackson usato per il parametro ?fields= (sparse fieldset).
+ * Le viste annotate con {@code @JsonFilter(FieldsetFilter.NAME)} serializzano solo i campi richiesti.
+ */
+public final class FieldsetFilter {
+    public static final String NAME = "fieldset";
+
+    private FieldsetFilter() {
+    }
+}
@@ -0,0 +1,22 @@
+package com.socialpizza.backend.dto;
+
+/**
+ * Riferimento minimo (id e nome) a un'entità collegata: categoria, città, organizzatore.
+ */
+public class NamedRef {
+    private final Long id;
+    private final String name;
+
+    public NamedRef(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+
+    // Le relazioni opzionali (LEFT JOIN) restituiscono id null: in quel caso niente riferimento
+    static NamedRef of(Long id, String name) {
+        return id != null ? new NamedRef(id, name) : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.socialpizza.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.socialpizza.backend.entity.Participation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Iscrizione a un evento con i soli dati visibili del partecipante.
+ */
+@JsonFilter(FieldsetFilter.NAME)
+public class ParticipantView {
+    private final Long id;
+    private final LocalDateTime registrationDate;
+    private final Long userId;
+    private final String name;
+    private final String surname;
+
+    public ParticipantView(Long id, LocalDateTime registrationDate, Long userId, String name, String surname) {
+        this.id = id;
+        this.registrationDate = registrationDate;
+        this.userId = userId;
+        this.name = name;
+        this.surname = surname;
+    }
+
+    public static ParticipantView of(Participation p) {
+        return new ParticipantView(p.getId(), p.getRegistrationDate(),
+                p.getUser().getId(), p.getUser().getName(), p.getUser().getSurname());
+    }
+
+    public Long getId() { return id; }
+    public LocalDateTime getRegistrationDate() { return registrationDate; }
+    public Long getUserId() { return userId; }
+    public String getName() { return name; }
+    public String getSurname() { return surname; }
+}
@@ -0,0 +1,95 @@
+package com.socialpizza.backend.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistiche aggregate della piattaforma per la dashboard admin (vedi PlatformStats).
+ */
+public class PlatformStatsView {
+    private final long totalEvents;
+    private final long totalUsers;
+    private final Map<String, Long> eventsByStatus;
+    private final List<Count> eventsByCity;
+    private final List<Count> eventsByCategory;
+    // Chiave "aaaa-mm" del mese dell'evento, in ordine cronologico
+    private final Map<String, Long> eventsByMonth;
+    // Sulle sole decisioni prese: APPROVED / (APPROVED + REJECTED)
+    private final double approvalRate;
+    private final double rejectionRate;
+    // Posti occupati / posti disponibili sugli eventi confermati
+    private final double fillRate;
+    private final List<RestaurantRank> topRestaurants;
+    private final Map<String, Long> usersByRole;
+    private final Instant reconciledAt;
+
+    public PlatformStatsView(long totalEvents, long totalUsers, Map<String, Long> eventsByStatus,
+                             List<Count> eventsByCity, List<Count> eventsByCategory, Map<String, Long> eventsByMonth,
+                             double approvalRate, double rejectionRate, double fillRate,
+                             List<RestaurantRank> topRestaurants, Map<String, Long> usersByRole, Instant reconciledAt) {
+        this.totalEvents = totalEvents;
+        this.totalUsers = totalUsers;
+        this.eventsByStatus = eventsByStatus;
+        this.eventsByCity = eventsByCity;
+        this.eventsByCategory = eventsByCategory;
+        this.eventsByMonth = eventsByMonth;
+        this.approvalRate = approvalRate;
+        this.rejectionRate = rejectionRate;
+        this.fillRate = fillRate;
+        this.topRestaurants = topRestaurants;
+        this.usersByRole = usersByRole;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getTotalEvents() { return totalEvents; }
+    public long getTotalUsers() { return totalUsers; }
+    public Map<String, Long> getEventsByStatus() { return eventsByStatus; }
+    public List<Count> getEventsByCity() { return eventsByCity; }
+    public List<Count> getEventsByCategory() { return eventsByCategory; }
+    public Map<String, Long> getEventsByMonth() { return eventsByMonth; }
+    public double getApprovalRate() { return approvalRate; }
+    public double getRejectionRate() { return rejectionRate; }
+    public double getFillRate() { return fillRate; }
+    public List<RestaurantRank> getTopRestaurants() { return topRestaurants; }
+    public Map<String, Long> getUsersByRole() { return usersByRole; }
+    public Instant getReconciledAt() { return reconciledAt; }
+
+    public static class Count {
+        private final Long id;
+        private final String name;
+        private final long events;
+
+        public Count(Long id, String name, long events) {
+            this.id = id;
+            this.name = name;
+            this.events = events;
+        }
+
+        public Long getId() { return id; }
+        public String getName() { return name; }
+        public long getEvents() { return events; }
+    }
+
+    public static class RestaurantRank {
+        private final Long id;
+        private final String name;
+        private final long approvedEvents;
+        private final long reservedSeats;
+        private final double fillRate;
+
+        public RestaurantRank(Long id, String name, long approvedEvents, long reservedSeats, double fillRate) {
+            this.id = id;
+            this.name = name;
+            this.approvedEvents = approvedEvents;
+            this.reservedSeats = reservedSeats;
+            this.fillRate = fillRate;
+        }
+
+        public Long getId() { return id; }
+        public String getName() { return name; }
+        public long getApprovedEvents() { return approvedEvents; }
+        public long getReservedSeats() { return reservedSeats; }
+        public double getFillRate() { return fillRate; }
+    }
+}
@@ -0,0 +1,34 @@
+package com.socialpizza.backend.dto;
+
+import java.time.Instant;
+
+/**
+ * Stato di un database per l'admin: il primario e ciascuna replica, con ritardo e letture servite.
+ */
+public class ReplicaStatus {
+    private final String name;
+    private final String url;
+    private final boolean healthy;
+    private final Long lagMs;
+    private final Instant appliedUpTo;
+    private final long reads;
+    private final String error;
+
+    public ReplicaStatus(String name, String url, boolean healthy, Long lagMs, Instant appliedUpTo, long reads, String error) {
+        this.name = name;
+        this.url = url;
+        this.healthy = healthy;
+        this.lagMs = lagMs;
+        this.appliedUpTo = appliedUpTo;
+        this.reads = reads;
+        this.error = error;
+    }
+
+    public String getName() { return name; }
+    public String getUrl() { return url; }
+    public boolean isHealthy() { return healthy; }
+    public Long getLagMs() { return lagMs; }
+    public Instant getAppliedUpTo() { return appliedUpTo; }
+    public long getReads() { return reads; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,23 @@
+package com.socialpizza.backend.dto;
+
+/**
+ * Ristorante come mostrato nelle card degli eventi (senza proprietario).
+ */
+public class RestaurantRef {
+    private final Long id;
+    private final String name;
+    private final String address;
+    private final NamedRef city;
+
+    public RestaurantRef(Long id, String name, String address, NamedRef city) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.city = city;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getAddress() { return address; }
+    public NamedRef getCity() { return city; }
+}
@@ -0,0 +1,31 @@
+package com.socialpizza.backend.dto;
+
+/**
+ * Totali di un locale per la dashboard del ristoratore, calcolati con una GROUP BY.
+ */
+public class RestaurantTotals {
+    private final Long restaurantId;
+    private final String name;
+    private final int maxCapacity;
+    private final long pendingEvents;
+    private final long approvedEvents;
+    private final long reservedSeats;
+
+    public RestaurantTotals(Long restaurantId, String name, int maxCapacity,
+                            Long pendingEvents, Long approvedEvents, Long reservedSeats) {
+        this.restaurantId = restaurantId;
+        this.name = name;
+        this.maxCapacity = maxCapacity;
+        this.pendingEvents = pendingEvents != null ? pendingEvents : 0;
+        this.approvedEvents = approvedEvents != null ? approvedEvents : 0;
+        this.reservedSeats = reservedSeats != null ? reservedSeats : 0;
+    }
+
+    public Long getRestaurantId() { return restaurantId; }
+    public String getName() { return name; }
+    public int getMaxCapacity() { return maxCapacity; }
+    public long getPendingEvents() { return pendingEvents; }
+    public long getApprovedEvents() { return approvedEvents; }
+    // Posti occupati sommati su tutti gli eventi confermati del locale
+    public long getReservedSeats() { return reservedSeats; }
+}
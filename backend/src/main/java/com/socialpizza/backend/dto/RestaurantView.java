@@ -0,0 +1,34 @@
+package com.socialpizza.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+/**
+ * Ristorante con città e proprietario, per i menu del frontend e il pannello admin.
+ */
+@JsonFilter(FieldsetFilter.NAME)
+public class RestaurantView {
+    private final Long id;
+    private final String name;
+    private final String address;
+    private final int maxCapacity;
+    private final NamedRef city;
+    private final UserView owner;
+
+    public RestaurantView(Long id, String name, String address, int maxCapacity,
+                          Long cityId, String cityName,
+                          Long ownerId, String ownerName, String ownerSurname, String ownerEmail, String ownerRole) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.maxCapacity = maxCapacity;
+        this.city = NamedRef.of(cityId, cityName);
+        this.owner = ownerId != null ? new UserView(ownerId, ownerName, ownerSurname, ownerEmail, ownerRole) : null;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getAddress() { return address; }
+    public int getMaxCapacity() { return maxCapacity; }
+    public NamedRef getCity() { return city; }
+    public UserView getOwner() { return owner; }
+}
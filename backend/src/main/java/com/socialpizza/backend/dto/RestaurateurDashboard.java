@@ -0,0 +1,23 @@
+package com.socialpizza.backend.dto;
+
+import java.util.List;
+
+/**
+ * Tutto ciò che serve alla dashboard del ristoratore in una sola risposta:
+ * proposte in attesa, eventi confermati (con posti occupati) e totali per locale.
+ */
+public class RestaurateurDashboard {
+    private final List<EventView> pending;
+    private final List<EventView> approved;
+    private final List<RestaurantTotals> restaurants;
+
+    public RestaurateurDashboard(List<EventView> pending, List<EventView> approved, List<RestaurantTotals> restaurants) {
+        this.pending = pending;
+        this.approved = approved;
+        this.restaurants = restaurants;
+    }
+
+    public List<EventView> getPending() { return pending; }
+    public List<EventView> getApproved() { return approved; }
+    public List<RestaurantTotals> getRestaurants() { return restaurants; }
+}
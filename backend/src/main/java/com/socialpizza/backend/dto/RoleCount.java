@@ -0,0 +1,17 @@
+package com.socialpizza.backend.dto;
+
+/**
+ * Numero di utenti per ruolo (GROUP BY su app_user).
+ */
+public class RoleCount {
+    private final String role;
+    private final long users;
+
+    public RoleCount(String role, Long users) {
+        this.role = role;
+        this.users = users != null ? users : 0;
+    }
+
+    public String getRole() { return role; }
+    public long getUsers() { return users; }
+}
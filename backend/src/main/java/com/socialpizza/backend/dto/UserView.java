@@ -0,0 +1,34 @@
+package com.socialpizza.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.socialpizza.backend.entity.AppUser;
+
+/**
+ * Dati pubblici di un utente: mai password né bio.
+ */
+@JsonFilter(FieldsetFilter.NAME)
+public class UserView {
+    private final Long id;
+    private final String name;
+    private final String surname;
+    private final String email;
+    private final String role;
+
+    public UserView(Long id, String name, String surname, String email, String role) {
+        this.id = id;
+        this.name = name;
+        this.surname = surname;
+        this.email = email;
+        this.role = role;
+    }
+
+    public static UserView of(AppUser user) {
+        return new UserView(user.getId(), user.getName(), user.getSurname(), user.getEmail(), user.getRole());
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getSurname() { return surname; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+}
@@ -0,0 +1,56 @@
+package com.socialpizza.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento concluso spostato nell'archivio da EventArchiveService, con lo stesso id dell'originale.
+ * I riferimenti sono id con il nome copiato accanto: lo storico non dipende dalle tabelle attive.
+ * Scritto solo dalla INSERT ... SELECT di ArchivedEventRepository.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedEvent {
+    @Id
+    private Long id;
+
+    private String title;
+
+    @Column(length = 500)
+    private String description;
+
+    private LocalDateTime eventDate;
+    private int maxParticipants;
+    private int reservedSeats;
+    private String status;
+
+    @Column(length = 300)
+    private String moderatorComment;
+
+    @Column(length = 1000)
+    private String rejectionReason;
+
+    private LocalDateTime decisionDate;
+
+    private Long categoryId;
+    private String categoryName;
+    private Long restaurantId;
+    private String restaurantName;
+    private String restaurantAddress;
+    private Long cityId;
+    private String cityName;
+    private Long organizerId;
+    private String organizerName;
+
+    // Assegnato dal database all'inserimento
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime archivedAt;
+}
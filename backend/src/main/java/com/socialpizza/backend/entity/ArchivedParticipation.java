@@ -0,0 +1,29 @@
+package com.socialpizza.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Iscrizione a un evento archiviato, con lo stesso id dell'iscrizione originale.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedParticipation {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long eventId;
+
+    private Long userId;
+
+    private LocalDateTime registrationDate;
+}
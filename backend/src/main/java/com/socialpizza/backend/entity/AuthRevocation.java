@@ -0,0 +1,25 @@
+package com.socialpizza.backend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Revoca dei token emessi per un utente (ban, cambio ruolo): sono validi solo quelli
+ * emessi dopo revokedAt. Condivisa tra le istanze tramite il database.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthRevocation {
+    @Id
+    private Long userId;
+
+    // Millisecondi epoch, confrontati direttamente con l'istante di emissione del token
+    @Column(nullable = false)
+    private long revokedAt;
+}
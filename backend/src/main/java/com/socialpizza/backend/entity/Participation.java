@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 @Table(uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "event_id"}))
 public class Participation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Id da sequenza con blocchi di 50: le iscrizioni in massa vengono inserite in batch JDBC
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participation_seq")
+    @SequenceGenerator(name = "participation_seq", sequenceName = "participation_seq", allocationSize = 50)
     private Long id;
 
     private LocalDateTime registrationDate;
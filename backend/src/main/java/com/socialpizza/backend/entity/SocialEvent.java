@@ -12,13 +12,18 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class SocialEvent {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "social_event_seq")
+    @SequenceGenerator(name = "social_event_seq", sequenceName = "social_event_seq", allocationSize = 50)
     private Long id;
 
     private String title;
     private LocalDateTime eventDate;
     private int maxParticipants;
 
+    // Posti già occupati: aggiornato solo tramite le query atomiche di SocialEventRepository,
+    // mai dal salvataggio dell'entità (che sovrascriverebbe le iscrizioni concorrenti)
+    @Column(nullable = false, updatable = false)
+    private int reservedSeats;
 
     private String status;
 
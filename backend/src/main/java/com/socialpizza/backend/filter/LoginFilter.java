@@ -1,9 +1,11 @@
 package com.socialpizza.backend.filter;
 
+import com.socialpizza.backend.session.SessionPrincipal;
+import com.socialpizza.backend.session.SessionPrincipals;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import java.io.IOException;
@@ -16,15 +18,17 @@ import java.io.IOException;
 @Order(1) // Definisce la priorità del filtro nella catena (1 = alta priorità)
 public class LoginFilter implements Filter {
 
+    @Autowired
+    private SessionPrincipals principals;
+
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
         // accedere ai metodi specifici HTTP
         HttpServletRequest request = (HttpServletRequest) servletRequest;
         HttpServletResponse res = (HttpServletResponse) servletResponse;
 
-        // Recupera la sessione esistente
-        HttpSession session = request.getSession(false);
-        String user = (session != null) ? (String) session.getAttribute("username") : null;
+        // Recupera l'utente dalla sessione o dal token (memorizzato anche per i controller della richiesta)
+        SessionPrincipal user = principals.current();
 
         // Gestione pre-flight CORS (OPTIONS)
         if (request.getMethod().equals("OPTIONS")) {
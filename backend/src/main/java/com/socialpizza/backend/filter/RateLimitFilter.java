@@ -0,0 +1,190 @@
+package com.socialpizza.backend.filter;
+
+import com.socialpizza.backend.session.SessionPrincipal;
+import com.socialpizza.backend.session.SessionPrincipals;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita la frequenza delle richieste per client e per gruppo di endpoint (vedi {@link RouteGroup}).
+ * Eseguito prima di LoginFilter: il client è l'utente autenticato se presente, altrimenti l'IP.
+ * Ogni bucket è un solo AtomicLong aggiornato con CAS, senza lock.
+ * Il 429 viene scritto qui, non con sendError: la pagina d'errore non passerebbe da @CrossOrigin
+ * e il frontend non potrebbe leggere né lo stato né Retry-After.
+ */
+@Component
+@Order(0)
+public class RateLimitFilter implements Filter {
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private SessionPrincipals principals;
+
+    // Stesse origini di @CrossOrigin sui controller
+    @Value("${cors.allowed.origins}")
+    private List<String> allowedOrigins;
+
+    private final Map<RouteGroup, Buckets> buckets = new EnumMap<>(RouteGroup.class);
+
+    @PostConstruct
+    void createBuckets() {
+        properties.getGroups().forEach((group, limit) -> buckets.put(group, new Buckets(limit, properties.getMaxClients())));
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+
+        RouteGroup group = properties.isEnabled() && !"OPTIONS".equals(request.getMethod())
+                ? RouteGroup.of(request.getMethod(), request.getServletPath())
+                : null;
+        Buckets groupBuckets = group != null ? buckets.get(group) : null;
+        if (groupBuckets == null) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        long waitNanos = groupBuckets.acquire(clientKey(request), System.nanoTime());
+        if (waitNanos == 0) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+
+        HttpServletResponse res = (HttpServletResponse) servletResponse;
+        allowCors(request, res);
+        res.setStatus(429);
+        res.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1)));
+        res.setContentType("text/plain;charset=UTF-8");
+        res.getOutputStream().write("Troppe richieste, riprova tra poco".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Header CORS che il controller avrebbe aggiunto, per le sole origini ammesse.
+     */
+    private void allowCors(HttpServletRequest request, HttpServletResponse response) {
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+        if (origin != null && allowedOrigins.contains(origin)) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.RETRY_AFTER);
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        SessionPrincipal principal = principals.current();
+        return principal != null ? "u" + principal.getId() : request.getRemoteAddr();
+    }
+
+    /**
+     * Rimuove i bucket tornati pieni: per un client inattivo equivalgono a un bucket nuovo.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval:30s}")
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().forEach(b -> b.sweep(now));
+    }
+
+    /**
+     * Bucket dei client di un gruppo. Implementa il token bucket come GCRA: per ogni client si tiene
+     * solo l'istante teorico in cui il bucket tornerà pieno (TAT); una richiesta è ammessa se
+     * TAT - adesso non supera la tolleranza di burst.
+     * A mappa piena si fa posto rimuovendo i client inattivi, non raggruppando i nuovi in un bucket comune:
+     * altrimenti molti IP diversi basterebbero a bloccare ogni nuovo utente legittimo.
+     */
+    static final class Buckets {
+
+        // Pulizia completa al massimo una volta al secondo quando la mappa è piena, altrimenti un campione
+        private static final long INLINE_SWEEP_PAUSE_NANOS = TimeUnit.SECONDS.toNanos(1);
+        private static final int EVICTION_SAMPLE = 16;
+
+        private final long intervalNanos;   // tempo per recuperare un permesso
+        private final long toleranceNanos;  // burst - 1 permessi anticipabili
+        private final int maxClients;
+        private final ConcurrentHashMap<String, AtomicLong> byClient = new ConcurrentHashMap<>();
+        private final AtomicLong lastInlineSweep = new AtomicLong(System.nanoTime() - INLINE_SWEEP_PAUSE_NANOS);
+
+        Buckets(RateLimitProperties.Limit limit, int maxClients) {
+            intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, limit.getPermitsPerMinute());
+            toleranceNanos = intervalNanos * Math.max(0, limit.getBurst() - 1);
+            this.maxClients = maxClients;
+        }
+
+        /**
+         * Restituisce 0 se la richiesta è ammessa, altrimenti i nanosecondi da attendere.
+         */
+        long acquire(String client, long now) {
+            AtomicLong bucket = byClient.get(client);
+            if (bucket == null) {
+                if (byClient.size() >= maxClients) {
+                    makeRoom(now);
+                }
+                bucket = byClient.computeIfAbsent(client, k -> new AtomicLong(Long.MIN_VALUE));
+            }
+            while (true) {
+                long tat = bucket.get();
+                long start = isFull(tat, now) ? now : tat;
+                long wait = start - now - toleranceNanos;
+                if (wait > 0) return wait;
+                if (bucket.compareAndSet(tat, start + intervalNanos)) return 0;
+            }
+        }
+
+        int size() {
+            return byClient.size();
+        }
+
+        private static boolean isFull(long tat, long now) {
+            return tat == Long.MIN_VALUE || tat - now <= 0;
+        }
+
+        void sweep(long now) {
+            byClient.values().removeIf(bucket -> isFull(bucket.get(), now));
+        }
+
+        /**
+         * Prima i bucket già tornati pieni (client inattivi); se sono tutti in uso, il più vicino
+         * a tornare pieno in un piccolo campione. Un client rimosso riparte da un bucket pieno.
+         */
+        private void makeRoom(long now) {
+            long last = lastInlineSweep.get();
+            if (now - last >= INLINE_SWEEP_PAUSE_NANOS && lastInlineSweep.compareAndSet(last, now)) {
+                sweep(now);
+                if (byClient.size() < maxClients) return;
+            }
+            String idlest = null;
+            long idlestRemaining = Long.MAX_VALUE;
+            Iterator<Map.Entry<String, AtomicLong>> sample = byClient.entrySet().iterator();
+            for (int i = 0; i < EVICTION_SAMPLE && sample.hasNext(); i++) {
+                Map.Entry<String, AtomicLong> entry = sample.next();
+                long tat = entry.getValue().get();
+                long remaining = isFull(tat, now) ? 0 : tat - now;
+                if (remaining < idlestRemaining) {
+                    idlest = entry.getKey();
+                    idlestRemaining = remaining;
+                }
+            }
+            if (idlest != null) byClient.remove(idlest);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.socialpizza.backend.filter;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Limiti di RateLimitFilter (prefisso "rate-limit" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Numero massimo di client tracciati per gruppo: oltre, si fa posto rimuovendo i client inattivi
+    private int maxClients = 100_000;
+
+    // Ogni quanto rimuovere i bucket inattivi (già tornati pieni, quindi equivalenti a un client nuovo)
+    private Duration sweepInterval = Duration.ofSeconds(30);
+
+    private Map<RouteGroup, Limit> groups = new EnumMap<>(Map.of(
+            RouteGroup.AUTH, new Limit(20, 10),
+            RouteGroup.JOIN, new Limit(60, 10),
+            RouteGroup.FEED, new Limit(600, 60),
+            RouteGroup.ADMIN, new Limit(300, 50)));
+
+    @Data
+    public static class Limit {
+        // Richieste consentite al minuto a regime
+        private int permitsPerMinute;
+        // Richieste consecutive consentite a bucket pieno
+        private int burst;
+
+        public Limit() {}
+
+        public Limit(int permitsPerMinute, int burst) {
+            this.permitsPerMinute = permitsPerMinute;
+            this.burst = burst;
+        }
+    }
+}
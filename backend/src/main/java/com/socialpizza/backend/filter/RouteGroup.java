@@ -0,0 +1,24 @@
+package com.socialpizza.backend.filter;
+
+/**
+ * Gruppi di endpoint con limiti di frequenza separati.
+ */
+public enum RouteGroup {
+    AUTH, JOIN, FEED, ADMIN;
+
+    /**
+     * Gruppo della richiesta, o null se l'endpoint non è limitato.
+     */
+    static RouteGroup of(String method, String path) {
+        if (path.startsWith("/api/auth/")) return AUTH;
+        if (path.startsWith("/api/admin/")) return ADMIN;
+        if (path.startsWith("/api/events/") && (path.endsWith("/join") || path.endsWith("/leave"))) return JOIN;
+        if ("GET".equals(method) && (path.startsWith("/api/resources/")
+                || path.equals("/api/events/public") || path.equals("/api/events/feed")
+                || path.equals("/api/events/search") || path.equals("/api/events/approved")
+                || path.equals("/api/events/live"))) {
+            return FEED;
+        }
+        return null;
+    }
+}
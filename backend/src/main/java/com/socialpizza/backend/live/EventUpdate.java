@@ -0,0 +1,66 @@
+package com.socialpizza.backend.live;
+
+import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.entity.SocialEvent;
+
+/**
+ * Variazione di un evento inviata agli iscritti allo stream /api/events/live.
+ * Contiene restaurantId e cityId per instradarla ai soli iscritti interessati.
+ */
+public class EventUpdate {
+
+    public enum Type {
+        CREATED,    // nuova proposta o evento
+        SEATS,      // posti occupati cambiati (iscrizione, disiscrizione)
+        STATUS,     // stato cambiato (decisione del ristoratore, cambio stato generico)
+        CANCELLED   // evento ritirato o cancellato
+    }
+
+    private final Type type;
+    private final Long eventId;
+    private final Long restaurantId;
+    private final Long cityId;
+    private final String status;
+    private final int reservedSeats;
+    private final int maxParticipants;
+
+    public EventUpdate(Type type, Long eventId, Long restaurantId, Long cityId,
+                       String status, int reservedSeats, int maxParticipants) {
+        this.type = type;
+        this.eventId = eventId;
+        this.restaurantId = restaurantId;
+        this.cityId = cityId;
+        this.status = status;
+        this.reservedSeats = reservedSeats;
+        this.maxParticipants = maxParticipants;
+    }
+
+    /**
+     * Costruttore usato dalla constructor expression JPQL (SocialEventRepository.findLiveUpdate):
+     * il tipo viene assegnato dal chiamante con {@link #as}.
+     */
+    public EventUpdate(Long eventId, Long restaurantId, Long cityId, String status, int reservedSeats, int maxParticipants) {
+        this(null, eventId, restaurantId, cityId, status, reservedSeats, maxParticipants);
+    }
+
+    public static EventUpdate of(Type type, SocialEvent event) {
+        Restaurant restaurant = event.getRestaurant();
+        return new EventUpdate(type, event.getId(),
+                restaurant != null ? restaurant.getId() : null,
+                restaurant != null && restaurant.getCity() != null ? restaurant.getCity().getId() : null,
+                event.getStatus(), event.getReservedSeats(), event.getMaxParticipants());
+    }
+
+    public EventUpdate as(Type newType) {
+        return new EventUpdate(newType, eventId, restaurantId, cityId, status, reservedSeats, maxParticipants);
+    }
+
+    public Type getType() { return type; }
+    public Long getEventId() { return eventId; }
+    public Long getRestaurantId() { return restaurantId; }
+    public Long getCityId() { return cityId; }
+    public String getStatus() { return status; }
+    public int getReservedSeats() { return reservedSeats; }
+    public int getMaxParticipants() { return maxParticipants; }
+    public int getRemainingSeats() { return Math.max(0, maxParticipants - reservedSeats); }
+}
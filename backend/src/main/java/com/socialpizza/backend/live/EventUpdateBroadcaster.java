@@ -0,0 +1,333 @@
+package com.socialpizza.backend.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distribuisce le variazioni degli eventi alle connessioni SSE aperte su /api/events/live.
+ * <p>
+ * Gli iscritti sono indicizzati per evento, ristorante e città: una variazione raggiunge solo chi la
+ * segue, senza scorrere tutte le connessioni. Il JSON viene serializzato una volta per variazione.
+ * Ogni iscritto ha una coda limitata svuotata da un pool di thread dedicato, quindi chi pubblica
+ * (una richiesta di iscrizione, una decisione) non attende mai la rete. Se un client non tiene il passo
+ * i messaggi in eccesso vengono scartati e riceve un evento "resync" per ricaricare i dati;
+ * se nel frattempo perde un'altra coda intera viene disconnesso.
+ * <p>
+ * La scrittura sulla connessione è bloccante: un client che smette di leggere può tenere fermo il suo thread.
+ * Il pool cresce fino a maxSenderThreads, così gli altri iscritti non restano in attesa, e una scrittura
+ * che dura più di sendTimeout fa disconnettere il client al primo messaggio successivo (al più tardi al
+ * battito periodico).
+ */
+@Component
+public class EventUpdateBroadcaster {
+
+    static final String RESYNC = "resync";
+
+    @Autowired
+    private LiveUpdatesProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Set<Subscriber> everything = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byEvent = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> byRestaurant = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> byCity = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ThreadPoolExecutor senders;
+
+    @PostConstruct
+    void start() {
+        // Nessuna coda: ogni iscritto da servire ha subito un thread, anche se altri sono bloccati in scrittura.
+        // Se sono tutti occupati il pool rifiuta e l'iscritto viene disconnesso (vedi Subscriber.offer)
+        int core = properties.getSenderThreads();
+        senders = new ThreadPoolExecutor(core, Math.max(core, properties.getMaxSenderThreads()),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "live-updates");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Apre una connessione. Con tutti i filtri vuoti si ricevono le variazioni di ogni evento,
+     * altrimenti quelle che corrispondono ad almeno uno degli id indicati.
+     */
+    public SseEmitter subscribe(Collection<Long> eventIds, Collection<Long> restaurantIds, Collection<Long> cityIds) {
+        if (subscriberCount.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Troppe connessioni aperte, riprova più tardi");
+        }
+
+        SseEmitter emitter = newEmitter();
+        int dimensions = (eventIds.isEmpty() ? 0 : 1) + (restaurantIds.isEmpty() ? 0 : 1) + (cityIds.isEmpty() ? 0 : 1);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(eventIds), Set.copyOf(restaurantIds),
+                Set.copyOf(cityIds), dimensions > 1);
+
+        subscribers.add(subscriber);
+        if (dimensions == 0) {
+            everything.add(subscriber);
+        }
+        subscriber.eventIds.forEach(id -> addTo(byEvent, id, subscriber));
+        subscriber.restaurantIds.forEach(id -> addTo(byRestaurant, id, subscriber));
+        subscriber.cityIds.forEach(id -> addTo(byCity, id, subscriber));
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // Primo messaggio subito: il browser riceve gli header e considera aperta la connessione
+        subscriber.offer(Frame.comment("connesso"));
+        return emitter;
+    }
+
+    /**
+     * Pubblica una variazione. Dentro una transazione l'invio avviene solo dopo il commit,
+     * così i client non vedono mai dati poi annullati da un rollback.
+     */
+    public void publish(EventUpdate update) {
+        if (update == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fanOut(update);
+                }
+            });
+        } else {
+            fanOut(update);
+        }
+    }
+
+    public void publishAll(Collection<EventUpdate> updates) {
+        updates.forEach(this::publish);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(properties.getTimeout().toMillis());
+    }
+
+    private void fanOut(EventUpdate update) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Frame frame;
+        try {
+            frame = new Frame(Long.toString(sequence.incrementAndGet()), update.getType().name(),
+                    objectMapper.writeValueAsString(update));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // Gli iscritti con più filtri possono comparire in più indici: ricevono comunque un solo messaggio
+        Set<Subscriber> alreadyServed = new HashSet<>();
+        deliver(everything, frame, alreadyServed);
+        deliver(byEvent.get(update.getEventId()), frame, alreadyServed);
+        if (update.getRestaurantId() != null) {
+            deliver(byRestaurant.get(update.getRestaurantId()), frame, alreadyServed);
+        }
+        if (update.getCityId() != null) {
+            deliver(byCity.get(update.getCityId()), frame, alreadyServed);
+        }
+    }
+
+    private static void deliver(Set<Subscriber> targets, Frame frame, Set<Subscriber> alreadyServed) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            if (!subscriber.multiMatch || alreadyServed.add(subscriber)) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    /**
+     * Commento periodico: mantiene vive le connessioni dietro i proxy e rileva i client spariti
+     * (la scrittura fallisce e l'iscritto viene rimosso) o bloccati in una scrittura oltre sendTimeout.
+     */
+    @Scheduled(fixedDelayString = "${live-updates.heartbeat:20s}", initialDelayString = "${live-updates.heartbeat:20s}")
+    public void heartbeat() {
+        Frame ping = Frame.comment("ping");
+        subscribers.forEach(subscriber -> subscriber.offer(ping));
+    }
+
+    private static void addTo(Map<Long, Set<Subscriber>> index, Long key, Subscriber subscriber) {
+        index.compute(key, (k, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+    }
+
+    private static void removeFrom(Map<Long, Set<Subscriber>> index, Long key, Subscriber subscriber) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    /**
+     * Messaggio SSE già serializzato, condiviso tra tutti i destinatari (name null = commento).
+     */
+    private record Frame(String id, String name, String data) {
+        static Frame comment(String text) {
+            return new Frame(null, null, text);
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> eventIds;
+        private final Set<Long> restaurantIds;
+        private final Set<Long> cityIds;
+        private final boolean multiMatch;
+
+        private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(properties.getBufferSize());
+        // true mentre un thread del pool sta svuotando (o sta per svuotare) la coda
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Messaggi scartati dall'ultimo resync inviato
+        private final AtomicInteger dropped = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // System.nanoTime() di inizio della scrittura in corso, 0 se nessuna
+        private volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter, Set<Long> eventIds, Set<Long> restaurantIds, Set<Long> cityIds, boolean multiMatch) {
+            this.emitter = emitter;
+            this.eventIds = eventIds;
+            this.restaurantIds = restaurantIds;
+            this.cityIds = cityIds;
+            this.multiMatch = multiMatch;
+        }
+
+        void offer(Frame frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (stalled()) {
+                // Il client non legge più: il thread resta bloccato finché il container non chiude la connessione
+                disconnect();
+                return;
+            }
+            if (!queue.offer(frame) && dropped.incrementAndGet() > properties.getBufferSize()) {
+                // Un'intera coda persa senza che il client abbia letto nulla: consumatore troppo lento
+                disconnect();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Tutti i thread di invio sono occupati: EventSource si ricollegherà e ricaricherà i dati
+                    disconnect();
+                }
+            }
+        }
+
+        private boolean stalled() {
+            long since = sendingSince;
+            return since != 0 && System.nanoTime() - since > properties.getSendTimeout().toNanos();
+        }
+
+        private void disconnect() {
+            emitter.complete();
+            close();
+        }
+
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    if (dropped.get() > 0) {
+                        // I messaggi in coda sono ormai parziali: meglio chiedere al client di ricaricare
+                        queue.clear();
+                        dropped.set(0);
+                        write(SseEmitter.event().name(RESYNC).data(RESYNC));
+                    }
+                    Frame frame = queue.poll();
+                    if (frame == null) {
+                        scheduled.set(false);
+                        // Un messaggio arrivato dopo il poll ma prima del reset va comunque inviato
+                        if ((queue.isEmpty() && dropped.get() == 0) || !scheduled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    send(frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnesso o connessione già chiusa
+                scheduled.set(false);
+                close();
+            }
+        }
+
+        private void send(Frame frame) throws IOException {
+            if (frame.name() == null) {
+                write(SseEmitter.event().comment(frame.data()));
+            } else {
+                write(SseEmitter.event().id(frame.id()).name(frame.name()).data(frame.data()));
+            }
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) throws IOException {
+            sendingSince = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                sendingSince = 0;
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            subscribers.remove(this);
+            everything.remove(this);
+            eventIds.forEach(id -> removeFrom(byEvent, id, this));
+            restaurantIds.forEach(id -> removeFrom(byRestaurant, id, this));
+            cityIds.forEach(id -> removeFrom(byCity, id, this));
+            subscriberCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.socialpizza.backend.live;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configurazione dello stream SSE degli eventi (prefisso "live-updates" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "live-updates")
+public class LiveUpdatesProperties {
+
+    // Connessioni aperte contemporaneamente: oltre, le nuove ricevono 503
+    private int maxSubscribers = 10_000;
+
+    // Messaggi in attesa per ogni iscritto: a coda piena quelli nuovi vengono scartati
+    private int bufferSize = 64;
+
+    // Thread sempre pronti a scrivere sulle connessioni; un iscritto è servito da un solo thread alla volta
+    private int senderThreads = 2;
+
+    // Thread di invio al massimo: se sono tutti occupati, l'iscritto da servire viene disconnesso
+    private int maxSenderThreads = 64;
+
+    // Durata massima di una singola scrittura: oltre, il client è considerato bloccato e viene disconnesso
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    // Commento periodico che tiene aperta la connessione e fa emergere i client disconnessi
+    private Duration heartbeat = Duration.ofSeconds(20);
+
+    // Durata massima di una connessione: EventSource si ricollega da solo
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,118 @@
+package com.socialpizza.backend.metrics;
+
+import com.socialpizza.backend.dto.EndpointMetricsView;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tempi di risposta e lavoro SQL per endpoint, in memoria.
+ * Ogni endpoint ha un istogramma a bucket fissi: la registrazione costa qualche incremento di LongAdder,
+ * senza lock né campioni da conservare. Gli endpoint sono identificati dal pattern di mapping
+ * ("GET /api/events/{eventId}/participants"), quindi sono in numero limitato.
+ */
+@Component
+public class EndpointMetrics {
+
+    // Limiti superiori dei bucket in millisecondi; l'ultimo bucket raccoglie il resto
+    private static final long[] BUCKETS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, String handler, long nanos, int status, RequestStats stats) {
+        timers.computeIfAbsent(endpoint, k -> new Timer(handler)).record(nanos, status, stats);
+    }
+
+    /**
+     * Endpoint ordinati per tempo complessivo speso: in cima quelli su cui conviene intervenire.
+     */
+    public List<EndpointMetricsView> snapshot() {
+        return timers.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Timer> e) -> e.getValue().totalNanos.sum()).reversed())
+                .map(e -> e.getValue().view(e.getKey()))
+                .toList();
+    }
+
+    public void reset() {
+        timers.clear();
+    }
+
+    private static class Timer {
+        private final String handler;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BUCKETS_MS.length + 1];
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder entityLoads = new LongAdder();
+        private final LongAdder flushes = new LongAdder();
+
+        Timer(String handler) {
+            this.handler = handler;
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        void record(long nanos, int status, RequestStats stats) {
+            count.increment();
+            if (status >= 500) serverErrors.increment();
+            else if (status >= 400) clientErrors.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            buckets[bucketOf(nanos)].increment();
+            if (stats != null) {
+                statements.add(stats.getStatements());
+                maxStatements.accumulate(stats.getStatements());
+                entityLoads.add(stats.getEntityLoads());
+                flushes.add(stats.getFlushes());
+            }
+        }
+
+        EndpointMetricsView view(String endpoint) {
+            long requests = count.sum();
+            long[] counts = new long[buckets.length];
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                histogram.put(i < BUCKETS_MS.length ? "<=" + BUCKETS_MS[i] + "ms" : ">" + BUCKETS_MS[BUCKETS_MS.length - 1] + "ms", counts[i]);
+            }
+            double maxMs = maxNanos.get() / 1e6;
+            return new EndpointMetricsView(endpoint, handler, requests, clientErrors.sum(), serverErrors.sum(),
+                    average(totalNanos.sum() / 1e6, requests), maxMs,
+                    percentile(counts, requests, 0.50, maxMs), percentile(counts, requests, 0.95, maxMs),
+                    percentile(counts, requests, 0.99, maxMs), histogram,
+                    statements.sum(), average(statements.sum(), requests), maxStatements.get(),
+                    average(entityLoads.sum(), requests), average(flushes.sum(), requests));
+        }
+
+        private static int bucketOf(long nanos) {
+            for (int i = 0; i < BUCKETS_MS.length; i++) {
+                if (nanos <= BUCKETS_MS[i] * 1_000_000) return i;
+            }
+            return BUCKETS_MS.length;
+        }
+
+        private static double percentile(long[] counts, long total, double quantile, double maxMs) {
+            if (total == 0) return 0;
+            long target = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) return i < BUCKETS_MS.length ? Math.min(BUCKETS_MS[i], maxMs) : maxMs;
+            }
+            return maxMs;
+        }
+
+        private static double average(double sum, long count) {
+            return count > 0 ? sum / count : 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.socialpizza.backend.metrics;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Attribuisce alla richiesta corrente ({@link RequestStats}) il lavoro di Hibernate:
+ * ogni statement SQL preparato (StatementInspector), ogni entità caricata (PostLoad, anche le associazioni EAGER)
+ * e ogni flush della sessione. Un numero di statement o di caricamenti che cresce con la dimensione
+ * del risultato è il segno di un problema N+1.
+ * Registrato da MetricsConfig, quindi attivo solo con metrics.enabled=true.
+ */
+public class HibernateRequestListener implements StatementInspector, PostLoadEventListener, FlushEventListener, Integrator {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStats.statementPrepared();
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStats.entityLoaded();
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        RequestStats.flushed();
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, this);
+        listeners.appendListeners(EventType.FLUSH, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
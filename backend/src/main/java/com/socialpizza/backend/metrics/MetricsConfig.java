@@ -0,0 +1,39 @@
+package com.socialpizza.backend.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Collega le metriche a Spring MVC (interceptor) e a Hibernate (listener per richiesta).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "metrics", name = "enabled", matchIfMissing = true)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MetricsInterceptor metricsInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(metricsInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatsCustomizer() {
+        HibernateRequestListener listener = new HibernateRequestListener();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, listener);
+            // Equivale a JpaSettings.INTEGRATOR_PROVIDER: registra i listener di caricamento e flush
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(listener));
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.socialpizza.backend.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Misura ogni richiesta gestita da un controller e le attribuisce i contatori Hibernate ({@link RequestStats}).
+ * Le richieste asincrone (login sul pool di hashing, stream NDJSON) vengono registrate alla fine della
+ * ridispatch, con il tempo misurato dall'arrivo; gli stream SSE restano fuori perché durano minuti.
+ */
+@Component
+public class MetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START = MetricsInterceptor.class.getName() + ".start";
+    private static final String STATS = MetricsInterceptor.class.getName() + ".stats";
+
+    @Autowired
+    private EndpointMetrics metrics;
+
+    @Autowired
+    private MetricsProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) return true;
+        // In una ridispatch asincrona i contatori e l'inizio sono quelli della prima passata
+        RequestStats stats = (RequestStats) request.getAttribute(STATS);
+        if (stats == null) {
+            stats = new RequestStats();
+            request.setAttribute(STATS, stats);
+            request.setAttribute(START, System.nanoTime());
+        }
+        RequestStats.bind(stats);
+        return true;
+    }
+
+    /**
+     * Risposte senza corpo (es. ResponseEntity vuote): per le altre l'header è già stato scritto da SqlCountHeaderAdvice.
+     */
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        writeSqlCountHeader(response, properties.getSqlCountHeader());
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Il thread di Tomcat torna nel pool: la richiesta riprende altrove
+        RequestStats.unbind();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStats stats = RequestStats.current();
+        RequestStats.unbind();
+        if (!(handler instanceof HandlerMethod method)) return;
+        Long start = (Long) request.getAttribute(START);
+        String contentType = response.getContentType();
+        if (start == null || (contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE))) return;
+
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getServletPath());
+        String handlerName = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        metrics.record(endpoint, handlerName, System.nanoTime() - start, ex != null ? 500 : response.getStatus(), stats);
+    }
+
+    static void writeSqlCountHeader(HttpServletResponse response, String header) {
+        RequestStats stats = RequestStats.current();
+        if (stats == null || header == null || header.isEmpty() || response.isCommitted() || response.containsHeader(header)) {
+            return;
+        }
+        response.setHeader(header, Integer.toString(stats.getStatements()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.socialpizza.backend.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configurazione delle metriche per endpoint (prefisso "metrics" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "metrics")
+public class MetricsProperties {
+
+    // Tempi per endpoint e contatori Hibernate per richiesta; false = nessun interceptor né listener
+    private boolean enabled = true;
+
+    // Header di risposta con il numero di statement SQL eseguiti dalla richiesta (vuoto = non inviato)
+    private String sqlCountHeader = "X-SQL-Statements";
+}
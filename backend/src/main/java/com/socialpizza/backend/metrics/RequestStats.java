@@ -0,0 +1,47 @@
+package com.socialpizza.backend.metrics;
+
+/**
+ * Contatori Hibernate della richiesta HTTP in corso: statement SQL preparati, entità caricate e flush.
+ * MetricsInterceptor lega l'istanza al thread che esegue il controller; il lavoro svolto su altri thread
+ * (pool di hashing, job in background) non viene attribuito alla richiesta.
+ */
+public final class RequestStats {
+
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+    // Una richiesta gira su un thread alla volta (anche con le ridispatch asincrone): niente atomici
+    private int statements;
+    private int entityLoads;
+    private int flushes;
+
+    public static RequestStats current() {
+        return CURRENT.get();
+    }
+
+    static void bind(RequestStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    static void statementPrepared() {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) stats.statements++;
+    }
+
+    static void entityLoaded() {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) stats.entityLoads++;
+    }
+
+    static void flushed() {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) stats.flushes++;
+    }
+
+    public int getStatements() { return statements; }
+    public int getEntityLoads() { return entityLoads; }
+    public int getFlushes() { return flushes; }
+}
@@ -0,0 +1,38 @@
+package com.socialpizza.backend.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Aggiunge l'header con il numero di statement SQL eseguiti dalla richiesta, subito prima di scrivere il corpo:
+ * dopo la scrittura la risposta è già inviata e gli header non si possono più modificare.
+ */
+@RestControllerAdvice
+public class SqlCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private MetricsProperties properties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestStats stats = RequestStats.current();
+        String header = properties.getSqlCountHeader();
+        if (stats != null && header != null && !header.isEmpty()) {
+            response.getHeaders().set(header, Integer.toString(stats.getStatements()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,107 @@
+package com.socialpizza.backend.replica;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Replica "del povero" per provare in locale con due database H2, che non ha una replica nativa.
+ * <p>
+ * Alla prima sincronizzazione crea lo schema sulla replica con le stesse migrazioni Flyway e collega
+ * ogni tabella del primario come LINKED TABLE nello schema PRIMARY_LINK. A ogni giro ricopia tutte le tabelle
+ * in un'unica transazione, iniziando dal battito: la replica non dichiara mai di essere più aggiornata
+ * dei dati che contiene. La copia è completa, quindi va bene solo per volumi da sviluppo;
+ * in esercizio le repliche sono mantenute dal database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "replica", name = {"enabled", "local-sync"}, havingValue = "true")
+public class LocalH2Replicator {
+
+    private static final String LINK_SCHEMA = "PRIMARY_LINK";
+    private static final String HEARTBEAT = "REPLICATION_HEARTBEAT";
+
+    @Autowired
+    private ReplicaRouting routing;
+
+    @Autowired
+    private ReplicaProperties properties;
+
+    @Autowired
+    private DataSourceProperties primary;
+
+    private final Set<String> prepared = new HashSet<>();
+
+    // Un giro alla volta (schedulato o chiamato dai test); ReentrantLock e non synchronized,
+    // che con i virtual thread terrebbe occupato il carrier per tutta la copia
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${replica.sync-interval:2s}", initialDelayString = "${replica.sync-interval:2s}")
+    public void sync() {
+        lock.lock();
+        try {
+            for (ReplicaRouting.Replica replica : routing.getReplicas()) {
+                JdbcTemplate jdbc = new JdbcTemplate(replica.dataSource);
+                if (prepared.add(replica.name)) {
+                    prepare(replica, jdbc);
+                }
+                List<String> tables = tables(jdbc);
+                new TransactionTemplate(new DataSourceTransactionManager(replica.dataSource)).executeWithoutResult(status -> {
+                    for (String table : tables) {
+                        String columns = String.join(", ", jdbc.queryForList(
+                                "SELECT '\"' || COLUMN_NAME || '\"' FROM INFORMATION_SCHEMA.COLUMNS " +
+                                        "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ? ORDER BY ORDINAL_POSITION",
+                                String.class, table));
+                        jdbc.update("DELETE FROM \"" + table + "\"");
+                        jdbc.update("INSERT INTO \"" + table + "\" (" + columns + ") SELECT " + columns
+                                + " FROM " + LINK_SCHEMA + ".\"" + table + "\"");
+                    }
+                });
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void prepare(ReplicaRouting.Replica replica, JdbcTemplate jdbc) {
+        Flyway.configure()
+                .dataSource(replica.url, properties.getUsername(), properties.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        // Le tabelle vengono svuotate e ricopiate in ordine qualsiasi: i vincoli li garantisce già il primario
+        jdbc.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbc.execute("CREATE SCHEMA IF NOT EXISTS " + LINK_SCHEMA);
+
+        String sourceUrl = properties.getSourceUrl().isEmpty() ? primary.getUrl() : properties.getSourceUrl();
+        for (String table : tables(jdbc)) {
+            jdbc.execute("CREATE LINKED TABLE IF NOT EXISTS " + LINK_SCHEMA + ".\"" + table + "\"(" +
+                    quote(primary.determineDriverClassName()) + ", " + quote(sourceUrl) + ", " +
+                    quote(primary.determineUsername()) + ", " + quote(primary.determinePassword()) + ", " +
+                    "'PUBLIC', " + quote(table) + ") READONLY");
+        }
+    }
+
+    /**
+     * Tabelle da copiare, con il battito per primo; la cronologia di Flyway resta locale.
+     */
+    private static List<String> tables(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' AND TABLE_NAME <> 'flyway_schema_history' " +
+                "ORDER BY CASE WHEN TABLE_NAME = '" + HEARTBEAT + "' THEN 0 ELSE 1 END, TABLE_NAME", String.class);
+    }
+
+    private static String quote(String value) {
+        return "'" + (value != null ? value.replace("'", "''") : "") + "'";
+    }
+}
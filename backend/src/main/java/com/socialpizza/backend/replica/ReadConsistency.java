@@ -0,0 +1,32 @@
+package com.socialpizza.backend.replica;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Freschezza minima richiesta alle letture del thread corrente.
+ * Serve quando il chiamante sa che il dato è cambiato a un certo istante (es. ContentVersions):
+ * una replica rimasta indietro non viene usata, così un ETag nuovo non finisce associato a dati vecchi.
+ * Senza repliche attive non ha effetto.
+ */
+public final class ReadConsistency {
+
+    private static final ThreadLocal<Instant> NOT_BEFORE = new ThreadLocal<>();
+
+    private ReadConsistency() {}
+
+    public static <T> T notBefore(long epochMillis, Supplier<T> reads) {
+        Instant previous = NOT_BEFORE.get();
+        NOT_BEFORE.set(Instant.ofEpochMilli(epochMillis));
+        try {
+            return reads.get();
+        } finally {
+            if (previous != null) NOT_BEFORE.set(previous);
+            else NOT_BEFORE.remove();
+        }
+    }
+
+    static Instant current() {
+        return NOT_BEFORE.get();
+    }
+}
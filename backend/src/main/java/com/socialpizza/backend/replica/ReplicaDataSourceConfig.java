@@ -0,0 +1,67 @@
+package com.socialpizza.backend.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Con replica.enabled=true sostituisce il DataSource di Spring Boot: il primario resta configurato da
+ * spring.datasource.*, le repliche da replica.urls, e JPA, Flyway e JdbcTemplate usano il DataSource instradato.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(DataSourceProperties dataSourceProperties, ReplicaProperties properties) {
+        List<ReplicaRouting.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getUrls().size(); i++) {
+            String name = "replica-" + i;
+            String url = properties.getUrls().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(properties.getUsername())
+                    .password(properties.getPassword())
+                    .build();
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(properties.getPoolSize());
+            replicas.add(new ReplicaRouting.Replica(name, url, dataSource, properties.getMaxLag()));
+        }
+        return new ReplicaRouting(dataSourceProperties.getUrl(), replicas, properties.getMaxLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRouting routing) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRouting.PRIMARY, primaryDataSource);
+        routing.getReplicas().forEach(replica -> targets.put(replica.name, replica.dataSource));
+
+        ReplicaRoutingDataSource routed = new ReplicaRoutingDataSource(routing);
+        routed.setTargetDataSources(targets);
+        routed.setDefaultTargetDataSource(primaryDataSource);
+        routed.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routed);
+    }
+}
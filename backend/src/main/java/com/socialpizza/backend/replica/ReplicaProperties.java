@@ -0,0 +1,39 @@
+package com.socialpizza.backend.replica;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configurazione delle repliche in sola lettura (prefisso "replica" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaProperties {
+
+    // false = un solo database, nessun instradamento
+    private boolean enabled = false;
+
+    // URL JDBC delle repliche; le transazioni readOnly si distribuiscono a turno tra quelle aggiornate
+    private List<String> urls = new ArrayList<>();
+    private String username = "sa";
+    private String password = "";
+    private int poolSize = 10;
+
+    // Ritardo massimo tollerato: oltre, la replica viene esclusa finché non recupera
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // Frequenza con cui il primario scrive il battito e si misura il ritardo delle repliche
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+
+    // Solo per prove locali con H2: copia periodica delle tabelle dal primario alle repliche
+    private boolean localSync = false;
+    private Duration syncInterval = Duration.ofSeconds(2);
+    // URL con cui le repliche leggono il primario (vuoto = spring.datasource.url, nella stessa JVM)
+    private String sourceUrl = "";
+}
@@ -0,0 +1,146 @@
+package com.socialpizza.backend.replica;
+
+import com.socialpizza.backend.dto.ReplicaStatus;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decide dove eseguire una transazione in sola lettura e tiene lo stato delle repliche.
+ * <p>
+ * Ogni replica conosce l'istante del primario fino a cui è aggiornata (appliedUpTo, dal battito di
+ * ReplicationMonitor). Una lettura va su una replica solo se questa è in salute e abbastanza aggiornata:
+ * <ul>
+ *   <li>read-your-writes: dopo una scrittura l'utente legge solo da repliche che la contengono già;</li>
+ *   <li>{@link ReadConsistency}: il chiamante può chiedere dati non più vecchi di un certo istante.</li>
+ * </ul>
+ * Se nessuna replica va bene la lettura resta sul primario.
+ */
+public class ReplicaRouting {
+
+    static final String PRIMARY = "primary";
+
+    private final String primaryUrl;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    // userId -> istante dell'ultima scrittura confermata; le voci scadono quando ogni replica sana le contiene
+    private final Map<Long, Instant> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryReads = new LongAdder();
+
+    public ReplicaRouting(String primaryUrl, List<Replica> replicas, Duration maxLag) {
+        this.primaryUrl = primaryUrl;
+        this.replicas = List.copyOf(replicas);
+        this.maxLag = maxLag;
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Chiave del DataSource per una transazione readOnly dell'utente (null se anonimo o fuori da una richiesta).
+     */
+    String readTarget(Long userId) {
+        Instant required = latest(userId != null ? lastWrites.get(userId) : null, ReadConsistency.current());
+        int size = replicas.size();
+        if (size == 0) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.canServe(required)) {
+                replica.reads.increment();
+                return replica.name;
+            }
+        }
+        primaryReads.increment();
+        return PRIMARY;
+    }
+
+    void writeCommitted(Long userId, Instant at) {
+        lastWrites.merge(userId, at, ReplicaRouting::latest);
+    }
+
+    /**
+     * Scarta le scritture ormai presenti su tutte le repliche sane: oltre maxLag lo sono per definizione.
+     */
+    void expireWrites(Instant now) {
+        Instant horizon = now.minus(maxLag);
+        lastWrites.values().removeIf(at -> at.isBefore(horizon));
+    }
+
+    public List<ReplicaStatus> status() {
+        List<ReplicaStatus> result = new ArrayList<>();
+        result.add(new ReplicaStatus(PRIMARY, primaryUrl, true, 0L, null, primaryReads.sum(), null));
+        for (Replica r : replicas) {
+            result.add(new ReplicaStatus(r.name, r.url, r.healthy, r.lag != null ? r.lag.toMillis() : null,
+                    r.appliedUpTo, r.reads.sum(), r.error));
+        }
+        return result;
+    }
+
+    /**
+     * Chiude i pool delle repliche (il primario è un bean a sé).
+     */
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Una replica e lo stato misurato dall'ultimo battito.
+     */
+    static class Replica {
+        final String name;
+        final String url;
+        final DataSource dataSource;
+        private final Duration maxLag;
+        private final LongAdder reads = new LongAdder();
+
+        private volatile boolean healthy;
+        private volatile Instant appliedUpTo;
+        private volatile Duration lag;
+        private volatile String error = "non ancora verificata";
+
+        Replica(String name, String url, DataSource dataSource, Duration maxLag) {
+            this.name = name;
+            this.url = url;
+            this.dataSource = dataSource;
+            this.maxLag = maxLag;
+        }
+
+        boolean canServe(Instant required) {
+            Instant applied = appliedUpTo;
+            return healthy && applied != null && (required == null || !applied.isBefore(required));
+        }
+
+        void caughtUp(Instant beat, Instant now) {
+            appliedUpTo = beat;
+            lag = Duration.between(beat, now).isNegative() ? Duration.ZERO : Duration.between(beat, now);
+            healthy = lag.compareTo(maxLag) <= 0;
+            error = healthy ? null : "ritardo oltre " + maxLag.toMillis() + " ms";
+        }
+
+        void failed(String reason) {
+            healthy = false;
+            error = reason;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.socialpizza.backend.replica;
+
+import com.socialpizza.backend.session.SessionPrincipals;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sceglie il database quando Hibernate o JdbcTemplate ottengono davvero una connessione:
+ * le transazioni {@code @Transactional(readOnly = true)} dichiarate dai servizi vanno a una replica
+ * (vedi {@link ReplicaRouting}), tutto il resto al primario. Le transazioni aperte da un repository chiamato
+ * da solo (SimpleJpaRepository è readOnly per default) restano sul primario: findById e simili servono
+ * soprattutto a controlli che devono vedere l'ultimo dato, come la rilettura dell'utente dopo un ban.
+ * Va avvolto in un LazyConnectionDataSourceProxy, altrimenti la connessione verrebbe chiesta all'inizio
+ * della transazione, prima che il flag readOnly sia impostato.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    // Risorsa di transazione: segna che l'afterCommit per read-your-writes è già registrato
+    private static final Object WRITE_TRACKED = new Object();
+
+    // Nomi delle transazioni aperte dai repository (il nome è il metodo che le ha avviate)
+    private static final List<String> REPOSITORY_PREFIXES = List.of(
+            "org.springframework.data.", "com.socialpizza.backend.repository.");
+
+    private final ReplicaRouting routing;
+
+    ReplicaRoutingDataSource(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = SessionPrincipals.resolvedUserId();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return declaredByService() ? routing.readTarget(userId) : ReplicaRouting.PRIMARY;
+        }
+        if (userId != null) {
+            trackWrite(userId);
+        }
+        return ReplicaRouting.PRIMARY;
+    }
+
+    private static boolean declaredByService() {
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name == null || REPOSITORY_PREFIXES.stream().noneMatch(name::startsWith);
+    }
+
+    /**
+     * A commit avvenuto le letture dell'utente restano sul primario finché le repliche non lo raggiungono.
+     */
+    private void trackWrite(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                routing.writeCommitted(userId, Instant.now());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+            }
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.socialpizza.backend.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Misura il ritardo delle repliche: scrive l'istante corrente nella riga di replication_heartbeat del primario
+ * e rilegge la stessa riga da ogni replica. Il valore letto è l'istante fino a cui la replica è aggiornata.
+ */
+@Component
+@ConditionalOnProperty(prefix = "replica", name = "enabled", havingValue = "true")
+public class ReplicationMonitor {
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRouting routing;
+
+    @Scheduled(fixedDelayString = "${replica.heartbeat-interval:1s}", initialDelayString = "${replica.heartbeat-interval:1s}")
+    public void beat() {
+        Instant now = Instant.now();
+        new JdbcTemplate(primaryDataSource).update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", Timestamp.from(now));
+
+        for (ReplicaRouting.Replica replica : routing.getReplicas()) {
+            try {
+                Timestamp beat = new JdbcTemplate(replica.dataSource)
+                        .queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Timestamp.class);
+                replica.caughtUp(beat.toInstant(), now);
+            } catch (EmptyResultDataAccessException e) {
+                replica.failed("nessun battito ricevuto");
+            } catch (DataAccessException e) {
+                replica.failed(e.getMostSpecificCause().getMessage());
+            }
+        }
+        routing.expireWrites(now);
+    }
+}
@@ -1,12 +1,43 @@
 package com.socialpizza.backend.repository;
 
+import com.socialpizza.backend.dto.RoleCount;
+import com.socialpizza.backend.dto.UserView;
 import com.socialpizza.backend.entity.AppUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+    // Login e registrazione: risultato nella cache delle query, invalidato a ogni scrittura su app_user
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AppUser> findByEmail(String email);
+
+    // Aggiorna solo la password (rehash al login) se nel frattempo non è stata cambiata
+    @Transactional
+    @Modifying
+    @Query("UPDATE AppUser u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePassword(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    @Query("SELECT new com.socialpizza.backend.dto.UserView(u.id, u.name, u.surname, u.email, u.role) FROM AppUser u")
+    List<UserView> findAllViews();
+
+    // Riallineamento di PlatformStats
+    @Query("SELECT new com.socialpizza.backend.dto.RoleCount(u.role, COUNT(u)) FROM AppUser u GROUP BY u.role")
+    List<RoleCount> countByRole();
+
+    // Lettura a blocchi per l'export NDJSON: va consumato dentro una transazione
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.socialpizza.backend.dto.UserView(u.id, u.name, u.surname, u.email, u.role) FROM AppUser u")
+    Stream<UserView> streamAllViews();
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.socialpizza.backend.repository;
+
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.entity.ArchivedEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, Long> {
+
+    /**
+     * Copia gli eventi indicati nell'archivio con una sola INSERT ... SELECT, risolvendo i nomi
+     * con le stesse join delle viste evento. Va eseguita prima di cancellarli da social_event.
+     */
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO ArchivedEvent (id, title, description, eventDate, maxParticipants, reservedSeats, status, " +
+            "moderatorComment, rejectionReason, decisionDate, categoryId, categoryName, restaurantId, restaurantName, " +
+            "restaurantAddress, cityId, cityName, organizerId, organizerName) " +
+            "SELECT e.id, e.title, e.description, e.eventDate, e.maxParticipants, e.reservedSeats, e.status, " +
+            "e.moderatorComment, e.rejectionReason, e.decisionDate, c.id, c.name, r.id, r.name, " +
+            "r.address, ci.id, ci.name, o.id, o.name " +
+            "FROM SocialEvent e " + SocialEventRepository.EVENT_VIEW_JOINS + "WHERE e.id IN :eventIds")
+    int copyEvents(@Param("eventIds") Collection<Long> eventIds);
+
+    // Stessa forma di SocialEventRepository.EVENT_VIEW_SELECT: il frontend mostra lo storico con gli stessi componenti
+    String ARCHIVED_VIEW_SELECT = "SELECT new com.socialpizza.backend.dto.EventView(" +
+            "e.id, e.title, e.description, e.eventDate, e.maxParticipants, e.status, " +
+            "e.moderatorComment, e.rejectionReason, e.decisionDate, e.reservedSeats, " +
+            "e.categoryId, e.categoryName, e.restaurantId, e.restaurantName, e.restaurantAddress, " +
+            "e.cityId, e.cityName, e.organizerId, e.organizerName) ";
+    String MOST_RECENT_FIRST = " ORDER BY e.eventDate DESC, e.id DESC";
+
+    @Query(ARCHIVED_VIEW_SELECT + "FROM ArchivedEvent e WHERE e.organizerId = :organizerId" + MOST_RECENT_FIRST)
+    List<EventView> findViewsByOrganizerId(@Param("organizerId") Long organizerId, Pageable pageable);
+
+    @Query(ARCHIVED_VIEW_SELECT + "FROM ArchivedEvent e WHERE e.restaurantId = :restaurantId" + MOST_RECENT_FIRST)
+    List<EventView> findViewsByRestaurantId(@Param("restaurantId") Long restaurantId, Pageable pageable);
+
+    @Query(ARCHIVED_VIEW_SELECT + "FROM ArchivedParticipation p JOIN ArchivedEvent e ON e.id = p.eventId " +
+            "WHERE p.userId = :userId" + MOST_RECENT_FIRST)
+    List<EventView> findViewsByParticipantId(@Param("userId") Long userId, Pageable pageable);
+
+    // Ban dell'organizzatore: il suo storico viene eliminato come i suoi eventi attivi
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedEvent e WHERE e.organizerId = :organizerId")
+    int deleteByOrganizerId(@Param("organizerId") Long organizerId);
+
+    // Ban del proprietario: come per gli eventi attivi, anche lo storico ospitato nei suoi locali.
+    // Va eseguita prima di cancellare i locali, da cui si ricavano gli id
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedEvent e WHERE e.restaurantId IN (SELECT r.id FROM Restaurant r WHERE r.owner.id = :ownerId)")
+    int deleteByRestaurantOwnerId(@Param("ownerId") Long ownerId);
+
+    // Rimozione di un locale: il suo storico segue gli eventi attivi
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedEvent e WHERE e.restaurantId = :restaurantId")
+    int deleteByRestaurantId(@Param("restaurantId") Long restaurantId);
+}
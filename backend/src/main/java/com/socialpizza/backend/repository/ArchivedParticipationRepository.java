@@ -0,0 +1,47 @@
+package com.socialpizza.backend.repository;
+
+import com.socialpizza.backend.entity.ArchivedParticipation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Repository
+public interface ArchivedParticipationRepository extends JpaRepository<ArchivedParticipation, Long> {
+
+    // Copia le iscrizioni degli eventi che stanno per essere archiviati (dopo ArchivedEventRepository.copyEvents)
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO ArchivedParticipation (id, eventId, userId, registrationDate) " +
+            "SELECT p.id, p.event.id, p.user.id, p.registrationDate FROM Participation p WHERE p.event.id IN :eventIds")
+    int copyParticipations(@Param("eventIds") Collection<Long> eventIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedParticipation p WHERE p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Iscrizioni agli eventi archiviati dell'organizzatore, da eliminare prima degli eventi stessi
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedParticipation p " +
+            "WHERE p.eventId IN (SELECT e.id FROM ArchivedEvent e WHERE e.organizerId = :organizerId)")
+    int deleteByEventOrganizerId(@Param("organizerId") Long organizerId);
+
+    // Iscrizioni agli eventi archiviati ospitati nei locali del proprietario
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedParticipation p WHERE p.eventId IN (SELECT e.id FROM ArchivedEvent e " +
+            "WHERE e.restaurantId IN (SELECT r.id FROM Restaurant r WHERE r.owner.id = :ownerId))")
+    int deleteByEventRestaurantOwnerId(@Param("ownerId") Long ownerId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedParticipation p " +
+            "WHERE p.eventId IN (SELECT e.id FROM ArchivedEvent e WHERE e.restaurantId = :restaurantId)")
+    int deleteByEventRestaurantId(@Param("restaurantId") Long restaurantId);
+}
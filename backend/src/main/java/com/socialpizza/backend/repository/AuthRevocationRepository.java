@@ -0,0 +1,23 @@
+package com.socialpizza.backend.repository;
+
+import com.socialpizza.backend.entity.AuthRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface AuthRevocationRepository extends JpaRepository<AuthRevocation, Long> {
+
+    List<AuthRevocation> findByRevokedAtGreaterThan(long revokedAt);
+
+    // Le revoche più vecchie della durata di un token non possono più riguardare token validi
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuthRevocation r WHERE r.revokedAt < :revokedAt")
+    int deleteOlderThan(@Param("revokedAt") long revokedAt);
+}
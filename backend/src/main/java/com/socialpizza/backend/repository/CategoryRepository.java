@@ -1,8 +1,19 @@
 package com.socialpizza.backend.repository;
 
 import com.socialpizza.backend.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {}
\ No newline at end of file
+public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // Lista per /api/resources/categories nella cache delle query, invalidata a ogni scrittura su category
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+}
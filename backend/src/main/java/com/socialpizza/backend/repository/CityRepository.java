@@ -1,8 +1,19 @@
 package com.socialpizza.backend.repository;
 
 import com.socialpizza.backend.entity.City;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
 @Repository
 public interface CityRepository extends JpaRepository<City, Long> {
+
+    // Lista per /api/resources/cities nella cache delle query: Hibernate la invalida a ogni scrittura su city
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<City> findAll();
 }
@@ -1,11 +1,16 @@
 package com.socialpizza.backend.repository;
 
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.dto.ParticipantView;
 import com.socialpizza.backend.entity.Participation;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,14 +21,44 @@ public interface ParticipationRepository extends JpaRepository<Participation, Lo
 
     boolean existsByUserIdAndEventId(Long userId, Long eventId);
 
+    @Query("SELECT new com.socialpizza.backend.dto.ParticipantView(p.id, p.registrationDate, u.id, u.name, u.surname) " +
+            "FROM Participation p JOIN p.user u WHERE p.event.id = :eventId")
+    List<ParticipantView> findViewsByEventId(@Param("eventId") Long eventId);
+
+    // Eventi a cui l'utente è iscritto, letti con un'unica join invece di un caricamento per iscrizione
+    @Query(SocialEventRepository.EVENT_VIEW_SELECT + "FROM Participation p JOIN p.event e " +
+            SocialEventRepository.EVENT_VIEW_JOINS + "WHERE p.user.id = :userId")
+    List<EventView> findEventViewsByUserId(@Param("userId") Long userId);
+
 
     long countByEventId(Long eventId);
 
+    // Eventi della pagina a cui l'utente è iscritto
+    @Query("SELECT p.event.id FROM Participation p WHERE p.user.id = :userId AND p.event.id IN :eventIds")
+    List<Long> findJoinedEventIds(@Param("userId") Long userId, @Param("eventIds") Collection<Long> eventIds);
+
+    // Utenti della lista già iscritti all'evento
+    @Query("SELECT p.user.id FROM Participation p WHERE p.event.id = :eventId AND p.user.id IN :userIds")
+    List<Long> findJoinedUserIds(@Param("eventId") Long eventId, @Param("userIds") Collection<Long> userIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Participation p WHERE p.user.id = :userId AND p.event.id = :eventId")
+    int deleteByUserIdAndEventId(@Param("userId") Long userId, @Param("eventId") Long eventId);
+
+    // DELETE diretta: la versione derivata caricherebbe ogni iscrizione prima di cancellarla
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Participation p WHERE p.event.id = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
     @Transactional
     @Modifying
-    void deleteByEventId(Long eventId);
+    @Query("DELETE FROM Participation p WHERE p.event.id IN :eventIds")
+    int deleteByEventIds(@Param("eventIds") Collection<Long> eventIds);
 
     @Transactional
     @Modifying
-    void deleteByUserId(Long userId);
+    @Query("DELETE FROM Participation p WHERE p.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
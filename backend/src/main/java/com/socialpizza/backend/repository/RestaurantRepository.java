@@ -1,12 +1,66 @@
 package com.socialpizza.backend.repository;
 
+import com.socialpizza.backend.dto.RestaurantTotals;
+import com.socialpizza.backend.dto.RestaurantView;
 import com.socialpizza.backend.entity.Restaurant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     List<Restaurant> findByOwnerId(Long ownerId);
+
+    @Query("SELECT r.id FROM Restaurant r WHERE r.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Restaurant r WHERE r.owner.id = :ownerId")
+    int deleteByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Restaurant r WHERE r.id = :restaurantId")
+    int deleteRestaurantById(@Param("restaurantId") Long restaurantId);
+
+    // Totali per locale con una GROUP BY; il LEFT JOIN mantiene anche i locali senza eventi
+    @Query("SELECT new com.socialpizza.backend.dto.RestaurantTotals(r.id, r.name, r.maxCapacity, " +
+            "SUM(CASE WHEN e.status = 'PENDING' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.status = 'APPROVED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.status = 'APPROVED' THEN e.reservedSeats ELSE 0 END)) " +
+            "FROM Restaurant r LEFT JOIN SocialEvent e ON e.restaurant = r " +
+            "WHERE r.owner.id = :ownerId GROUP BY r.id, r.name, r.maxCapacity ORDER BY r.name")
+    List<RestaurantTotals> findTotalsByOwnerId(@Param("ownerId") Long ownerId);
+
+    String RESTAURANT_VIEW_QUERY = "SELECT new com.socialpizza.backend.dto.RestaurantView(r.id, r.name, r.address, r.maxCapacity, " +
+            "ci.id, ci.name, o.id, o.name, o.surname, o.email, o.role) " +
+            "FROM Restaurant r LEFT JOIN r.city ci LEFT JOIN r.owner o";
+
+    // Sola lettura; chiamata dai controller resta sul primario, le repliche servono solo le letture dei servizi
+    // (vedi ReplicaRoutingDataSource).
+    // Risultato nella cache delle query, invalidato a ogni scrittura su restaurant, city o app_user
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(RESTAURANT_VIEW_QUERY)
+    List<RestaurantView> findAllViews();
+
+    // Ristorante appena creato dall'admin, nella stessa forma della lista (senza password né bio del proprietario)
+    @Query(RESTAURANT_VIEW_QUERY + " WHERE r.id = :id")
+    Optional<RestaurantView> findViewById(@Param("id") Long id);
+
+    // Lettura a blocchi per l'export NDJSON: va consumato dentro una transazione
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESTAURANT_VIEW_QUERY)
+    Stream<RestaurantView> streamAllViews();
 }
\ No newline at end of file
@@ -1,12 +1,28 @@
 package com.socialpizza.backend.repository;
 
+import com.socialpizza.backend.dto.EventIndexRow;
+import com.socialpizza.backend.dto.EventStatsRow;
+import com.socialpizza.backend.dto.EventView;
 import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.live.EventUpdate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SocialEventRepository extends JpaRepository<SocialEvent, Long> {
+public interface SocialEventRepository extends JpaRepository<SocialEvent, Long>, SocialEventSearchRepository {
 
     List<SocialEvent> findByStatus(String status);
     List<SocialEvent> findByStatusIn(List<String> statuses);
@@ -16,4 +32,121 @@ public interface SocialEventRepository extends JpaRepository<SocialEvent, Long>
     List<SocialEvent> findByOrganizerId(Long organizerId);
     boolean existsByCategoryId(Long categoryId);
     List<SocialEvent> findAllByOrganizerId(Long organizerId);
+
+    // Proiezione comune delle viste evento: una sola select con join sulle tabelle collegate
+    String EVENT_VIEW_SELECT = "SELECT new com.socialpizza.backend.dto.EventView(" +
+            "e.id, e.title, e.description, e.eventDate, e.maxParticipants, e.status, " +
+            "e.moderatorComment, e.rejectionReason, e.decisionDate, e.reservedSeats, " +
+            "c.id, c.name, r.id, r.name, r.address, ci.id, ci.name, o.id, o.name) ";
+    String EVENT_VIEW_JOINS = "LEFT JOIN e.category c LEFT JOIN e.restaurant r LEFT JOIN r.city ci LEFT JOIN e.organizer o ";
+
+    @Query(EVENT_VIEW_SELECT + "FROM SocialEvent e " + EVENT_VIEW_JOINS + "WHERE e.status = :status")
+    List<EventView> findViewsByStatus(@Param("status") String status);
+
+    @Query(EVENT_VIEW_SELECT + "FROM SocialEvent e " + EVENT_VIEW_JOINS + "WHERE e.status IN :statuses")
+    List<EventView> findViewsByStatusIn(@Param("statuses") List<String> statuses);
+
+    // Lettura a blocchi per l'export NDJSON: va consumato dentro una transazione
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(EVENT_VIEW_SELECT + "FROM SocialEvent e " + EVENT_VIEW_JOINS + "WHERE e.status IN :statuses")
+    Stream<EventView> streamViewsByStatusIn(@Param("statuses") List<String> statuses);
+
+    @Query(EVENT_VIEW_SELECT + "FROM SocialEvent e " + EVENT_VIEW_JOINS + "WHERE e.restaurant.id = :restaurantId")
+    List<EventView> findViewsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query(EVENT_VIEW_SELECT + "FROM SocialEvent e " + EVENT_VIEW_JOINS + "WHERE e.organizer.id = :organizerId")
+    List<EventView> findViewsByOrganizerId(@Param("organizerId") Long organizerId);
+
+    // Eventi di tutti i locali del ristoratore in una sola query
+    @Query(EVENT_VIEW_SELECT + "FROM SocialEvent e " + EVENT_VIEW_JOINS + "WHERE r.owner.id = :ownerId AND e.status = :status")
+    List<EventView> findViewsByRestaurantOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") String status);
+
+    // Dashboard del ristoratore: più stati in una sola query, in ordine di data
+    @Query(EVENT_VIEW_SELECT + "FROM SocialEvent e " + EVENT_VIEW_JOINS +
+            "WHERE r.owner.id = :ownerId AND e.status IN :statuses ORDER BY e.eventDate, e.id")
+    List<EventView> findViewsByRestaurantOwnerIdAndStatusIn(@Param("ownerId") Long ownerId,
+                                                            @Param("statuses") List<String> statuses);
+
+    /**
+     * Occupa un posto solo se l'evento è approvato e non pieno, in un'unica UPDATE atomica.
+     * Restituisce 0 se il posto non è stato assegnato.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SocialEvent e SET e.reservedSeats = e.reservedSeats + 1 " +
+            "WHERE e.id = :eventId AND e.status = 'APPROVED' AND e.reservedSeats < e.maxParticipants")
+    int reserveSeat(@Param("eventId") Long eventId);
+
+    // Variante per le iscrizioni in massa: tutti i posti richiesti o nessuno
+    @Transactional
+    @Modifying
+    @Query("UPDATE SocialEvent e SET e.reservedSeats = e.reservedSeats + :seats " +
+            "WHERE e.id = :eventId AND e.status = 'APPROVED' AND e.reservedSeats + :seats <= e.maxParticipants")
+    int reserveSeats(@Param("eventId") Long eventId, @Param("seats") int seats);
+
+    // Posto dell'organizzatore: assegnato anche oltre la capienza, come in autoJoinOrganizer
+    @Transactional
+    @Modifying
+    @Query("UPDATE SocialEvent e SET e.reservedSeats = e.reservedSeats + 1 WHERE e.id = :eventId")
+    int addSeat(@Param("eventId") Long eventId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SocialEvent e SET e.reservedSeats = e.reservedSeats - 1 WHERE e.id = :eventId AND e.reservedSeats > 0")
+    int releaseSeat(@Param("eventId") Long eventId);
+
+    // --- Cancellazioni a cascata a blocchi (vedi CascadeDeleteService) ---
+
+    // Eventi organizzati dall'utente ed eventi ospitati nei suoi locali, un blocco alla volta.
+    // Due query separate: con un OR tra colonne diverse H2 non usa nessun indice e legge tutta la tabella
+    @Query("SELECT e.id FROM SocialEvent e WHERE e.organizer.id = :organizerId ORDER BY e.id")
+    List<Long> findIdsByOrganizerId(@Param("organizerId") Long organizerId, Limit limit);
+
+    @Query("SELECT e.id FROM SocialEvent e JOIN e.restaurant r WHERE r.owner.id = :ownerId ORDER BY e.id")
+    List<Long> findIdsByRestaurantOwnerId(@Param("ownerId") Long ownerId, Limit limit);
+
+    @Query("SELECT e.id FROM SocialEvent e WHERE e.restaurant.id = :restaurantId ORDER BY e.id")
+    List<Long> findIdsByRestaurantId(@Param("restaurantId") Long restaurantId, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SocialEvent e WHERE e.id IN :eventIds")
+    int deleteByIds(@Param("eventIds") Collection<Long> eventIds);
+
+    // Libera i posti degli eventi altrui a cui l'utente era iscritto, prima di cancellarne le iscrizioni
+    @Transactional
+    @Modifying
+    @Query("UPDATE SocialEvent e SET e.reservedSeats = e.reservedSeats - 1 WHERE e.reservedSeats > 0 " +
+            "AND e.id IN (SELECT p.event.id FROM Participation p WHERE p.user.id = :userId)")
+    int releaseSeatsOfUser(@Param("userId") Long userId);
+
+    // --- Archiviazione degli eventi conclusi (vedi EventArchiveService) ---
+
+    // Prossimo blocco di eventi con data anteriore al limite, dal più vecchio
+    @Query("SELECT e.id FROM SocialEvent e WHERE e.eventDate < :before ORDER BY e.eventDate, e.id")
+    List<Long> findIdsToArchive(@Param("before") LocalDateTime before, Limit limit);
+
+    // --- Stato per lo stream /api/events/live (vedi EventUpdateBroadcaster) ---
+
+    String LIVE_UPDATE_SELECT = "SELECT new com.socialpizza.backend.live.EventUpdate(" +
+            "e.id, r.id, ci.id, e.status, e.reservedSeats, e.maxParticipants) " +
+            "FROM SocialEvent e LEFT JOIN e.restaurant r LEFT JOIN r.city ci ";
+
+    @Query(LIVE_UPDATE_SELECT + "WHERE e.id = :eventId")
+    Optional<EventUpdate> findLiveUpdate(@Param("eventId") Long eventId);
+
+    @Query(LIVE_UPDATE_SELECT + "WHERE e.id IN :eventIds")
+    List<EventUpdate> findLiveUpdates(@Param("eventIds") Collection<Long> eventIds);
+
+    // Riallineamento di PlatformStats: una riga per combinazione di stato, città, categoria, locale e mese
+    @Query("SELECT new com.socialpizza.backend.dto.EventStatsRow(e.status, ci.id, ci.name, c.id, c.name, r.id, r.name, " +
+            "YEAR(e.eventDate), MONTH(e.eventDate), COUNT(e), SUM(e.reservedSeats), SUM(e.maxParticipants)) " +
+            "FROM SocialEvent e LEFT JOIN e.category c LEFT JOIN e.restaurant r LEFT JOIN r.city ci " +
+            "GROUP BY e.status, ci.id, ci.name, c.id, c.name, r.id, r.name, YEAR(e.eventDate), MONTH(e.eventDate)")
+    List<EventStatsRow> findStatsRows();
+
+    // Solo i campi testuali e la data, per ricostruire l'indice di ricerca senza caricare le entità
+    @Query("SELECT new com.socialpizza.backend.dto.EventIndexRow(e.id, e.title, e.description, c.name, r.name, e.eventDate) " +
+            "FROM SocialEvent e LEFT JOIN e.category c LEFT JOIN e.restaurant r")
+    List<EventIndexRow> findAllIndexRows();
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.socialpizza.backend.repository;
+
+import com.socialpizza.backend.dto.EventSearchCriteria;
+import com.socialpizza.backend.dto.EventView;
+
+import java.util.List;
+
+/**
+ * Frammento di repository per la ricerca eventi con filtri dinamici.
+ */
+public interface SocialEventSearchRepository {
+
+    /**
+     * Restituisce al massimo {@code limit} eventi ordinati per (eventDate, id)
+     * successivi al cursore indicato nei criteri.
+     */
+    List<EventView> search(EventSearchCriteria criteria, int limit);
+}
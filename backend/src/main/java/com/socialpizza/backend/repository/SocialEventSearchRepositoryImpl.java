@@ -0,0 +1,92 @@
+package com.socialpizza.backend.repository;
+
+import com.socialpizza.backend.dto.EventCursor;
+import com.socialpizza.backend.dto.EventSearchCriteria;
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementazione con Criteria API: vengono aggiunti solo i predicati dei filtri valorizzati,
+ * così il piano usa l'indice composito più selettivo (vedi migrazione V2).
+ */
+public class SocialEventSearchRepositoryImpl implements SocialEventSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventView> search(EventSearchCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventView> query = cb.createQuery(EventView.class);
+        Root<SocialEvent> event = query.from(SocialEvent.class);
+
+        // Stesse join di SocialEventRepository.EVENT_VIEW_JOINS: una sola select con le colonne della vista
+        Join<SocialEvent, Category> category = event.join("category", JoinType.LEFT);
+        Join<SocialEvent, Restaurant> restaurant = event.join("restaurant", JoinType.LEFT);
+        Join<Restaurant, City> city = restaurant.join("city", JoinType.LEFT);
+        Join<SocialEvent, AppUser> organizer = event.join("organizer", JoinType.LEFT);
+
+        Path<LocalDateTime> eventDate = event.get("eventDate");
+        Path<Long> id = event.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (criteria.getStatuses() != null && !criteria.getStatuses().isEmpty()) {
+            where.add(event.get("status").in(criteria.getStatuses()));
+        }
+        if (criteria.getCategoryId() != null) {
+            where.add(cb.equal(category.get("id"), criteria.getCategoryId()));
+        }
+        if (criteria.getCityId() != null) {
+            where.add(cb.equal(city.get("id"), criteria.getCityId()));
+        }
+        if (criteria.getDateFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(eventDate, criteria.getDateFrom()));
+        }
+        if (criteria.getDateTo() != null) {
+            where.add(cb.lessThan(eventDate, criteria.getDateTo()));
+        }
+        if (criteria.getEventIds() != null) {
+            where.add(id.in(criteria.getEventIds()));
+        }
+        if (criteria.getText() != null && !criteria.getText().isBlank()) {
+            String pattern = "%" + escapeLike(criteria.getText().trim().toLowerCase()) + "%";
+            where.add(cb.or(
+                    cb.like(cb.lower(event.<String>get("title")), pattern, '\\'),
+                    cb.like(cb.lower(event.<String>get("description")), pattern, '\\'),
+                    cb.like(cb.lower(restaurant.<String>get("name")), pattern, '\\')));
+        }
+
+        // Keyset: (eventDate, id) > (cursore.eventDate, cursore.id)
+        EventCursor after = criteria.getAfter();
+        if (after != null) {
+            where.add(cb.or(
+                    cb.greaterThan(eventDate, after.getEventDate()),
+                    cb.and(cb.equal(eventDate, after.getEventDate()), cb.greaterThan(id, after.getId()))));
+        }
+
+        query.select(cb.construct(EventView.class,
+                        id, event.get("title"), event.get("description"), eventDate, event.get("maxParticipants"),
+                        event.get("status"), event.get("moderatorComment"), event.get("rejectionReason"), event.get("decisionDate"),
+                        event.get("reservedSeats"),
+                        category.get("id"), category.get("name"),
+                        restaurant.get("id"), restaurant.get("name"), restaurant.get("address"), city.get("id"), city.get("name"),
+                        organizer.get("id"), organizer.get("name")))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.asc(eventDate), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
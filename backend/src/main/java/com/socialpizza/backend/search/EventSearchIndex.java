@@ -0,0 +1,294 @@
+package com.socialpizza.backend.search;
+
+import com.socialpizza.backend.dto.EventCursor;
+import com.socialpizza.backend.dto.EventIndexRow;
+import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice invertito in memoria su titolo, descrizione, categoria e ristorante degli eventi.
+ * Viene ricostruito dal database all'avvio e poi aggiornato in modo incrementale dall'EventService
+ * a ogni creazione, cambio di stato o cancellazione. Per ogni evento conserva anche la data, così la
+ * ricerca paginata può scorrere le corrispondenze nel proprio ordine (data, id) senza un tetto fisso.
+ */
+@Component
+public class EventSearchIndex {
+
+    // Peso di ciascun campo nel punteggio finale
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float RESTAURANT_WEIGHT = 2f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    // I termini trovati solo per prefisso valgono meno di una corrispondenza esatta
+    private static final float PREFIX_FACTOR = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    @Autowired
+    private SocialEventRepository eventRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // termine -> (id evento -> peso); ordinato per la ricerca per prefisso
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // id evento -> termini indicizzati (per rimuoverlo senza scandire il dizionario) e data
+    private Map<Long, Document> documents = new HashMap<>();
+    // Aggiornamenti arrivati mentre rebuild() legge il database, da riapplicare sulle mappe nuove
+    // dopo lo scambio; null fuori dalla ricostruzione. Protetto dal lock in scrittura
+    private List<Update> updatesDuringRebuild;
+
+    // Ordine della ricerca paginata: data crescente (senza data per primi, come in H2), poi id
+    private static final Comparator<Map.Entry<Long, LocalDateTime>> DATE_ORDER =
+            Map.Entry.<Long, LocalDateTime>comparingByValue(Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    /**
+     * Ricostruisce l'indice leggendo dal database solo le colonne testuali. La lettura avviene senza lock,
+     * mentre le richieste possono già creare o cancellare eventi: quegli aggiornamenti vengono applicati
+     * all'indice corrente e conservati, poi riapplicati in ordine sulle mappe nuove, così nessuno va perso
+     * anche se la lettura non li ha visti.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            updatesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, Map<Long, Float>> newPostings = new TreeMap<>();
+        Map<Long, Document> newDocuments = new HashMap<>();
+        try {
+            for (EventIndexRow row : eventRepository.findAllIndexRows()) {
+                addDocument(newPostings, newDocuments, row.getId(), termWeights(row), row.getEventDate());
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                updatesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documents = newDocuments;
+            // Riapplicare un aggiornamento che la lettura aveva già visto non cambia nulla
+            for (Update update : updatesDuringRebuild) apply(update);
+            updatesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserisce o aggiorna un evento nell'indice.
+     */
+    public void index(SocialEvent event) {
+        EventIndexRow row = new EventIndexRow(
+                event.getId(),
+                event.getTitle(),
+                event.getDescription(),
+                event.getCategory() != null ? event.getCategory().getName() : null,
+                event.getRestaurant() != null ? event.getRestaurant().getName() : null,
+                event.getEventDate());
+        Update update = new Update(event.getId(), termWeights(row), row.getEventDate());
+
+        lock.writeLock().lock();
+        try {
+            apply(update);
+            if (updatesDuringRebuild != null) updatesDuringRebuild.add(update);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rimuove gli eventi indicati (cancellazioni, ban, ritiri).
+     */
+    public void remove(Collection<Long> eventIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : eventIds) {
+                Update update = new Update(id, null, null);
+                apply(update);
+                if (updatesDuringRebuild != null) updatesDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long eventId) {
+        remove(List.of(eventId));
+    }
+
+    /**
+     * Restituisce gli id degli eventi che contengono tutti i termini della query
+     * (l'ultimo anche come prefisso), ordinati per punteggio decrescente.
+     */
+    public List<Long> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return topK(score(query), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tutti gli eventi che contengono i termini della query, nell'ordine (data, id) della ricerca paginata
+     * e, se c'è un cursore, solo quelli che lo seguono. Nessun limite: chi chiama li scorre a blocchi
+     * finché non ha riempito la pagina.
+     */
+    public List<Long> matchesInDateOrder(String query, EventCursor after) {
+        List<Map.Entry<Long, LocalDateTime>> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : score(query).keySet()) {
+                LocalDateTime date = documents.get(id).eventDate();
+                if (after == null || follows(date, id, after)) {
+                    matches.add(Map.entry(id, date));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(DATE_ORDER);
+        return matches.stream().map(Map.Entry::getKey).toList();
+    }
+
+    // Stessa condizione keyset del database: (data, id) > (cursore.data, cursore.id); senza data mai dopo
+    private static boolean follows(LocalDateTime date, Long id, EventCursor after) {
+        if (date == null) return false;
+        int byDate = date.compareTo(after.getEventDate());
+        return byDate > 0 || (byDate == 0 && id > after.getId());
+    }
+
+    /**
+     * Punteggio dei documenti che contengono tutti i termini della query; da chiamare con il lock in lettura.
+     */
+    private Map<Long, Float> score(String query) {
+        List<String> analyzed = ItalianAnalyzer.analyze(query);
+        if (analyzed.isEmpty()) return Map.of();
+        // Solo l'ultimo termine può essere ancora incompleto (ricerca mentre si scrive)
+        String last = analyzed.get(analyzed.size() - 1);
+
+        Map<Long, Float> scores = null;
+        for (String token : new LinkedHashSet<>(analyzed)) {
+            Map<Long, Float> tokenScores = matchToken(token, token.equals(last));
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                // AND tra i termini: restano solo i documenti presenti in entrambi
+                Map<Long, Float> small = scores.size() <= tokenScores.size() ? scores : tokenScores;
+                Map<Long, Float> large = small == scores ? tokenScores : scores;
+                Map<Long, Float> merged = new HashMap<>();
+                for (Map.Entry<Long, Float> e : small.entrySet()) {
+                    Float other = large.get(e.getKey());
+                    if (other != null) merged.put(e.getKey(), e.getValue() + other);
+                }
+                scores = merged;
+            }
+            if (scores.isEmpty()) return Map.of();
+        }
+        return scores;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Float> matchToken(String token, boolean prefix) {
+        Map<Long, Float> result = new HashMap<>();
+        Map<Long, Float> exact = postings.get(token);
+        if (exact != null) result.putAll(exact);
+
+        if (prefix && token.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, Map<Long, Float>> term : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                for (Map.Entry<Long, Float> p : term.getValue().entrySet()) {
+                    result.merge(p.getKey(), p.getValue() * PREFIX_FACTOR, Math::max);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Long> topK(Map<Long, Float> scores, int limit) {
+        Comparator<Map.Entry<Long, Float>> byScore = Map.Entry.<Long, Float>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Float>comparingByKey());
+        PriorityQueue<Map.Entry<Long, Float>> heap = new PriorityQueue<>(Math.min(limit, scores.size()) + 1, byScore);
+        for (Map.Entry<Long, Float> e : scores.entrySet()) {
+            heap.offer(e);
+            if (heap.size() > limit) heap.poll();
+        }
+
+        Long[] ranked = new Long[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) ranked[i] = heap.poll().getKey();
+        return Arrays.asList(ranked);
+    }
+
+    private static Map<String, Float> termWeights(EventIndexRow row) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, row.getTitle(), TITLE_WEIGHT);
+        addField(weights, row.getRestaurantName(), RESTAURANT_WEIGHT);
+        addField(weights, row.getCategoryName(), CATEGORY_WEIGHT);
+        addField(weights, row.getDescription(), DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String term : ItalianAnalyzer.analyze(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    private static void addDocument(NavigableMap<String, Map<Long, Float>> postings, Map<Long, Document> documents,
+                                    Long id, Map<String, Float> weights, LocalDateTime eventDate) {
+        for (Map.Entry<String, Float> e : weights.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(id, e.getValue());
+        }
+        documents.put(id, new Document(weights.keySet(), eventDate));
+    }
+
+    // Da chiamare con il lock in scrittura
+    private void apply(Update update) {
+        removeDocument(update.id());
+        if (update.weights() != null) {
+            addDocument(postings, documents, update.id(), update.weights(), update.eventDate());
+        }
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) return;
+        for (String term : document.terms()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs == null) continue;
+            docs.remove(id);
+            if (docs.isEmpty()) postings.remove(term);
+        }
+    }
+
+    private record Document(Set<String> terms, LocalDateTime eventDate) {}
+
+    // Inserimento o aggiornamento di un evento; weights null = rimozione
+    private record Update(Long id, Map<String, Float> weights, LocalDateTime eventDate) {}
+}
@@ -0,0 +1,98 @@
+package com.socialpizza.backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Analizzatore di testo per l'italiano usato dall'indice di ricerca.
+ * Esegue tokenizzazione, minuscolo, rimozione degli accenti, stopword e uno stemming leggero
+ * (singolare/plurale e maschile/femminile), così "pizze", "pizza" e "Pizzà" producono lo stesso termine.
+ */
+public final class ItalianAnalyzer {
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "ad", "al", "allo", "ai", "agli", "all", "alla", "alle", "con", "col", "da", "dal", "dallo",
+            "dai", "dagli", "dall", "dalla", "dalle", "di", "del", "dello", "dei", "degli", "dell", "della",
+            "delle", "in", "nel", "nello", "nei", "negli", "nell", "nella", "nelle", "su", "sul", "sullo", "sui",
+            "sugli", "sull", "sulla", "sulle", "per", "tra", "fra", "il", "lo", "la", "i", "gli", "le", "l",
+            "un", "uno", "una", "e", "ed", "o", "ma", "che", "chi", "non", "si", "se", "ci", "mi", "ti", "vi",
+            "ne", "come", "anche", "piu", "sono");
+
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private ItalianAnalyzer() {
+    }
+
+    /**
+     * Trasforma il testo nella lista dei termini indicizzabili (con ripetizioni).
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) return terms;
+
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letterOrDigit = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                String token = folded.substring(start, i);
+                if (!STOPWORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Minuscolo e rimozione dei segni diacritici (è -> e, à -> a, ...).
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Stemming leggero: normalizza le desinenze flessive più comuni.
+     * Le parole corte e i numeri restano invariati.
+     */
+    static String stem(String token) {
+        if (token.length() <= MIN_STEM_LENGTH || Character.isDigit(token.charAt(0))) return token;
+
+        // avverbi: "velocemente" -> "veloce" -> "veloc"
+        if (token.endsWith("mente") && token.length() > 7) {
+            token = token.substring(0, token.length() - 5);
+        }
+        // "zione"/"zioni" -> "zion"
+        if (token.endsWith("zione") || token.endsWith("zioni")) {
+            return token.substring(0, token.length() - 1);
+        }
+        // plurali in -che/-chi, -ghe/-ghi mantengono il suono duro: "amiche" -> "amic"
+        if (token.endsWith("che") || token.endsWith("chi") || token.endsWith("ghe") || token.endsWith("ghi")) {
+            return token.substring(0, token.length() - 2);
+        }
+        // "ie"/"ii" finali ("camicie", "negozii")
+        if (token.endsWith("ie") || token.endsWith("ii")) {
+            token = token.substring(0, token.length() - 1);
+        }
+        char last = token.charAt(token.length() - 1);
+        if (isVowel(last) && token.length() > MIN_STEM_LENGTH) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
@@ -0,0 +1,61 @@
+package com.socialpizza.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stato di un job amministrativo eseguito in background (es. ban di un utente con tutti i suoi dati).
+ * Serializzato così com'è dall'endpoint GET /api/admin/jobs/{id}.
+ */
+public class AdminJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String type;
+    private final Long targetId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    private final AtomicInteger deletedEvents = new AtomicInteger();
+    private final AtomicInteger deletedParticipations = new AtomicInteger();
+
+    AdminJob(String type, Long targetId) {
+        this.type = type;
+        this.targetId = targetId;
+    }
+
+    void started() { status = Status.RUNNING; }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void failed(String message) {
+        error = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    void addDeleted(int events, int participations) {
+        deletedEvents.addAndGet(events);
+        deletedParticipations.addAndGet(participations);
+    }
+
+    boolean isFinished() { return status == Status.COMPLETED || status == Status.FAILED; }
+
+    public String getId() { return id; }
+    public String getType() { return type; }
+    public Long getTargetId() { return targetId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Status getStatus() { return status; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+    public int getDeletedEvents() { return deletedEvents.get(); }
+    public int getDeletedParticipations() { return deletedParticipations.get(); }
+}
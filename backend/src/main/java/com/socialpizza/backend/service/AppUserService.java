@@ -1,20 +1,12 @@
 package com.socialpizza.backend.service;
 
 import com.socialpizza.backend.entity.AppUser;
-import com.socialpizza.backend.entity.Restaurant;
-import com.socialpizza.backend.entity.SocialEvent;
 import com.socialpizza.backend.repository.AppUserRepository;
-import com.socialpizza.backend.repository.ParticipationRepository;
-import com.socialpizza.backend.repository.RestaurantRepository;
-import com.socialpizza.backend.repository.SocialEventRepository;
+import com.socialpizza.backend.session.SessionPrincipals;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Gestisce registrazione, login, recupero dati e operazioni amministrative
@@ -26,18 +18,22 @@ public class AppUserService {
     private AppUserRepository userRepository;
 
     @Autowired
-    private ParticipationRepository participationRepository;
+    private CascadeDeleteService cascadeDeleteService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
 
     @Autowired
-    private SocialEventRepository eventRepository;
+    private PlatformStats platformStats;
 
     @Autowired
-    private RestaurantRepository restaurantRepository;
+    private SessionPrincipals principals;
 
     /**
      * Registra un nuovo utente nel sistema.
+     * I controlli sui dati lanciano subito l'eccezione; hash e salvataggio completano il future.
      */
-    public AppUser registerUser(AppUser user) {
+    public CompletableFuture<AppUser> registerUser(AppUser user) {
         //  Validazione Campi
         if (user.getName() == null || user.getName().trim().isEmpty()) throw new RuntimeException("Nome obbligatorio");
         if (user.getEmail() == null || user.getEmail().trim().isEmpty()) throw new RuntimeException("Email obbligatoria");
@@ -60,18 +56,39 @@ public class AppUserService {
             user.setRole(role);
         }
 
-        return userRepository.save(user);
+        // L'hash bcrypt viene calcolato sul pool dedicato, poi l'utente viene salvato con la password cifrata
+        return passwordHasher.encode(user.getPassword()).thenApply(hash -> {
+            user.setPassword(hash);
+            AppUser saved = userRepository.save(user);
+            platformStats.userAdded(saved.getRole());
+            return saved;
+        });
     }
 
     /**
      * Gestisce il login verificando email e password.
+     * La verifica bcrypt avviene sul pool di hashing; se la password era salvata in chiaro
+     * (o con un costo superato) viene ricalcolata e aggiornata al volo.
      */
-    public AppUser login(String email, String password) {
-        AppUser user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Utente non trovato"));
-
-        if (!user.getPassword().equals(password)) throw new RuntimeException("Password errata");
-        return user;
+    public CompletableFuture<AppUser> login(String email, String password) {
+        if (password == null) return CompletableFuture.failedFuture(new RuntimeException("Password errata"));
+        AppUser user = email != null ? userRepository.findByEmail(email).orElse(null) : null;
+        String stored = user != null ? user.getPassword() : null;
+
+        return passwordHasher.matches(password, stored).thenApply(valid -> {
+            if (user == null) throw new RuntimeException("Utente non trovato");
+            if (!valid) throw new RuntimeException("Password errata");
+
+            if (passwordHasher.needsUpgrade(stored)) {
+                // Siamo già su un thread del pool: il nuovo hash non occupa un thread di Tomcat.
+                // L'UPDATE è condizionata al vecchio valore per non sovrascrivere un cambio concorrente.
+                String upgraded = passwordHasher.encodeOnWorker(password);
+                if (userRepository.updatePassword(user.getId(), stored, upgraded) == 1) {
+                    user.setPassword(upgraded);
+                }
+            }
+            return user;
+        });
     }
 
 
@@ -91,11 +108,26 @@ public class AppUserService {
     }
 
 
+    /**
+     * Modifica il ruolo di un utente (pannello admin).
+     */
+    public AppUser changeRole(Long userId, String role) {
+        AppUser user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Utente non trovato"));
+
+        String oldRole = user.getRole();
+        user.setRole(role);
+        AppUser saved = userRepository.save(user);
+        platformStats.roleChanged(oldRole, role);
+        return saved;
+    }
+
     /**
      * Banna un utente dal sistema.
+     * I controlli avvengono subito; la cancellazione a cascata di eventi, locali e iscrizioni
+     * prosegue in background e il job restituito ne riporta l'avanzamento.
      */
-    @Transactional
-    public void banUser(Long userId, Long adminId) {
+    public AdminJob banUser(Long userId, Long adminId) {
         // Verifica che chi sta bannando sia davvero un Admin
         AppUser admin = userRepository.findById(adminId)
                 .orElseThrow(() -> new RuntimeException("Admin non trovato"));
@@ -103,35 +135,18 @@ public class AppUserService {
         if (!"ADMIN".equals(admin.getRole())) throw new RuntimeException("Solo ADMIN possono bannare");
 
         // Verifica che l'utente da bannare esista e non sia l'admin stesso
-        AppUser userToBan = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Utente da bannare non trovato"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("Utente da bannare non trovato");
+        }
 
         if (userId.equals(adminId)) {
             throw new RuntimeException("Non puoi bannare te stesso");
         }
 
-        // RACCOLTA DATI DA ELIMINARE
-        // Dobbiamo trovare tutti gli eventi collegati all'utente.
-        Set<SocialEvent> eventsToDelete = new HashSet<>();
-
-        eventsToDelete.addAll(eventRepository.findByOrganizerId(userId));
-
-
-        List<Restaurant> userRestaurants = restaurantRepository.findByOwnerId(userId);
-        for (Restaurant r : userRestaurants) {
-            eventsToDelete.addAll(eventRepository.findByRestaurantId(r.getId()));
-        }
-
-        // ESECUZIONE CANCELLAZIONI
-        for (SocialEvent event : eventsToDelete) {
-            participationRepository.deleteByEventId(event.getId());
-            eventRepository.delete(event);
-        }
-
-        restaurantRepository.deleteAll(userRestaurants);
-
-        participationRepository.deleteByUserId(userId);
-        userRepository.deleteById(userId);
+        // Escluso subito (sessioni, token e nuovi login), prima che la cascata inizi a cancellare:
+        // altrimenti potrebbe ancora creare eventi o iscriversi mentre il job è in corso
+        principals.ban(userId);
+        return cascadeDeleteService.deleteUser(userId);
     }
 
 }
\ No newline at end of file
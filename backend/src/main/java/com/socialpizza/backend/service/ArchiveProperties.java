@@ -0,0 +1,35 @@
+package com.socialpizza.backend.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Configurazione dell'archiviazione degli eventi conclusi (prefisso "archive" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "archive")
+public class ArchiveProperties {
+
+    // Con false il passaggio periodico non parte; resta avviabile a mano da POST /api/admin/archive
+    private boolean enabled = true;
+
+    // Intervallo tra due passaggi e attesa dopo l'avvio (letti da @Scheduled in EventArchiveService)
+    private Duration interval = Duration.ofHours(1);
+    private Duration initialDelay = Duration.ofMinutes(5);
+
+    // Un evento passa in archivio solo quando è concluso da almeno questo tempo
+    private Duration gracePeriod = Duration.ofDays(1);
+
+    // Eventi spostati per transazione, con le loro iscrizioni
+    private int batchSize = 200;
+
+    // Attesa tra un blocco e il successivo: lascia spazio alle richieste degli utenti sulle stesse tabelle
+    private Duration pause = Duration.ofMillis(200);
+
+    // Blocchi massimi per passaggio: un arretrato grande viene smaltito in più passaggi
+    private int maxBatchesPerRun = 500;
+}
@@ -0,0 +1,193 @@
+package com.socialpizza.backend.service;
+
+import com.socialpizza.backend.live.EventUpdate;
+import com.socialpizza.backend.live.EventUpdateBroadcaster;
+import com.socialpizza.backend.repository.AppUserRepository;
+import com.socialpizza.backend.repository.ArchivedEventRepository;
+import com.socialpizza.backend.repository.ArchivedParticipationRepository;
+import com.socialpizza.backend.repository.ParticipationRepository;
+import com.socialpizza.backend.repository.RestaurantRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import com.socialpizza.backend.search.EventSearchIndex;
+import com.socialpizza.backend.service.ContentVersions.Resource;
+import com.socialpizza.backend.session.SessionPrincipals;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Cancellazioni a cascata (ban di un utente, rimozione di un ristorante) eseguite in background.
+ * Gli eventi coinvolti vengono eliminati a blocchi di {@link #CHUNK_SIZE} con DELETE su insiemi di id,
+ * ognuno nella propria transazione breve: nessuna entità viene caricata e la richiesta dell'admin
+ * torna subito con l'id del job da interrogare.
+ */
+@Service
+public class CascadeDeleteService {
+
+    static final int CHUNK_SIZE = 500;
+
+    // Oltre questa soglia i job già conclusi vengono dimenticati
+    private static final int MAX_RETAINED_JOBS = 200;
+
+    @Autowired private AppUserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private SocialEventRepository eventRepository;
+    @Autowired private ParticipationRepository participationRepository;
+    @Autowired private ArchivedEventRepository archivedEventRepository;
+    @Autowired private ArchivedParticipationRepository archivedParticipationRepository;
+    @Autowired private EventSearchIndex searchIndex;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private EventUpdateBroadcaster liveUpdates;
+    @Autowired private PlatformStats platformStats;
+
+    private final Map<String, AdminJob> jobs = new ConcurrentHashMap<>();
+
+    // Un solo thread e coda limitata: le cascate non competono tra loro per i lock delle stesse tabelle
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100), runnable -> {
+                Thread thread = new Thread(runnable, "admin-job");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Elimina l'utente con i suoi eventi, i suoi locali (e gli eventi ospitati) e le sue iscrizioni,
+     * compresi quelli già in archivio. Il chiamante deve aver già escluso l'utente
+     * ({@link SessionPrincipals#ban}), così non crea nuovi eventi mentre la cascata procede.
+     */
+    public AdminJob deleteUser(Long userId) {
+        return submit("USER_BAN", userId, job -> {
+            deleteEventsInChunks(job, limit -> eventRepository.findIdsByOrganizerId(userId, limit));
+            deleteEventsInChunks(job, limit -> eventRepository.findIdsByRestaurantOwnerId(userId, limit));
+            DeletedChunk rest = transactionTemplate.execute(status -> {
+                // Eventi comparsi dopo l'ultimo blocco (richieste partite prima del ban): vanno eliminati nella
+                // stessa transazione dell'utente, altrimenti la chiave esterna farebbe fallire il DELETE
+                Set<Long> lateEventIds = new LinkedHashSet<>(eventRepository.findIdsByOrganizerId(userId, Limit.unlimited()));
+                lateEventIds.addAll(eventRepository.findIdsByRestaurantOwnerId(userId, Limit.unlimited()));
+                DeletedChunk late = deleteEvents(List.copyOf(lateEventIds));
+
+                eventRepository.releaseSeatsOfUser(userId);
+                int deleted = late.participations() + participationRepository.deleteByUserId(userId);
+                // Anche lo storico, come per gli eventi attivi: iscrizioni archiviate dell'utente,
+                // eventi archiviati che aveva organizzato e quelli ospitati nei suoi locali (prima dei locali)
+                deleted += archivedParticipationRepository.deleteByUserId(userId);
+                deleted += archivedParticipationRepository.deleteByEventOrganizerId(userId);
+                deleted += archivedParticipationRepository.deleteByEventRestaurantOwnerId(userId);
+                archivedEventRepository.deleteByOrganizerId(userId);
+                archivedEventRepository.deleteByRestaurantOwnerId(userId);
+                restaurantRepository.deleteByOwnerId(userId);
+                userRepository.deleteById(userId);
+                return new DeletedChunk(late.eventIds(), late.cancelled(), late.events(), deleted);
+            });
+            job.addDeleted(rest.events(), rest.participations());
+            searchIndex.remove(rest.eventIds());
+            liveUpdates.publishAll(rest.cancelled());
+            contentVersions.bump(Resource.EVENTS, Resource.RESTAURANTS);
+            // Troppe righe toccate per aggiornare i contatori uno a uno: si riallineano dal database
+            platformStats.reconcile();
+        });
+    }
+
+    /**
+     * Elimina il ristorante insieme agli eventi ospitati (anche archiviati) e alle relative iscrizioni.
+     */
+    public AdminJob deleteRestaurant(Long restaurantId) {
+        return submit("RESTAURANT_DELETE", restaurantId, job -> {
+            deleteEventsInChunks(job, limit -> eventRepository.findIdsByRestaurantId(restaurantId, limit));
+            int participations = transactionTemplate.execute(status -> {
+                int deleted = archivedParticipationRepository.deleteByEventRestaurantId(restaurantId);
+                archivedEventRepository.deleteByRestaurantId(restaurantId);
+                restaurantRepository.deleteRestaurantById(restaurantId);
+                return deleted;
+            });
+            job.addDeleted(0, participations);
+            contentVersions.bump(Resource.RESTAURANTS);
+            platformStats.reconcile();
+        });
+    }
+
+    public AdminJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private AdminJob submit(String type, Long targetId, Consumer<AdminJob> work) {
+        if (jobs.size() >= MAX_RETAINED_JOBS) {
+            jobs.values().removeIf(AdminJob::isFinished);
+        }
+        AdminJob job = new AdminJob(type, targetId);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> {
+                job.started();
+                try {
+                    work.accept(job);
+                    job.completed();
+                } catch (Throwable e) {
+                    // Anche un Error deve chiudere il job, altrimenti resta RUNNING per sempre
+                    job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                    if (e instanceof Error error) throw error;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new RuntimeException("Troppe operazioni in coda, riprova più tardi");
+        }
+        return job;
+    }
+
+    /**
+     * Legge il prossimo blocco di id evento e lo elimina (prima le iscrizioni, poi gli eventi)
+     * finché la query non restituisce più nulla.
+     */
+    private void deleteEventsInChunks(AdminJob job, Function<Limit, List<Long>> nextChunk) {
+        while (true) {
+            DeletedChunk chunk = transactionTemplate.execute(status -> deleteEvents(nextChunk.apply(Limit.of(CHUNK_SIZE))));
+            if (chunk.eventIds().isEmpty()) {
+                return;
+            }
+            job.addDeleted(chunk.events(), chunk.participations());
+            searchIndex.remove(chunk.eventIds());
+            contentVersions.bump(Resource.EVENTS);
+            liveUpdates.publishAll(chunk.cancelled());
+        }
+    }
+
+    /**
+     * Elimina gli eventi indicati e le loro iscrizioni; va chiamato dentro una transazione.
+     */
+    private DeletedChunk deleteEvents(List<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return new DeletedChunk(eventIds, List.of(), 0, 0);
+        }
+        // Ristorante e città per instradare le cancellazioni sullo stream live, letti prima della DELETE
+        List<EventUpdate> cancelled = eventRepository.findLiveUpdates(eventIds).stream()
+                .map(update -> update.as(EventUpdate.Type.CANCELLED))
+                .toList();
+        int participations = participationRepository.deleteByEventIds(eventIds);
+        int events = eventRepository.deleteByIds(eventIds);
+        return new DeletedChunk(eventIds, cancelled, events, participations);
+    }
+
+    private record DeletedChunk(List<Long> eventIds, List<EventUpdate> cancelled, int events, int participations) {}
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
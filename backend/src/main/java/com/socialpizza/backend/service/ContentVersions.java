@@ -0,0 +1,132 @@
+package com.socialpizza.backend.service;
+
+import com.socialpizza.backend.replica.ReadConsistency;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Contatori di versione delle risorse che cambiano raramente (città, categorie, ristoranti, bacheca eventi).
+ * Ogni metodo che le modifica chiama {@link #bump}; le GET confrontano la versione con If-None-Match /
+ * If-Modified-Since e rispondono 304 senza interrogare il database.
+ */
+@Component
+public class ContentVersions {
+
+    public enum Resource { CITIES, CATEGORIES, RESTAURANTS, EVENTS }
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    // Distingue le versioni tra un riavvio e l'altro (i contatori ripartono da zero)
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Resource, Version> versions = new EnumMap<>(Resource.class);
+
+    public ContentVersions() {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new Version());
+        }
+    }
+
+    /**
+     * Segnala che la risorsa è cambiata: i client riceveranno di nuovo il contenuto completo.
+     * Dentro una transazione la versione cambia solo dopo il commit: un client che rilegge subito
+     * non può associare il nuovo ETag ai dati non ancora visibili.
+     */
+    public void bump(Resource... resources) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(resources);
+                }
+            });
+        } else {
+            increment(resources);
+        }
+    }
+
+    private void increment(Resource... resources) {
+        long now = System.currentTimeMillis();
+        for (Resource resource : resources) {
+            Version v = versions.get(resource);
+            v.lastModified = now;
+            v.counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * ETag della versione corrente. La stessa versione in JSON e in CBOR ha byte diversi, quindi l'ETag
+     * dipende anche dalla codifica negoziata dall'header Accept (non dal testo dell'header: Accept diversi
+     * che producono lo stesso JSON condividono l'ETag).
+     */
+    public String etag(Resource resource, String accept) {
+        return "W/\"" + resource.name().toLowerCase() + "-" + bootId + "-" + versions.get(resource).counter.get()
+                + "-" + encoding(accept) + "\"";
+    }
+
+    /**
+     * Codifica che Spring sceglierà per l'header Accept: il primo tipo accettato in ordine di qualità
+     * e specificità compatibile con JSON o CBOR. I caratteri jolly ricadono su JSON, primo convertitore registrato.
+     */
+    static String encoding(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return "json";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) return "json";
+            if (type.isCompatibleWith(CBOR)) return "cbor";
+        }
+        return "json";
+    }
+
+    public long lastModified(Resource resource) {
+        return versions.get(resource).lastModified;
+    }
+
+    /**
+     * GET condizionale: se il client ha già la versione corrente restituisce null
+     * (Spring ha già impostato 304 e gli header), altrimenti calcola il body.
+     * Il body viene letto solo da repliche aggiornate almeno all'ultima modifica, coerente con l'ETag inviato.
+     */
+    public <T> ResponseEntity<T> conditional(Resource resource, WebRequest request, Supplier<T> body) {
+        long modifiedAt = lastModified(resource);
+        // Anche il 304 dichiara che il contenuto dipende dalla codifica richiesta
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        if (request.checkNotModified(etag(resource, request.getHeader(HttpHeaders.ACCEPT)), modifiedAt)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(ReadConsistency.notBefore(modifiedAt, body));
+    }
+
+    private static class Version {
+        private final AtomicLong counter = new AtomicLong();
+        private volatile long lastModified = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,165 @@
+package com.socialpizza.backend.service;
+
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.repository.ArchivedEventRepository;
+import com.socialpizza.backend.repository.ArchivedParticipationRepository;
+import com.socialpizza.backend.repository.ParticipationRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import com.socialpizza.backend.search.EventSearchIndex;
+import com.socialpizza.backend.service.ContentVersions.Resource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sposta gli eventi conclusi, con le loro iscrizioni, da social_event e participation alle tabelle
+ * di archivio: le tabelle attive contengono solo eventi futuri o appena passati, e bacheca, ricerca
+ * e statistiche lavorano su poche righe. Ogni blocco è una transazione breve (copia con INSERT ... SELECT,
+ * poi DELETE sugli stessi id) seguita da una pausa, così l'archiviazione non occupa il database.
+ * Lo storico resta consultabile dalle letture paginate di questa classe.
+ */
+@Service
+public class EventArchiveService {
+
+    @Autowired private SocialEventRepository eventRepository;
+    @Autowired private ParticipationRepository participationRepository;
+    @Autowired private ArchivedEventRepository archivedEventRepository;
+    @Autowired private ArchivedParticipationRepository archivedParticipationRepository;
+    @Autowired private EventSearchIndex searchIndex;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private PlatformStats platformStats;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ArchiveProperties properties;
+
+    // Un passaggio alla volta: il job corrente viene restituito a chi ne chiede un altro
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-archive");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile AdminJob lastRun;
+
+    // Serializza solo la scelta del job in start(): la sottomissione all'executor avviene fuori dal lock
+    private final ReentrantLock startLock = new ReentrantLock();
+
+    @Scheduled(fixedDelayString = "${archive.interval:1h}", initialDelayString = "${archive.initial-delay:5m}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            start();
+        }
+    }
+
+    /**
+     * Avvia un passaggio di archiviazione in background, o restituisce quello già in corso.
+     */
+    public AdminJob start() {
+        AdminJob job;
+        startLock.lock();
+        try {
+            AdminJob current = lastRun;
+            if (current != null && !current.isFinished()) {
+                return current;
+            }
+            job = new AdminJob("ARCHIVE", null);
+            lastRun = job;
+        } finally {
+            startLock.unlock();
+        }
+        executor.execute(() -> {
+            job.started();
+            try {
+                archive(job);
+                job.completed();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                job.failed("Archiviazione interrotta");
+            } catch (Throwable e) {
+                // Anche un Error deve chiudere il job, altrimenti start() restituirebbe per sempre quello in corso
+                job.failed(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                if (e instanceof Error error) throw error;
+            }
+        });
+        return job;
+    }
+
+    public AdminJob getLastRun() {
+        return lastRun;
+    }
+
+    private void archive(AdminJob job) throws InterruptedException {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getGracePeriod());
+        int moved = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            ArchivedBatch archived = transactionTemplate.execute(status -> {
+                List<Long> eventIds = eventRepository.findIdsToArchive(before, Limit.of(properties.getBatchSize()));
+                if (eventIds.isEmpty()) {
+                    return new ArchivedBatch(eventIds, 0, 0);
+                }
+                // Prima la copia, poi la cancellazione: nella stessa transazione l'evento non va mai perso
+                archivedEventRepository.copyEvents(eventIds);
+                archivedParticipationRepository.copyParticipations(eventIds);
+                int participations = participationRepository.deleteByEventIds(eventIds);
+                int events = eventRepository.deleteByIds(eventIds);
+                return new ArchivedBatch(eventIds, events, participations);
+            });
+            if (archived.eventIds().isEmpty()) {
+                break;
+            }
+            moved += archived.events();
+            job.addDeleted(archived.events(), archived.participations());
+            searchIndex.remove(archived.eventIds());
+            contentVersions.bump(Resource.EVENTS);
+            Thread.sleep(properties.getPause().toMillis());
+        }
+        if (moved > 0) {
+            // Le statistiche descrivono le sole tabelle attive: si riallineano dopo lo spostamento
+            platformStats.reconcile();
+        }
+    }
+
+    private record ArchivedBatch(List<Long> eventIds, int events, int participations) {}
+
+    // --- Storico (dal più recente; la dimensione della pagina è già limitata dal controller) ---
+
+    @Transactional(readOnly = true)
+    public List<EventView> getArchivedEventsJoinedByUser(Long userId, int page, int size) {
+        return archivedEventRepository.findViewsByParticipantId(userId, pageable(page, size));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventView> getArchivedEventsCreatedByUser(Long userId, int page, int size) {
+        return archivedEventRepository.findViewsByOrganizerId(userId, pageable(page, size));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventView> getArchivedEventsByRestaurant(Long restaurantId, int page, int size) {
+        return archivedEventRepository.findViewsByRestaurantId(restaurantId, pageable(page, size));
+    }
+
+    private static Pageable pageable(int page, int size) {
+        if (page < 0) {
+            throw new RuntimeException("Pagina non valida");
+        }
+        return PageRequest.of(page, size);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
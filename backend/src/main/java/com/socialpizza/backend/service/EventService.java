@@ -1,12 +1,34 @@
 package com.socialpizza.backend.service;
 
+import com.socialpizza.backend.dto.EventCursor;
+import com.socialpizza.backend.dto.EventFeedItem;
+import com.socialpizza.backend.dto.EventPage;
+import com.socialpizza.backend.dto.EventSearchCriteria;
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.dto.ParticipantView;
+import com.socialpizza.backend.dto.RestaurateurDashboard;
 import com.socialpizza.backend.entity.*;
+import com.socialpizza.backend.live.EventUpdate;
+import com.socialpizza.backend.live.EventUpdateBroadcaster;
 import com.socialpizza.backend.repository.*;
+import com.socialpizza.backend.search.EventSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service principale che gestisce la logica di business degli eventi.
@@ -14,10 +36,22 @@ import java.util.List;
 @Service
 public class EventService {
 
+    private static final Logger log = LoggerFactory.getLogger(EventService.class);
+
     @Autowired private SocialEventRepository eventRepository;
     @Autowired private ParticipationRepository participationRepository;
     @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private AppUserRepository userRepository;
     @Autowired private AppUserService userService;
+    @Autowired private EventSearchIndex searchIndex;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private EventUpdateBroadcaster liveUpdates;
+    @Autowired private PlatformStats platformStats;
+
+    // Id dell'indice full-text passati al database per ogni query della ricerca testuale
+    private static final int TEXT_MATCH_CHUNK = 500;
 
 
     /**
@@ -31,6 +65,13 @@ public class EventService {
 
         event.setOrganizer(organizer);
         event.setRestaurant(restaurant);
+        event.setReservedSeats(0);
+
+        // La categoria arriva dal form con il solo id: la carichiamo per avere anche il nome (indice di ricerca)
+        if (event.getCategory() != null && event.getCategory().getId() != null) {
+            event.setCategory(categoryRepository.findById(event.getCategory().getId())
+                    .orElseThrow(() -> new RuntimeException("Categoria non trovata")));
+        }
 
         if ("RISTORATORE".equals(organizer.getRole()) && restaurant.getOwner().getId().equals(userId)) {
             event.setStatus("APPROVED");
@@ -39,11 +80,15 @@ public class EventService {
         }
 
         SocialEvent savedEvent = eventRepository.save(event);
+        searchIndex.index(savedEvent);
+        contentVersions.bump(ContentVersions.Resource.EVENTS);
+        platformStats.eventAdded(savedEvent);
 
         // Se l'evento è approvato subito, iscriviamo automaticamente l'organizzatore
         if ("APPROVED".equals(savedEvent.getStatus())) {
             autoJoinOrganizer(savedEvent);
         }
+        publishLive(savedEvent.getId(), EventUpdate.Type.CREATED);
 
         return savedEvent;
     }
@@ -55,13 +100,18 @@ public class EventService {
         SocialEvent event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Evento non trovato"));
 
+        String oldStatus = event.getStatus();
         event.setStatus(newStatus);
         SocialEvent savedEvent = eventRepository.save(event);
+        searchIndex.index(savedEvent);
+        contentVersions.bump(ContentVersions.Resource.EVENTS);
+        platformStats.statusChanged(savedEvent, oldStatus);
 
         // Se l'evento diventa approvato ora, assicuriamoci che l'organizzatore sia iscritto
         if ("APPROVED".equals(newStatus)) {
             autoJoinOrganizer(savedEvent);
         }
+        publishLive(eventId, EventUpdate.Type.STATUS);
 
         return savedEvent;
     }
@@ -70,59 +120,178 @@ public class EventService {
     /**
      * Gestisce l'iscrizione di un utente a un evento.
      */
+    @Transactional
     public Participation joinEvent(Long userId, Long eventId) {
-        SocialEvent event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Evento non trovato"));
+        // Controllo disponibilità e occupazione del posto in un'unica UPDATE condizionale:
+        // le iscrizioni concorrenti si serializzano sul lock di riga e non possono superare maxParticipants
+        if (eventRepository.reserveSeat(eventId) == 0) {
+            SocialEvent event = eventRepository.findById(eventId)
+                    .orElseThrow(() -> new RuntimeException("Evento non trovato"));
+            if (!"APPROVED".equals(event.getStatus())) {
+                throw new RuntimeException("Non puoi iscriverti a un evento non ancora confermato");
+            }
+            throw new RuntimeException("Evento Sold Out! Posti esauriti.");
+        }
+
+        Participation participation = new Participation();
+        participation.setEvent(eventRepository.getReferenceById(eventId));
+        participation.setUser(userRepository.getReferenceById(userId));
+        participation.setRegistrationDate(LocalDateTime.now());
+
+        // Il vincolo UNIQUE(user_id, event_id) sostituisce il controllo preventivo:
+        // in caso di doppia iscrizione la transazione viene annullata e il posto torna libero
+        Participation saved;
+        try {
+            saved = participationRepository.saveAndFlush(participation);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Sei già iscritto a questo evento!");
+        }
+        seatsChanged(eventId, 1);
+        return saved;
+    }
 
-        AppUser user = userService.getUserById(userId);
 
+    /**
+     * Iscrive in blocco una lista di utenti a un evento approvato.
+     * Gli utenti già iscritti vengono saltati; per gli altri i posti si occupano con una sola UPDATE
+     * e le iscrizioni vengono inserite in batch JDBC (id da sequenza, nessun round trip per riga).
+     * Restituisce il numero di nuove iscrizioni.
+     */
+    @Transactional
+    public int bulkJoinEvent(Long eventId, Collection<Long> userIds) {
+        Set<Long> toJoin = new LinkedHashSet<>(userIds);
+        if (toJoin.isEmpty()) {
+            return 0;
+        }
+        participationRepository.findJoinedUserIds(eventId, toJoin).forEach(toJoin::remove);
+        if (toJoin.isEmpty()) {
+            return 0;
+        }
 
-        if (!"APPROVED".equals(event.getStatus())) {
-            throw new RuntimeException("Non puoi iscriverti a un evento non ancora confermato");
+        if (eventRepository.reserveSeats(eventId, toJoin.size()) == 0) {
+            SocialEvent event = eventRepository.findById(eventId)
+                    .orElseThrow(() -> new RuntimeException("Evento non trovato"));
+            if (!"APPROVED".equals(event.getStatus())) {
+                throw new RuntimeException("Non puoi iscriverti a un evento non ancora confermato");
+            }
+            throw new RuntimeException("Posti insufficienti: ne restano "
+                    + Math.max(0, event.getMaxParticipants() - event.getReservedSeats()));
         }
 
+        SocialEvent event = eventRepository.getReferenceById(eventId);
+        LocalDateTime now = LocalDateTime.now();
+        List<Participation> participations = new ArrayList<>(toJoin.size());
+        for (Long userId : toJoin) {
+            Participation participation = new Participation();
+            participation.setEvent(event);
+            participation.setUser(userRepository.getReferenceById(userId));
+            participation.setRegistrationDate(now);
+            participations.add(participation);
+        }
 
-        if (participationRepository.existsByUserIdAndEventId(userId, eventId)) {
-            throw new RuntimeException("Sei già iscritto a questo evento!");
+        try {
+            participationRepository.saveAllAndFlush(participations);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Iscrizione in massa non riuscita: utente inesistente o già iscritto");
         }
+        seatsChanged(eventId, participations.size());
+        return participations.size();
+    }
 
+    @Transactional(readOnly = true)
+    public List<EventView> getAllApprovedEvents() {
+        return eventRepository.findViewsByStatus("APPROVED");
+    }
 
-        long currentParticipants = participationRepository.countByEventId(eventId);
-        if (currentParticipants >= event.getMaxParticipants()) {
-            throw new RuntimeException("Evento Sold Out! Posti esauriti.");
+    @Transactional(readOnly = true)
+    public List<EventView> getApprovedOrPendingEvents() {
+        return eventRepository.findViewsByStatusIn(List.of("APPROVED", "PENDING"));
+    }
+
+    /**
+     * Come getApprovedOrPendingEvents ma in streaming: il chiamante deve consumarlo in una transazione.
+     */
+    public Stream<EventView> streamApprovedOrPendingEvents() {
+        return eventRepository.streamViewsByStatusIn(List.of("APPROVED", "PENDING"));
+    }
+
+    /**
+     * Ricerca paginata degli eventi con filtri applicati dal database.
+     * Viene letto un elemento in più del limite per sapere se esiste una pagina successiva.
+     */
+    @Transactional(readOnly = true)
+    public EventPage<EventView> searchEvents(EventSearchCriteria criteria, int limit) {
+        if (criteria.getText() == null || criteria.getText().isBlank()) {
+            return page(eventRepository.search(criteria, limit + 1), limit);
         }
 
-        Participation participation = new Participation();
-        participation.setEvent(event);
-        participation.setUser(user);
-        participation.setRegistrationDate(LocalDateTime.now());
+        // Il testo viene risolto dall'indice in memoria, che restituisce tutte le corrispondenze dopo il cursore
+        // già nell'ordine (data, id) della pagina: il database applica gli altri filtri un blocco di id alla volta,
+        // finché la pagina non è piena
+        List<Long> matches = searchIndex.matchesInDateOrder(criteria.getText(), criteria.getAfter());
+        criteria.setText(null);
+        List<EventView> rows = new ArrayList<>();
+        for (int from = 0; from < matches.size() && rows.size() <= limit; from += TEXT_MATCH_CHUNK) {
+            criteria.setEventIds(matches.subList(from, Math.min(from + TEXT_MATCH_CHUNK, matches.size())));
+            rows.addAll(eventRepository.search(criteria, limit + 1 - rows.size()));
+        }
+        return page(rows, limit);
+    }
 
-        return participationRepository.save(participation);
+    private static EventPage<EventView> page(List<EventView> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new EventPage<>(rows, null);
+        }
+        List<EventView> page = rows.subList(0, limit);
+        EventView last = page.get(limit - 1);
+        return new EventPage<>(page, new EventCursor(last.getEventDate(), last.getId()).encode());
     }
 
+    /**
+     * Pagina della bacheca con posti occupati e flag di iscrizione dell'utente.
+     * I posti occupati arrivano dal contatore già presente nella riga dell'evento;
+     * l'unica query aggiuntiva è la verifica delle iscrizioni dell'utente sulla pagina.
+     */
+    @Transactional(readOnly = true)
+    public EventPage<EventFeedItem> getEventFeed(EventSearchCriteria criteria, int limit, Long userId) {
+        EventPage<EventView> page = searchEvents(criteria, limit);
+        List<Long> eventIds = page.getItems().stream().map(EventView::getId).toList();
+        if (eventIds.isEmpty()) {
+            return new EventPage<>(List.of(), page.getNextCursor());
+        }
+
+        Set<Long> joined = userId != null
+                ? new HashSet<>(participationRepository.findJoinedEventIds(userId, eventIds))
+                : Set.of();
 
-    public List<SocialEvent> getAllApprovedEvents() {
-        return eventRepository.findByStatus("APPROVED");
+        List<EventFeedItem> items = page.getItems().stream()
+                .map(e -> new EventFeedItem(e, e.getReservedSeats(),
+                        Math.max(0, e.getMaxParticipants() - e.getReservedSeats()), joined.contains(e.getId())))
+                .toList();
+        return new EventPage<>(items, page.getNextCursor());
     }
 
-    public List<SocialEvent> getApprovedOrPendingEvents() {
-        return eventRepository.findByStatusIn(List.of("APPROVED", "PENDING"));
+    @Transactional(readOnly = true)
+    public List<Long> getRestaurantIdsByOwner(Long ownerId) {
+        return restaurantRepository.findIdsByOwnerId(ownerId);
     }
 
-    public List<SocialEvent> getEventsByRestaurant(Long restaurantId) {
-        return eventRepository.findByRestaurantId(restaurantId);
+    @Transactional(readOnly = true)
+    public List<EventView> getEventsByRestaurant(Long restaurantId) {
+        return eventRepository.findViewsByRestaurantId(restaurantId);
     }
 
     /**
      * Recupera gli eventi a cui l'utente partecipa.
      */
-    public List<SocialEvent> getEventsJoinedByUser(Long userId) {
-        return participationRepository.findByUserId(userId).stream()
-                .map(Participation::getEvent).toList();
+    @Transactional(readOnly = true)
+    public List<EventView> getEventsJoinedByUser(Long userId) {
+        return participationRepository.findEventViewsByUserId(userId);
     }
 
-    public List<SocialEvent> getEventsCreatedByUser(Long userId) {
-        return eventRepository.findByOrganizerId(userId);
+    @Transactional(readOnly = true)
+    public List<EventView> getEventsCreatedByUser(Long userId) {
+        return eventRepository.findViewsByOrganizerId(userId);
     }
 
 
@@ -137,6 +306,7 @@ public class EventService {
             throw new RuntimeException("Non sei il proprietario!");
         }
 
+        String oldStatus = event.getStatus();
         event.setStatus(decision);
         event.setDecisionDate(LocalDateTime.now());
 
@@ -147,43 +317,62 @@ public class EventService {
         }
 
         SocialEvent savedEvent = eventRepository.save(event);
+        searchIndex.index(savedEvent);
+        contentVersions.bump(ContentVersions.Resource.EVENTS);
+        platformStats.statusChanged(savedEvent, oldStatus);
 
         // Se approvato, iscriviamo l'organizzatore originale
         if ("APPROVED".equals(decision)) {
             autoJoinOrganizer(savedEvent);
         }
+        publishLive(eventId, EventUpdate.Type.STATUS);
         return savedEvent;
     }
 
     /**
      * Trova tutte le proposte in attesa associate ai ristoranti posseduti dal ristoratore.
      */
-    public List<SocialEvent> getPendingEventsByRestaurateurId(Long restaurateurId) {
-        return restaurantRepository.findByOwnerId(restaurateurId).stream()
-                .flatMap(r -> eventRepository.findByRestaurantIdAndStatus(r.getId(), "PENDING").stream())
-                .toList();
+    @Transactional(readOnly = true)
+    public List<EventView> getPendingEventsByRestaurateurId(Long restaurateurId) {
+        return eventRepository.findViewsByRestaurantOwnerIdAndStatus(restaurateurId, "PENDING");
     }
 
-    public List<SocialEvent> getApprovedEventsByRestaurateurId(Long restaurateurId) {
-        return restaurantRepository.findByOwnerId(restaurateurId).stream()
-                .flatMap(r -> eventRepository.findByRestaurantIdAndStatus(r.getId(), "APPROVED").stream())
-                .toList();
+    @Transactional(readOnly = true)
+    public List<EventView> getApprovedEventsByRestaurateurId(Long restaurateurId) {
+        return eventRepository.findViewsByRestaurantOwnerIdAndStatus(restaurateurId, "APPROVED");
+    }
+
+    /**
+     * Dashboard del ristoratore con due query in tutto, qualunque sia il numero di locali:
+     * gli eventi in attesa e confermati di tutti i locali e i totali raggruppati per locale.
+     * I posti occupati di ogni evento arrivano già dal contatore nella riga dell'evento.
+     */
+    @Transactional(readOnly = true)
+    public RestaurateurDashboard getRestaurateurDashboard(Long restaurateurId) {
+        List<EventView> pending = new ArrayList<>();
+        List<EventView> approved = new ArrayList<>();
+        for (EventView event : eventRepository.findViewsByRestaurantOwnerIdAndStatusIn(restaurateurId, List.of("PENDING", "APPROVED"))) {
+            ("PENDING".equals(event.getStatus()) ? pending : approved).add(event);
+        }
+        return new RestaurateurDashboard(pending, approved, restaurantRepository.findTotalsByOwnerId(restaurateurId));
     }
 
 
-    public List<Participation> getParticipantsByEventId(Long eventId) {
-        return participationRepository.findByEventId(eventId);
+    @Transactional(readOnly = true)
+    public List<ParticipantView> getParticipantsByEventId(Long eventId) {
+        return participationRepository.findViewsByEventId(eventId);
     }
 
     /**
      * Permette a un utente di cancellare la propria iscrizione.
      */
+    @Transactional
     public void leaveEvent(Long userId, Long eventId) {
-        Participation toDelete = participationRepository.findByEventId(eventId).stream()
-                .filter(p -> p.getUser().getId().equals(userId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Non sei iscritto"));
-        participationRepository.delete(toDelete);
+        if (participationRepository.deleteByUserIdAndEventId(userId, eventId) == 0) {
+            throw new RuntimeException("Non sei iscritto");
+        }
+        eventRepository.releaseSeat(eventId);
+        seatsChanged(eventId, -1);
     }
 
     /**
@@ -197,6 +386,10 @@ public class EventService {
         if (!"PENDING".equals(event.getStatus())) throw new RuntimeException("Solo eventi pending possono essere ritirati");
 
         eventRepository.delete(event);
+        searchIndex.remove(eventId);
+        contentVersions.bump(ContentVersions.Resource.EVENTS);
+        platformStats.eventRemoved(event);
+        liveUpdates.publish(EventUpdate.of(EventUpdate.Type.CANCELLED, event));
     }
 
     /**
@@ -211,13 +404,54 @@ public class EventService {
         }
         participationRepository.deleteByEventId(eventId);
         eventRepository.delete(event);
+        searchIndex.remove(eventId);
+        contentVersions.bump(ContentVersions.Resource.EVENTS);
+        platformStats.eventRemoved(event);
+        liveUpdates.publish(EventUpdate.of(EventUpdate.Type.CANCELLED, event));
+    }
+
+    /**
+     * Cancellazione di un evento da parte dell'amministratore, insieme alle sue iscrizioni.
+     */
+    public void deleteEvent(Long eventId) {
+        // Letto prima di eliminarlo: serve a statistiche e stream live (ristorante, città, categoria)
+        Optional<SocialEvent> event = eventRepository.findById(eventId);
+        participationRepository.deleteByEventId(eventId);
+        eventRepository.deleteById(eventId);
+        searchIndex.remove(eventId);
+        contentVersions.bump(ContentVersions.Resource.EVENTS);
+        event.ifPresent(deleted -> {
+            platformStats.eventRemoved(deleted);
+            liveUpdates.publish(EventUpdate.of(EventUpdate.Type.CANCELLED, deleted));
+        });
     }
 
+    @Transactional(readOnly = true)
     public boolean isUserParticipating(Long userId, Long eventId) {
         return participationRepository.existsByUserIdAndEventId(userId, eventId);
     }
 
 
+    /**
+     * Posti occupati (delta > 0) o liberati: aggiorna statistiche e stream live con lo stato appena scritto.
+     * Anche la bacheca cambia (EventView.reservedSeats), quindi la sua versione avanza dopo il commit.
+     */
+    private void seatsChanged(Long eventId, int delta) {
+        contentVersions.bump(ContentVersions.Resource.EVENTS);
+        eventRepository.findLiveUpdate(eventId).ifPresent(update -> {
+            platformStats.seatsChanged(update.getRestaurantId(), update.getStatus(), delta);
+            liveUpdates.publish(update.as(EventUpdate.Type.SEATS));
+        });
+    }
+
+    /**
+     * Rilegge posti e stato dell'evento e li pubblica sullo stream live.
+     * Dentro una transazione la lettura vede già le modifiche in corso e l'invio parte dopo il commit.
+     */
+    private void publishLive(Long eventId, EventUpdate.Type type) {
+        eventRepository.findLiveUpdate(eventId).map(update -> update.as(type)).ifPresent(liveUpdates::publish);
+    }
+
     /**
      * Metodo per iscrivere automaticamente l'organizzatore all'evento
      */
@@ -231,10 +465,16 @@ public class EventService {
                 p.setUser(event.getOrganizer());
                 p.setEvent(event);
                 p.setRegistrationDate(LocalDateTime.now());
-                participationRepository.save(p);
+                // Iscrizione e contatore posti insieme, nella stessa transazione
+                transactionTemplate.executeWithoutResult(status -> {
+                    participationRepository.save(p);
+                    eventRepository.addSeat(event.getId());
+                });
+                platformStats.seatsChanged(event.getRestaurant().getId(), event.getStatus(), 1);
+                contentVersions.bump(ContentVersions.Resource.EVENTS);
             }
         } catch (Exception e) {
-            System.err.println("Errore auto-join: " + e.getMessage());
+            log.warn("Iscrizione automatica dell'organizzatore all'evento {} non riuscita", event.getId(), e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.socialpizza.backend.service;
+
+/**
+ * Il pool di hashing delle password è saturo: il client deve riprovare più tardi (503 + Retry-After).
+ */
+public class HashingBusyException extends RuntimeException {
+    public HashingBusyException() {
+        super("Server occupato, riprova tra poco");
+    }
+}
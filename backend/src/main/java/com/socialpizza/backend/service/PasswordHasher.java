@@ -0,0 +1,115 @@
+package com.socialpizza.backend.service;
+
+import com.socialpizza.backend.session.AuthProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hashing delle password (bcrypt) su un pool di thread dedicato e limitato.
+ * I thread di Tomcat non eseguono mai bcrypt: durante un'ondata di login continuano a servire
+ * la bacheca, e quando la coda è piena la richiesta viene rifiutata subito con {@link HashingBusyException}.
+ * Le password salvate in chiaro prima dell'introduzione dell'hash restano verificabili
+ * e vengono convertite al primo login riuscito.
+ */
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private AuthProperties properties;
+
+    private PasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+
+    // Hash fittizio: un'email inesistente costa quanto una password errata (niente enumerazione utenti)
+    private String dummyHash;
+
+    @PostConstruct
+    void init() {
+        AuthProperties.Hashing config = properties.getHashing();
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(config.getBcryptStrength())));
+        // Valori senza prefisso {id}: password in chiaro dei dati esistenti
+        delegating.setDefaultPasswordEncoderForMatches(new LegacyPlaintext());
+        encoder = delegating;
+
+        int threads = config.getThreads() > 0 ? config.getThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        dummyHash = encoder.encode("password-fittizia");
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Verifica la password; con stored null confronta con l'hash fittizio e restituisce sempre false.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String stored) {
+        return submit(() -> encoder.matches(rawPassword, stored != null ? stored : dummyHash) && stored != null);
+    }
+
+    /**
+     * True se la password salvata va ricalcolata (in chiaro o con parametri superati).
+     */
+    public boolean needsUpgrade(String stored) {
+        return encoder.upgradeEncoding(stored);
+    }
+
+    /**
+     * Versione sincrona, da chiamare solo da un thread del pool (es. dentro un thenApply di matches).
+     */
+    String encodeOnWorker(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new HashingBusyException());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class LegacyPlaintext implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new UnsupportedOperationException("Le nuove password vengono sempre salvate con bcrypt");
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String stored) {
+            return MessageDigest.isEqual(rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
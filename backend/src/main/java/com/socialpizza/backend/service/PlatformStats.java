@@ -0,0 +1,351 @@
+package com.socialpizza.backend.service;
+
+import com.socialpizza.backend.dto.EventStatsRow;
+import com.socialpizza.backend.dto.PlatformStatsView;
+import com.socialpizza.backend.dto.PlatformStatsView.Count;
+import com.socialpizza.backend.dto.PlatformStatsView.RestaurantRank;
+import com.socialpizza.backend.dto.RoleCount;
+import com.socialpizza.backend.entity.Category;
+import com.socialpizza.backend.entity.City;
+import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.repository.AppUserRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiche della piattaforma mantenute in memoria in modo incrementale.
+ * EventService e AppUserService aggiornano i contatori a ogni modifica, quindi la lettura
+ * non tocca mai il database: il costo dipende solo dal numero di città, categorie e locali.
+ * Le cancellazioni in blocco (ban, rimozione di un locale) e un riallineamento periodico
+ * ricalcolano tutto con due GROUP BY, correggendo eventuali scostamenti.
+ * <p>
+ * Dentro una transazione le variazioni vengono applicate solo dopo il commit: un rollback non lascia
+ * contatori sporchi. I valori (stato, posti, locale) sono letti subito, alla chiamata.
+ */
+@Component
+public class PlatformStats {
+
+    private static final int TOP_RESTAURANTS = 10;
+
+    @Autowired private SocialEventRepository eventRepository;
+    @Autowired private AppUserRepository userRepository;
+
+    // Mai sostituiti: il riallineamento vi aggiunge la differenza rispetto al database, così gli incrementi
+    // concorrenti non vanno persi (una modifica a cavallo del ricalcolo resta al più sbagliata fino al successivo)
+    private final Counters counters = new Counters();
+    private volatile Instant reconciledAt;
+
+    // Incrementato a ogni modifica: la vista in cache vale solo per la versione con cui è stata calcolata
+    private final AtomicLong version = new AtomicLong();
+    private volatile CachedView cached;
+
+    // --- Aggiornamenti da EventService ---
+
+    public void eventAdded(SocialEvent event) {
+        afterCommit(change(event, event.getStatus(), 1));
+    }
+
+    public void eventRemoved(SocialEvent event) {
+        afterCommit(change(event, event.getStatus(), -1));
+    }
+
+    /**
+     * Da chiamare prima di eventuali iscrizioni automatiche: i posti dell'evento sono quelli letti con l'entità.
+     */
+    public void statusChanged(SocialEvent event, String oldStatus) {
+        if (oldStatus != null && oldStatus.equals(event.getStatus())) {
+            return;
+        }
+        Runnable removed = change(event, oldStatus, -1);
+        Runnable added = change(event, event.getStatus(), 1);
+        afterCommit(() -> {
+            removed.run();
+            added.run();
+        });
+    }
+
+    /**
+     * Posti occupati o liberati su un evento del locale: contano solo se l'evento è confermato.
+     */
+    public void seatsChanged(Long restaurantId, String status, int delta) {
+        if (!"APPROVED".equals(status)) {
+            return;
+        }
+        afterCommit(() -> {
+            counters.approvedReserved.add(delta);
+            if (restaurantId != null) {
+                counters.byRestaurant.computeIfAbsent(restaurantId, id -> new Bucket(null)).reservedSeats.add(delta);
+            }
+            version.incrementAndGet();
+        });
+    }
+
+    // --- Aggiornamenti da AppUserService ---
+
+    public void userAdded(String role) {
+        afterCommit(() -> {
+            adder(counters.usersByRole, role).increment();
+            version.incrementAndGet();
+        });
+    }
+
+    public void roleChanged(String oldRole, String newRole) {
+        if (oldRole != null && oldRole.equals(newRole)) {
+            return;
+        }
+        afterCommit(() -> {
+            adder(counters.usersByRole, oldRole).decrement();
+            adder(counters.usersByRole, newRole).increment();
+            version.incrementAndGet();
+        });
+    }
+
+    /**
+     * Vista corrente delle statistiche, ricalcolata dai contatori solo se qualcosa è cambiato.
+     */
+    public PlatformStatsView snapshot() {
+        long current = version.get();
+        CachedView cachedView = cached;
+        if (cachedView != null && cachedView.version() == current) {
+            return cachedView.view();
+        }
+        PlatformStatsView view = buildView(counters);
+        cached = new CachedView(current, view);
+        return view;
+    }
+
+    /**
+     * Ricalcola tutti i contatori dal database: all'avvio, periodicamente e dopo le cancellazioni in blocco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval:10m}", initialDelayString = "${stats.reconcile-interval:10m}")
+    public void reconcile() {
+        Counters fresh = new Counters();
+        for (EventStatsRow row : eventRepository.findStatsRows()) {
+            YearMonth month = row.getYear() != null && row.getMonth() != null ? YearMonth.of(row.getYear(), row.getMonth()) : null;
+            Facts facts = new Facts(row.getStatus(), row.getCityId(), row.getCityName(), row.getCategoryId(),
+                    row.getCategoryName(), row.getRestaurantId(), row.getRestaurantName(), month);
+            fresh.add(facts, row.getEvents(), row.getReservedSeats(), row.getMaxParticipants());
+        }
+        for (RoleCount count : userRepository.countByRole()) {
+            if (count.getRole() != null) adder(fresh.usersByRole, count.getRole()).add(count.getUsers());
+        }
+        counters.correct(fresh);
+        reconciledAt = Instant.now();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Variazione da applicare, con le dimensioni dell'evento lette adesso (l'entità può cambiare prima del commit).
+     */
+    private Runnable change(SocialEvent event, String status, int sign) {
+        Facts facts = Facts.of(event, status);
+        long reserved = (long) sign * event.getReservedSeats();
+        long capacity = (long) sign * event.getMaxParticipants();
+        return () -> {
+            counters.add(facts, sign, reserved, capacity);
+            version.incrementAndGet();
+        };
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private PlatformStatsView buildView(Counters c) {
+        Map<String, Long> byStatus = new TreeMap<>();
+        c.byStatus.forEach((status, adder) -> byStatus.put(status, adder.sum()));
+        long totalEvents = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        long approved = byStatus.getOrDefault("APPROVED", 0L);
+        long rejected = byStatus.getOrDefault("REJECTED", 0L);
+        long decided = approved + rejected;
+
+        Map<String, Long> byMonth = new LinkedHashMap<>();
+        new TreeMap<>(c.byMonth).forEach((month, adder) -> byMonth.put(month.toString(), adder.sum()));
+
+        Map<String, Long> usersByRole = new TreeMap<>();
+        c.usersByRole.forEach((role, adder) -> usersByRole.put(role, adder.sum()));
+
+        List<RestaurantRank> topRestaurants = c.byRestaurant.entrySet().stream()
+                .map(e -> {
+                    Bucket b = e.getValue();
+                    long capacity = b.capacity.sum();
+                    return new RestaurantRank(e.getKey(), b.name, b.approvedEvents.sum(), b.reservedSeats.sum(),
+                            ratio(b.reservedSeats.sum(), capacity));
+                })
+                .sorted(Comparator.comparingLong(RestaurantRank::getReservedSeats)
+                        .thenComparingLong(RestaurantRank::getApprovedEvents).reversed())
+                .limit(TOP_RESTAURANTS)
+                .toList();
+
+        return new PlatformStatsView(totalEvents, usersByRole.values().stream().mapToLong(Long::longValue).sum(),
+                byStatus, counts(c.byCity), counts(c.byCategory), byMonth,
+                ratio(approved, decided), ratio(rejected, decided), ratio(c.approvedReserved.sum(), c.approvedCapacity.sum()),
+                topRestaurants, usersByRole, reconciledAt);
+    }
+
+    private static List<Count> counts(Map<Long, Bucket> buckets) {
+        return buckets.entrySet().stream()
+                .map(e -> new Count(e.getKey(), e.getValue().name, e.getValue().events.sum()))
+                .filter(count -> count.getEvents() > 0)
+                .sorted(Comparator.comparingLong(Count::getEvents).reversed())
+                .toList();
+    }
+
+    private static double ratio(long part, long total) {
+        return total > 0 ? (double) part / total : 0.0;
+    }
+
+    private static <K> LongAdder adder(Map<K, LongAdder> map, K key) {
+        return map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private record CachedView(long version, PlatformStatsView view) {}
+
+    /**
+     * Dimensioni di un evento rilevanti per le statistiche, con lo stato da contare.
+     */
+    private record Facts(String status, Long cityId, String cityName, Long categoryId, String categoryName,
+                         Long restaurantId, String restaurantName, YearMonth month) {
+
+        static Facts of(SocialEvent event, String status) {
+            Restaurant restaurant = event.getRestaurant();
+            City city = restaurant != null ? restaurant.getCity() : null;
+            Category category = event.getCategory();
+            return new Facts(status,
+                    city != null ? city.getId() : null, city != null ? city.getName() : null,
+                    category != null ? category.getId() : null, category != null ? category.getName() : null,
+                    restaurant != null ? restaurant.getId() : null, restaurant != null ? restaurant.getName() : null,
+                    event.getEventDate() != null ? YearMonth.from(event.getEventDate()) : null);
+        }
+    }
+
+    private static class Bucket {
+        private volatile String name;
+        private final LongAdder events = new LongAdder();
+        private final LongAdder approvedEvents = new LongAdder();
+        private final LongAdder reservedSeats = new LongAdder();
+        private final LongAdder capacity = new LongAdder();
+
+        Bucket(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class Counters {
+        private final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        private final Map<Long, Bucket> byCity = new ConcurrentHashMap<>();
+        private final Map<Long, Bucket> byCategory = new ConcurrentHashMap<>();
+        private final Map<Long, Bucket> byRestaurant = new ConcurrentHashMap<>();
+        private final Map<YearMonth, LongAdder> byMonth = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> usersByRole = new ConcurrentHashMap<>();
+        // Solo eventi confermati: base del tasso di riempimento
+        private final LongAdder approvedReserved = new LongAdder();
+        private final LongAdder approvedCapacity = new LongAdder();
+
+        /**
+         * Aggiunge (events > 0) o toglie (events < 0) eventi con le dimensioni indicate;
+         * reserved e capacity sono i posti occupati e disponibili complessivi, con lo stesso segno.
+         */
+        void add(Facts facts, long events, long reserved, long capacity) {
+            if (facts.status() != null) {
+                adder(byStatus, facts.status()).add(events);
+            }
+            if (facts.month() != null) {
+                adder(byMonth, facts.month()).add(events);
+            }
+            Bucket city = bucket(byCity, facts.cityId(), facts.cityName());
+            if (city != null) {
+                city.events.add(events);
+            }
+            Bucket category = bucket(byCategory, facts.categoryId(), facts.categoryName());
+            if (category != null) {
+                category.events.add(events);
+            }
+            // Il locale compare in classifica anche senza eventi confermati
+            Bucket restaurant = bucket(byRestaurant, facts.restaurantId(), facts.restaurantName());
+            if ("APPROVED".equals(facts.status())) {
+                approvedReserved.add(reserved);
+                approvedCapacity.add(capacity);
+                if (restaurant != null) {
+                    restaurant.approvedEvents.add(events);
+                    restaurant.reservedSeats.add(reserved);
+                    restaurant.capacity.add(capacity);
+                }
+            }
+        }
+
+        /**
+         * Porta ogni contatore al valore di expected aggiungendo la differenza; le voci che non esistono più
+         * nel database (locali, città, categorie eliminati) vengono tolte.
+         */
+        void correct(Counters expected) {
+            correctAdders(byStatus, expected.byStatus);
+            correctAdders(byMonth, expected.byMonth);
+            correctAdders(usersByRole, expected.usersByRole);
+            correctBuckets(byCity, expected.byCity);
+            correctBuckets(byCategory, expected.byCategory);
+            correctBuckets(byRestaurant, expected.byRestaurant);
+            correct(approvedReserved, expected.approvedReserved);
+            correct(approvedCapacity, expected.approvedCapacity);
+        }
+
+        private static <K> void correctAdders(Map<K, LongAdder> current, Map<K, LongAdder> expected) {
+            current.keySet().removeIf(key -> !expected.containsKey(key));
+            expected.forEach((key, value) -> correct(adder(current, key), value));
+        }
+
+        private static void correctBuckets(Map<Long, Bucket> current, Map<Long, Bucket> expected) {
+            current.keySet().removeIf(key -> !expected.containsKey(key));
+            expected.forEach((id, value) -> {
+                Bucket b = bucket(current, id, value.name);
+                correct(b.events, value.events);
+                correct(b.approvedEvents, value.approvedEvents);
+                correct(b.reservedSeats, value.reservedSeats);
+                correct(b.capacity, value.capacity);
+            });
+        }
+
+        private static void correct(LongAdder current, LongAdder expected) {
+            current.add(expected.sum() - current.sum());
+        }
+
+        private static Bucket bucket(Map<Long, Bucket> map, Long id, String name) {
+            if (id == null) {
+                return null;
+            }
+            Bucket b = map.computeIfAbsent(id, k -> new Bucket(name));
+            if (name != null) {
+                b.name = name;
+            }
+            return b;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.socialpizza.backend.session;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configurazione dell'autenticazione (prefisso "auth" in application.properties).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth")
+public class AuthProperties {
+
+    public enum Mode { SESSION, TOKEN }
+
+    // SESSION: HttpSession di Tomcat; TOKEN: cookie firmato HMAC, verificabile da qualsiasi istanza
+    private Mode mode = Mode.SESSION;
+
+    private Token token = new Token();
+
+    private Hashing hashing = new Hashing();
+
+    @Data
+    public static class Token {
+        // Durata del token; oltre questo tempo serve un nuovo login
+        private Duration ttl = Duration.ofHours(12);
+        // Chiave usata per firmare i nuovi token
+        private String activeKid;
+        // kid -> segreto in Base64: le chiavi precedenti restano per verificare i token già emessi
+        private Map<String, String> keys = new LinkedHashMap<>();
+        // Ogni quanto ogni istanza rilegge dal database le revoche fatte dalle altre
+        private Duration revocationRefresh = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Hashing {
+        // Costo bcrypt (2^strength iterazioni): 10 ≈ qualche decina di ms per hash
+        private int bcryptStrength = 10;
+        // Thread dedicati all'hashing; 0 = metà dei core disponibili
+        private int threads = 0;
+        // Richieste di login/registrazione in attesa oltre le quali si risponde 503
+        private int queueCapacity = 64;
+        // Valore dell'header Retry-After nelle risposte 503
+        private Duration retryAfter = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,39 @@
+package com.socialpizza.backend.session;
+
+import com.socialpizza.backend.entity.AppUser;
+
+import java.io.Serializable;
+
+// Istantanea immutabile dell'utente loggato, salvata in sessione al login.
+// I controller la usano al posto di rileggere l'utente dal database a ogni richiesta.
+public final class SessionPrincipal implements Serializable {
+
+    public static final String ATTRIBUTE = "principal";
+
+    private final Long id;
+    private final String email;
+    private final String role;
+    private final String name;
+    // Generazione dell'utente al momento della lettura (vedi SessionPrincipals.invalidate)
+    private final long epoch;
+
+    public SessionPrincipal(Long id, String email, String role, String name, long epoch) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.name = name;
+        this.epoch = epoch;
+    }
+
+    static SessionPrincipal of(AppUser user, long epoch) {
+        return new SessionPrincipal(user.getId(), user.getEmail(), user.getRole(), user.getName(), epoch);
+    }
+
+    public boolean hasRole(String role) { return role.equals(this.role); }
+
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getRole() { return role; }
+    public String getName() { return name; }
+    long getEpoch() { return epoch; }
+}
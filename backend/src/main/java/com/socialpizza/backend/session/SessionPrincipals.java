@@ -0,0 +1,210 @@
+package com.socialpizza.backend.session;
+
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.replica.ReadConsistency;
+import com.socialpizza.backend.repository.AppUserRepository;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Risolve l'utente della richiesta corrente, dalla sessione o dal token firmato secondo {@code auth.mode}.
+ * Il risultato viene memorizzato tra gli attributi della richiesta, quindi filtro e controller
+ * lo calcolano una volta sola e il database non viene interrogato.
+ * Quando un admin modifica o banna un utente, {@link #invalidate} fa ricaricare l'istantanea in sessione
+ * (o la scarta) e revoca i token già emessi.
+ */
+@Component
+public class SessionPrincipals {
+
+    private static final String REQUEST_MEMO = SessionPrincipals.class.getName() + ".memo";
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private AuthProperties properties;
+
+    @Autowired
+    private SignedTokens tokens;
+
+    @Autowired
+    private TokenRevocations revocations;
+
+    // In modalità token il cookie di sessione di Tomcat non viene mai creato: il nome resta libero
+    @Value("${server.servlet.session.cookie.name:SOCIAL_SESSION_COOKIE}")
+    private String cookieName;
+
+    @Value("${server.servlet.session.cookie.secure:false}")
+    private boolean secureCookie;
+
+    // userId -> generazione corrente; assente = 0 (mai modificato dall'avvio)
+    private final Map<Long, Epoch> epochs = new ConcurrentHashMap<>();
+
+    // Generazione dell'utente e istante (epoch millis) dell'ultima modifica segnalata
+    private record Epoch(long value, long changedAt) {}
+
+    // Utenti banditi: esclusi subito, anche mentre la cancellazione a cascata non ha ancora rimosso la riga.
+    // Gli id non vengono riusati, quindi le voci possono restare fino al riavvio
+    private final Set<Long> banned = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Registra l'utente appena autenticato: istantanea in sessione oppure cookie con il token firmato.
+     * Request e response sono espliciti perché il login viene registrato da LoginSessionAdvice,
+     * quando la risposta asincrona viene scritta sul thread della richiesta.
+     */
+    public SessionPrincipal login(AppUser user, HttpServletRequest request, HttpServletResponse response) {
+        SessionPrincipal principal;
+        if (properties.getMode() == AuthProperties.Mode.TOKEN) {
+            principal = SessionPrincipal.of(user, 0);
+            writeCookie(response, tokens.issue(user), properties.getToken().getTtl());
+        } else {
+            principal = SessionPrincipal.of(user, epoch(user.getId()));
+            request.getSession().setAttribute(SessionPrincipal.ATTRIBUTE, principal);
+        }
+        request.setAttribute(REQUEST_MEMO, Optional.of(principal));
+        return principal;
+    }
+
+    public void logout() {
+        ServletRequestAttributes request = currentRequest();
+        if (properties.getMode() == AuthProperties.Mode.TOKEN) {
+            writeCookie(request.getResponse(), "", Duration.ZERO);
+        } else {
+            HttpSession session = request.getRequest().getSession(false);
+            if (session != null) session.invalidate();
+        }
+        remember(Optional.empty());
+    }
+
+    /**
+     * Utente della richiesta corrente, o null se non autenticato (o non più valido).
+     */
+    @SuppressWarnings("unchecked")
+    public SessionPrincipal current() {
+        ServletRequestAttributes request = currentRequest();
+        Object memo = request.getAttribute(REQUEST_MEMO, RequestAttributes.SCOPE_REQUEST);
+        if (memo != null) return ((Optional<SessionPrincipal>) memo).orElse(null);
+
+        Optional<SessionPrincipal> principal = Optional.ofNullable(
+                properties.getMode() == AuthProperties.Mode.TOKEN
+                        ? tokens.verify(readCookie(request.getRequest()))
+                        : fromSession(request.getRequest().getSession(false)))
+                .filter(p -> !isBanned(p.getId()));
+        remember(principal);
+        return principal.orElse(null);
+    }
+
+    /**
+     * Id dell'utente già risolto per la richiesta corrente (da LoginFilter o da un login), o null.
+     * Non legge né la sessione né il database: è sicuro anche mentre si sta ottenendo una connessione.
+     */
+    @SuppressWarnings("unchecked")
+    public static Long resolvedUserId() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) return null;
+        Object memo = request.getAttribute(REQUEST_MEMO, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) return null;
+        return ((Optional<SessionPrincipal>) memo).map(SessionPrincipal::getId).orElse(null);
+    }
+
+    /**
+     * Segnala che ruolo o esistenza dell'utente sono cambiati: le sessioni aperte verranno aggiornate
+     * e i token già emessi smettono di valere (serve un nuovo login).
+     */
+    public void invalidate(Long userId) {
+        long now = System.currentTimeMillis();
+        epochs.compute(userId, (id, current) -> new Epoch(current == null ? 1 : current.value() + 1, now));
+        if (properties.getMode() == AuthProperties.Mode.TOKEN) {
+            revocations.revoke(userId);
+        }
+    }
+
+    /**
+     * Esclude l'utente bannato: le sue sessioni vengono chiuse alla prossima richiesta, i token revocati
+     * e un nuovo login viene rifiutato, anche se la riga resta nel database finché la cascata non finisce.
+     */
+    public void ban(Long userId) {
+        banned.add(userId);
+        invalidate(userId);
+    }
+
+    public boolean isBanned(Long userId) {
+        return banned.contains(userId);
+    }
+
+    private SessionPrincipal fromSession(HttpSession session) {
+        if (session == null) return null;
+        SessionPrincipal principal = (SessionPrincipal) session.getAttribute(SessionPrincipal.ATTRIBUTE);
+        if (principal == null) return null;
+        if (isBanned(principal.getId())) {
+            session.invalidate();
+            return null;
+        }
+
+        long epoch = epoch(principal.getId());
+        if (epoch == principal.getEpoch()) return principal;
+
+        // Istantanea superata: una sola lettura dal database, poi torna valida fino al prossimo invalidate.
+        // La lettura deve già contenere la modifica: una replica rimasta indietro salverebbe in sessione
+        // il ruolo vecchio (o un utente bannato) con la generazione nuova
+        Epoch current = epochs.get(principal.getId());
+        AppUser user = ReadConsistency.notBefore(current != null ? current.changedAt() : 0L,
+                () -> userRepository.findById(principal.getId())).orElse(null);
+        if (user == null) {
+            session.invalidate();
+            return null;
+        }
+        SessionPrincipal fresh = SessionPrincipal.of(user, epoch);
+        session.setAttribute(SessionPrincipal.ATTRIBUTE, fresh);
+        return fresh;
+    }
+
+    private String readCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) return cookie.getValue();
+        }
+        return null;
+    }
+
+    private void writeCookie(HttpServletResponse response, String value, Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(cookieName, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .path("/")
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private long epoch(Long userId) {
+        Epoch current = epochs.get(userId);
+        return current != null ? current.value() : 0;
+    }
+
+    private void remember(Optional<SessionPrincipal> principal) {
+        currentRequest().setAttribute(REQUEST_MEMO, principal, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        return (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+    }
+}
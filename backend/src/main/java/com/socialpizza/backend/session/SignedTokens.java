@@ -0,0 +1,139 @@
+package com.socialpizza.backend.session;
+
+import com.socialpizza.backend.entity.AppUser;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Token di autenticazione firmati HMAC-SHA256, nel formato {@code kid.payload.firma} (Base64url).
+ * Il payload contiene id, ruolo, emissione, scadenza, email e nome: qualsiasi istanza con le stesse
+ * chiavi lo verifica senza stato condiviso. Il kid permette di ruotare le chiavi: i nuovi token
+ * usano {@code auth.token.active-kid}, quelli emessi con le chiavi precedenti restano validi
+ * finché la chiave è configurata.
+ */
+@Component
+public class SignedTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_KEY_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Autowired
+    private AuthProperties properties;
+
+    @Autowired
+    private TokenRevocations revocations;
+
+    private final Map<String, SecretKeySpec> keys = new HashMap<>();
+
+    // Mac non è thread-safe: pool di istanze per chiave, riusate tra le richieste.
+    // Non un ThreadLocal: con i virtual thread ogni richiesta ne creerebbe una nuova.
+    private final Map<String, Queue<Mac>> macs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void loadKeys() {
+        properties.getToken().getKeys().forEach((kid, secret) -> {
+            // Chiave lasciata vuota (variabile d'ambiente non impostata): non configurata
+            if (secret == null || secret.isBlank()) {
+                return;
+            }
+            byte[] bytes = Base64.getDecoder().decode(secret);
+            if (bytes.length < MIN_KEY_BYTES) {
+                throw new IllegalStateException("Chiave auth.token.keys." + kid + " troppo corta (min " + MIN_KEY_BYTES + " byte)");
+            }
+            keys.put(kid, new SecretKeySpec(bytes, ALGORITHM));
+        });
+        if (properties.getMode() == AuthProperties.Mode.TOKEN && !keys.containsKey(properties.getToken().getActiveKid())) {
+            throw new IllegalStateException("auth.mode=token richiede la chiave auth.token.keys."
+                    + properties.getToken().getActiveKid() + " (variabile AUTH_TOKEN_KEY_K1 o equivalente)");
+        }
+    }
+
+    public String issue(AppUser user) {
+        long now = System.currentTimeMillis();
+        long expires = now + properties.getToken().getTtl().toMillis();
+        // Il nome va per ultimo: è l'unico campo che può contenere qualsiasi carattere
+        String payload = user.getId() + "\n" + user.getRole() + "\n" + now + "\n" + expires + "\n"
+                + user.getEmail() + "\n" + user.getName();
+
+        String kid = properties.getToken().getActiveKid();
+        String signed = kid + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + ENCODER.encodeToString(sign(kid, signed.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Restituisce l'utente del token, o null se la firma non è valida, il token è scaduto o revocato.
+     */
+    public SessionPrincipal verify(String token) {
+        if (token == null) return null;
+        int kidEnd = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', kidEnd + 1);
+        if (kidEnd <= 0 || payloadEnd < 0) return null;
+
+        try {
+            byte[] expected = sign(token.substring(0, kidEnd), token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII));
+            if (expected == null) return null;
+            if (!MessageDigest.isEqual(expected, DECODER.decode(token.substring(payloadEnd + 1)))) return null;
+
+            String payload = new String(DECODER.decode(token.substring(kidEnd + 1, payloadEnd)), StandardCharsets.UTF_8);
+            int roleStart = payload.indexOf('\n') + 1;
+            int issuedStart = payload.indexOf('\n', roleStart) + 1;
+            int expiresStart = payload.indexOf('\n', issuedStart) + 1;
+            int emailStart = payload.indexOf('\n', expiresStart) + 1;
+            int nameStart = payload.indexOf('\n', emailStart) + 1;
+
+            long expires = Long.parseLong(payload, expiresStart, emailStart - 1, 10);
+            if (expires < System.currentTimeMillis()) return null;
+
+            long userId = Long.parseLong(payload, 0, roleStart - 1, 10);
+            long issuedAt = Long.parseLong(payload, issuedStart, expiresStart - 1, 10);
+            if (revocations.isRevoked(userId, issuedAt)) return null;
+
+            return new SessionPrincipal(userId,
+                    payload.substring(emailStart, nameStart - 1),
+                    payload.substring(roleStart, issuedStart - 1),
+                    payload.substring(nameStart),
+                    0);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // Token troncato o manomesso
+            return null;
+        }
+    }
+
+    // Firma con la chiave indicata; null se il kid non è (più) configurato
+    private byte[] sign(String kid, byte[] data) {
+        SecretKeySpec key = keys.get(kid);
+        if (key == null) return null;
+
+        Queue<Mac> pool = macs.computeIfAbsent(kid, k -> new ConcurrentLinkedQueue<>());
+        Mac mac = pool.poll();
+        if (mac == null) {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC non disponibile", e);
+            }
+        }
+        try {
+            return mac.doFinal(data);
+        } finally {
+            pool.offer(mac);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.socialpizza.backend.session;
+
+import com.socialpizza.backend.entity.AuthRevocation;
+import com.socialpizza.backend.repository.AuthRevocationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista di revoca dei token firmati: per ogni utente l'istante prima del quale i suoi token non valgono più.
+ * La verifica legge solo la mappa in memoria; il database serve a propagare le revoche
+ * alle altre istanze, che lo rileggono ogni {@code auth.token.revocation-refresh}.
+ */
+@Component
+public class TokenRevocations {
+
+    @Autowired
+    private AuthRevocationRepository repository;
+
+    @Autowired
+    private AuthProperties properties;
+
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    // Istante (DB) dell'ultima revoca già letta, per rileggere solo le nuove
+    private volatile long lastSeen;
+
+    public void revoke(Long userId) {
+        long now = System.currentTimeMillis();
+        revokedBefore.merge(userId, now, Math::max);
+        repository.save(new AuthRevocation(userId, now));
+    }
+
+    public boolean isRevoked(long userId, long issuedAt) {
+        Long revokedAt = revokedBefore.get(userId);
+        return revokedAt != null && issuedAt <= revokedAt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.token.revocation-refresh:30s}", initialDelayString = "${auth.token.revocation-refresh:30s}")
+    public void refresh() {
+        long expired = System.currentTimeMillis() - properties.getToken().getTtl().toMillis();
+
+        for (AuthRevocation revocation : repository.findByRevokedAtGreaterThan(Math.max(lastSeen, expired) - 1)) {
+            revokedBefore.merge(revocation.getUserId(), revocation.getRevokedAt(), Math::max);
+            lastSeen = Math.max(lastSeen, revocation.getRevokedAt());
+        }
+
+        // Dopo la durata di un token la revoca non serve più: tutti i token precedenti sono scaduti
+        revokedBefore.values().removeIf(revokedAt -> revokedAt < expired);
+        repository.deleteOlderThan(expired);
+    }
+}
@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Passaggio da colonne IDENTITY a sequenze con incremento 50 (ottimizzatore pooled di Hibernate).
+ * Ogni sequenza parte dopo l'id massimo già presente, quindi serve una migrazione Java:
+ * in SQL il valore iniziale di CREATE SEQUENCE non può essere calcolato.
+ */
+public class V4__sequenze_id extends BaseJavaMigration {
+
+    // Deve coincidere con allocationSize delle @SequenceGenerator sulle entità
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String[] TABLES = {
+            "app_user", "category", "city", "restaurant", "social_event", "participation"
+    };
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long maxId;
+                try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                    rs.next();
+                    maxId = rs.getLong(1);
+                }
+                // Il pooled optimizer usa il valore letto come estremo superiore del blocco:
+                // il primo blocco va da maxId + 1 a maxId + ALLOCATION_SIZE
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + (maxId + ALLOCATION_SIZE)
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+            }
+        }
+    }
+}
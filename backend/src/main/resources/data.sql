@@ -43,12 +43,13 @@ INSERT INTO restaurant (id, name, address, max_capacity, city_id, owner_id)
 VALUES (2, 'Pizzeria da Walter', 'via bossetti 22', 35, 2, 2);
 
 -- --- NUOVO EVENTO PRE-APPROVATO ---
-INSERT INTO social_event (id, title, event_date, max_participants, status, organizer_id, restaurant_id, category_id, description, moderator_comment, decision_date)
+INSERT INTO social_event (id, title, event_date, max_participants, reserved_seats, status, organizer_id, restaurant_id, category_id, description, moderator_comment, decision_date)
 VALUES (
     1,
     'Pizza Champions League',
     '2025-05-20 20:45:00',
     15,
+    1, -- iscrizione di Mario qui sotto
     'APPROVED',
     5, -- Mario
     2, -- Pizzeria da Walter
@@ -61,10 +62,10 @@ VALUES (
 INSERT INTO participation (id, user_id, event_id, registration_date)
 VALUES (1, 5, 1, CURRENT_TIMESTAMP);
 
--- Reset Contatori
-ALTER TABLE app_user ALTER COLUMN id RESTART WITH 6;
-ALTER TABLE city ALTER COLUMN id RESTART WITH 3;
-ALTER TABLE category ALTER COLUMN id RESTART WITH 5;
-ALTER TABLE restaurant ALTER COLUMN id RESTART WITH 3;
-ALTER TABLE social_event ALTER COLUMN id RESTART WITH 2;
-ALTER TABLE participation ALTER COLUMN id RESTART WITH 2;
\ No newline at end of file
+-- Reset Contatori (sequenze con incremento 50: il primo blocco parte dall'id successivo all'ultimo inserito)
+ALTER SEQUENCE app_user_seq RESTART WITH 55;
+ALTER SEQUENCE city_seq RESTART WITH 52;
+ALTER SEQUENCE category_seq RESTART WITH 54;
+ALTER SEQUENCE restaurant_seq RESTART WITH 52;
+ALTER SEQUENCE social_event_seq RESTART WITH 51;
+ALTER SEQUENCE participation_seq RESTART WITH 51;
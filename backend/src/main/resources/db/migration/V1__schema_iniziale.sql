@@ -0,0 +1,72 @@
+-- Schema iniziale generato da Hibernate (versione di baseline).
+-- Sui database esistenti viene saltato grazie a spring.flyway.baseline-on-migrate,
+-- sui database nuovi (es. H2 in memoria per i test) crea le tabelle da zero.
+
+CREATE TABLE app_user (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    bio CHARACTER VARYING,
+    email CHARACTER VARYING(255) NOT NULL,
+    name CHARACTER VARYING(255),
+    password CHARACTER VARYING(255) NOT NULL,
+    role CHARACTER VARYING(255),
+    surname CHARACTER VARYING(255),
+    PRIMARY KEY (id),
+    UNIQUE (email)
+);
+
+CREATE TABLE category (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    description CHARACTER VARYING(255),
+    name CHARACTER VARYING(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE city (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    cap CHARACTER VARYING(255),
+    name CHARACTER VARYING(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE restaurant (
+    max_capacity INTEGER NOT NULL,
+    city_id BIGINT,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    owner_id BIGINT,
+    address CHARACTER VARYING(255),
+    name CHARACTER VARYING(255),
+    PRIMARY KEY (id),
+    UNIQUE (owner_id),
+    FOREIGN KEY (city_id) REFERENCES city (id),
+    FOREIGN KEY (owner_id) REFERENCES app_user (id)
+);
+
+CREATE TABLE social_event (
+    max_participants INTEGER NOT NULL,
+    category_id BIGINT,
+    decision_date TIMESTAMP(6),
+    event_date TIMESTAMP(6),
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    organizer_id BIGINT,
+    restaurant_id BIGINT,
+    moderator_comment CHARACTER VARYING(300),
+    description CHARACTER VARYING(500),
+    rejection_reason CHARACTER VARYING(1000),
+    status CHARACTER VARYING(255),
+    title CHARACTER VARYING(255),
+    PRIMARY KEY (id),
+    FOREIGN KEY (category_id) REFERENCES category (id),
+    FOREIGN KEY (organizer_id) REFERENCES app_user (id),
+    FOREIGN KEY (restaurant_id) REFERENCES restaurant (id)
+);
+
+CREATE TABLE participation (
+    event_id BIGINT,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    registration_date TIMESTAMP(6),
+    user_id BIGINT,
+    PRIMARY KEY (id),
+    UNIQUE (user_id, event_id),
+    FOREIGN KEY (event_id) REFERENCES social_event (id),
+    FOREIGN KEY (user_id) REFERENCES app_user (id)
+);
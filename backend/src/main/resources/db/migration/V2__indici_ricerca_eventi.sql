@@ -0,0 +1,7 @@
+-- Indici compositi per /api/events/search.
+-- L'ordinamento (event_date, id) coincide con la chiave del cursore, quindi ogni pagina
+-- e' una lettura sequenziale dell'indice a partire dall'ultima posizione restituita.
+
+CREATE INDEX idx_event_status_date ON social_event (status, event_date, id);
+CREATE INDEX idx_event_category_status_date ON social_event (category_id, status, event_date, id);
+CREATE INDEX idx_event_restaurant_status_date ON social_event (restaurant_id, status, event_date, id);
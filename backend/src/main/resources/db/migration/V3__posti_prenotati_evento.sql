@@ -0,0 +1,7 @@
+-- Contatore dei posti occupati, aggiornato con un decremento condizionale atomico in joinEvent.
+-- Viene inizializzato dalle iscrizioni già presenti.
+
+ALTER TABLE social_event ADD COLUMN reserved_seats INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE social_event e
+SET reserved_seats = (SELECT COUNT(*) FROM participation p WHERE p.event_id = e.id);
@@ -0,0 +1,8 @@
+-- Revoche dei token firmati (modalità auth.mode=token): un utente bannato o con ruolo modificato
+-- deve rifare il login. Ogni istanza rilegge periodicamente questa tabella.
+
+CREATE TABLE auth_revocation (
+    user_id BIGINT NOT NULL,
+    revoked_at BIGINT NOT NULL,
+    PRIMARY KEY (user_id)
+);
@@ -0,0 +1,10 @@
+-- Battito scritto periodicamente dal primario: sulle repliche indica fino a quando sono aggiornate
+-- (ritardo di replica e read-your-writes, vedi ReplicationMonitor). Una sola riga.
+
+CREATE TABLE replication_heartbeat (
+    id INTEGER NOT NULL,
+    beat_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP);
@@ -0,0 +1,20 @@
+-- Indici espliciti per le query dei repository che non sono già coperte da V2 o dai vincoli UNIQUE.
+-- Gli indici creati da H2 per le chiavi esterne hanno nomi generati e una sola colonna:
+-- qui le stesse colonne sono la testa di indici composti con un nome stabile, verificati da QueryPlanTest.
+--
+-- Già coperte:
+--   social_event per stato (e stati IN)         -> idx_event_status_date
+--   social_event per locale (e locale + stato)  -> idx_event_restaurant_status_date
+--   social_event per categoria                  -> idx_event_category_status_date
+--   participation per utente (e utente + evento) -> UNIQUE (user_id, event_id)
+--   app_user per email                          -> UNIQUE (email)
+--   restaurant per proprietario                 -> UNIQUE (owner_id)
+
+-- Eventi dell'organizzatore; (organizer_id, id) restituisce già ordinati i blocchi del ban
+CREATE INDEX idx_event_organizer ON social_event (organizer_id, id);
+
+-- Iscritti di un evento: conteggio e verifica degli utenti già iscritti senza leggere la tabella
+CREATE INDEX idx_participation_event_user ON participation (event_id, user_id);
+
+-- Conteggio per ruolo del riallineamento statistiche: scansione del solo indice
+CREATE INDEX idx_user_role ON app_user (role);
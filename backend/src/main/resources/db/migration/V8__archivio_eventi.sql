@@ -0,0 +1,49 @@
+-- Archivio degli eventi conclusi (vedi EventArchiveService): gli eventi passati e le loro iscrizioni
+-- lasciano social_event e participation, che contengono così solo eventi futuri.
+-- Nomi di categoria, locale, città e organizzatore sono copiati al momento dell'archiviazione:
+-- lo storico resta leggibile senza join e anche dopo la cancellazione del locale.
+-- Nessuna chiave esterna verso le tabelle attive; gli id sono quelli originali.
+
+CREATE TABLE archived_event (
+    id BIGINT NOT NULL,
+    title CHARACTER VARYING(255),
+    description CHARACTER VARYING(500),
+    event_date TIMESTAMP(6),
+    max_participants INTEGER NOT NULL,
+    reserved_seats INTEGER NOT NULL,
+    status CHARACTER VARYING(255),
+    moderator_comment CHARACTER VARYING(300),
+    rejection_reason CHARACTER VARYING(1000),
+    decision_date TIMESTAMP(6),
+    category_id BIGINT,
+    category_name CHARACTER VARYING(255),
+    restaurant_id BIGINT,
+    restaurant_name CHARACTER VARYING(255),
+    restaurant_address CHARACTER VARYING(255),
+    city_id BIGINT,
+    city_name CHARACTER VARYING(255),
+    organizer_id BIGINT,
+    organizer_name CHARACTER VARYING(255),
+    archived_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE archived_participation (
+    id BIGINT NOT NULL,
+    event_id BIGINT NOT NULL,
+    user_id BIGINT,
+    registration_date TIMESTAMP(6),
+    PRIMARY KEY (id),
+    FOREIGN KEY (event_id) REFERENCES archived_event (id)
+);
+
+-- Storico per organizzatore e per locale, dal più recente
+CREATE INDEX idx_archived_event_organizer ON archived_event (organizer_id, event_date DESC, id DESC);
+CREATE INDEX idx_archived_event_restaurant ON archived_event (restaurant_id, event_date DESC, id DESC);
+
+-- Eventi passati a cui l'utente era iscritto; iscritti di un evento archiviato
+CREATE INDEX idx_archived_participation_user ON archived_participation (user_id, event_id);
+CREATE INDEX idx_archived_participation_event ON archived_participation (event_id, user_id);
+
+-- Ricerca dei prossimi eventi da archiviare, dal più vecchio
+CREATE INDEX idx_event_date ON social_event (event_date, id);
@@ -0,0 +1,73 @@
+package com.socialpizza.backend;
+
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.repository.ParticipationRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import com.socialpizza.backend.service.EventService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip JDBC di N iscrizioni una alla volta contro la stessa quantità inserita in blocco.
+ * Eseguito solo con il profilo Maven "benchmarks".
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class BulkWriteBenchmarkTest {
+
+    private static final int PARTICIPANTS = 500;
+
+    @Autowired private EventService eventService;
+    @Autowired private TestFixtures fixtures;
+    @Autowired private SocialEventRepository eventRepository;
+    @Autowired private ParticipationRepository participationRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkJoinNeedsAnOrderOfMagnitudeFewerRoundTrips() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        AppUser owner = fixtures.user("bench-owner-" + System.nanoTime(), "RISTORATORE");
+        Restaurant restaurant = fixtures.restaurant(owner, PARTICIPANTS);
+        Long singleEventId = fixtures.approvedEvent(owner, restaurant, PARTICIPANTS).getId();
+        Long bulkEventId = fixtures.approvedEvent(owner, restaurant, PARTICIPANTS).getId();
+        List<Long> userIds = fixtures.users("bench-" + System.nanoTime(), PARTICIPANTS).stream()
+                .map(AppUser::getId).toList();
+
+        stats.clear();
+        long start = System.nanoTime();
+        for (Long userId : userIds) {
+            eventService.joinEvent(userId, singleEventId);
+        }
+        long singleMillis = (System.nanoTime() - start) / 1_000_000;
+        long singleStatements = stats.getPrepareStatementCount();
+
+        stats.clear();
+        start = System.nanoTime();
+        int inserted = eventService.bulkJoinEvent(bulkEventId, userIds);
+        long bulkMillis = (System.nanoTime() - start) / 1_000_000;
+        long bulkStatements = stats.getPrepareStatementCount();
+
+        System.out.printf("%d iscrizioni singole: %d statement, %d ms%n", PARTICIPANTS, singleStatements, singleMillis);
+        System.out.printf("%d iscrizioni in blocco: %d statement, %d ms%n", PARTICIPANTS, bulkStatements, bulkMillis);
+
+        assertEquals(PARTICIPANTS, inserted);
+        assertEquals(PARTICIPANTS, participationRepository.countByEventId(bulkEventId));
+        assertEquals(PARTICIPANTS, eventRepository.findById(bulkEventId).orElseThrow().getReservedSeats());
+        assertTrue(bulkStatements * 10 <= singleStatements,
+                "round trip in blocco " + bulkStatements + " contro " + singleStatements);
+    }
+}
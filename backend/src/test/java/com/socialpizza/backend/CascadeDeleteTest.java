@@ -0,0 +1,107 @@
+package com.socialpizza.backend;
+
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.repository.AppUserRepository;
+import com.socialpizza.backend.repository.ParticipationRepository;
+import com.socialpizza.backend.repository.RestaurantRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import com.socialpizza.backend.service.AdminJob;
+import com.socialpizza.backend.service.AppUserService;
+import com.socialpizza.backend.service.EventService;
+import com.socialpizza.backend.session.SessionPrincipal;
+import com.socialpizza.backend.session.SessionPrincipals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ban di un utente: esclusione immediata dalla sessione e cancellazione a cascata di eventi organizzati,
+ * locali con gli eventi ospitati e iscrizioni, lasciando intatti gli eventi degli altri.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CascadeDeleteTest {
+
+    @Autowired private TestFixtures fixtures;
+    @Autowired private AppUserService userService;
+    @Autowired private EventService eventService;
+    @Autowired private SessionPrincipals principals;
+    @Autowired private AppUserRepository userRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private SocialEventRepository eventRepository;
+    @Autowired private ParticipationRepository participationRepository;
+
+    @Test
+    void banRemovesEverythingOwnedByTheUserAndReleasesTheirSeats() throws InterruptedException {
+        String name = "bannato-" + System.nanoTime();
+        AppUser admin = fixtures.user("admin-" + name, "ADMIN");
+        AppUser banned = fixtures.user(name, "RISTORATORE");
+        AppUser guest = fixtures.user("ospite-" + name, "UTENTE");
+
+        // Evento organizzato dal bannato in un locale altrui, evento altrui nel locale del bannato
+        SocialEvent elsewhere = fixtures.approvedEvent("altro-" + name, 10);
+        SocialEvent organized = fixtures.approvedEvent(banned, elsewhere.getRestaurant(), 10);
+        Restaurant owned = fixtures.restaurant(banned, 10);
+        SocialEvent hosted = fixtures.approvedEvent(guest, owned, 10);
+        eventService.joinEvent(guest.getId(), organized.getId());
+        eventService.joinEvent(guest.getId(), hosted.getId());
+        eventService.joinEvent(banned.getId(), elsewhere.getId());
+
+        MockHttpSession session = new MockHttpSession();
+        inRequest(session, (request, response) -> principals.login(banned, request, response));
+        assertNotNull(inRequest(session, (request, response) -> principals.current()));
+
+        AdminJob job = userService.banUser(banned.getId(), admin.getId());
+        // Escluso prima che la cascata finisca, non solo al termine del job
+        assertNull(inRequest(session, (request, response) -> principals.current()), "l'utente bannato è disconnesso");
+        assertTrue(principals.isBanned(banned.getId()));
+
+        while (job.getStatus() != AdminJob.Status.COMPLETED) {
+            assertNull(job.getError(), "la cascata non deve fallire");
+            Thread.sleep(10);
+        }
+
+        assertFalse(userRepository.existsById(banned.getId()));
+        assertFalse(restaurantRepository.existsById(owned.getId()));
+        assertFalse(eventRepository.existsById(organized.getId()));
+        assertFalse(eventRepository.existsById(hosted.getId()));
+        assertTrue(participationRepository.findByUserId(banned.getId()).isEmpty());
+        assertTrue(participationRepository.findByUserId(guest.getId()).isEmpty());
+        assertEquals(2, job.getDeletedEvents());
+        assertEquals(3, job.getDeletedParticipations());
+
+        // L'evento altrui resta, con il posto del bannato di nuovo libero
+        SocialEvent survivor = eventRepository.findById(elsewhere.getId()).orElseThrow();
+        assertEquals(0, survivor.getReservedSeats());
+        assertEquals(0, participationRepository.countByEventId(survivor.getId()));
+    }
+
+    private SessionPrincipal inRequest(MockHttpSession session,
+                                       BiFunction<MockHttpServletRequest, MockHttpServletResponse, SessionPrincipal> action) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            return action.apply(request, response);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
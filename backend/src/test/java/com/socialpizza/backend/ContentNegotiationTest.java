@@ -0,0 +1,98 @@
+package com.socialpizza.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bacheca in JSON e in CBOR negoziata con Accept, ETag distinti per codifica e compressione gzip.
+ * Soglia di compressione abbassata a 1 byte: la bacheca del database di test è quasi vuota.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.compression.min-response-size=1B")
+@ActiveProfiles("test")
+class ContentNegotiationTest {
+
+    private static final String CBOR = "application/cbor";
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+
+    @BeforeEach
+    void login() throws Exception {
+        String email = "cbor-" + System.nanoTime() + "@test.it";
+        client.send(post("/api/auth/register", "{\"name\":\"Cbor\",\"surname\":\"Test\",\"email\":\"" + email
+                + "\",\"password\":\"password123\"}"), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<Void> login = client.send(post("/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"password123\"}"), HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, login.statusCode());
+    }
+
+    @Test
+    void publicEventsNegotiateCbor() throws Exception {
+        HttpResponse<byte[]> cbor = client.send(get("/api/events/public", CBOR), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, cbor.statusCode());
+        assertTrue(cbor.headers().firstValue("Content-Type").orElse("").startsWith(CBOR));
+        JsonNode events = new CBORMapper().readTree(cbor.body());
+        assertTrue(events.isArray());
+
+        HttpResponse<byte[]> json = client.send(get("/api/events/public", "application/json"),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertTrue(json.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+        assertNotEquals(json.headers().firstValue("ETag").orElseThrow(), cbor.headers().firstValue("ETag").orElseThrow(),
+                "JSON e CBOR sono rappresentazioni diverse della stessa versione");
+        assertTrue(cbor.headers().allValues("Vary").stream().anyMatch(vary -> vary.contains("Accept")));
+    }
+
+    @Test
+    void acceptHeadersNegotiatingJsonShareTheEtag() throws Exception {
+        HttpResponse<Void> plain = client.send(get("/api/events/public", "application/json"),
+                HttpResponse.BodyHandlers.discarding());
+        // Header predefinito di axios, usato dal frontend
+        HttpResponse<Void> axios = client.send(get("/api/events/public", "application/json, text/plain, */*"),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals(plain.headers().firstValue("ETag").orElseThrow(), axios.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void responsesAreCompressedWhenClientAcceptsGzip() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/events/public"))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET().build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+    }
+
+    private HttpRequest get(String path, String accept) {
+        return HttpRequest.newBuilder(uri(path)).header("Accept", accept).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,58 @@
+package com.socialpizza.backend;
+
+import com.socialpizza.backend.cache.EntityCacheMonitor;
+import com.socialpizza.backend.dto.CacheRegionStats;
+import com.socialpizza.backend.entity.City;
+import com.socialpizza.backend.repository.CityRepository;
+import org.hibernate.cache.spi.RegionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache di secondo livello: la seconda lettura di un'entità e di una lista in cache non va al database,
+ * e una scrittura tramite JPA invalida il risultato della query.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheTest {
+
+    @Autowired private CityRepository cityRepository;
+    @Autowired private TestFixtures fixtures;
+    @Autowired private EntityCacheMonitor monitor;
+
+    @Test
+    void entityIsServedFromCacheAfterFirstLoad() {
+        City city = fixtures.city("Cache " + System.nanoTime());
+        monitor.evictAll();
+
+        long hits = region("city").getHits();
+        cityRepository.findById(city.getId()).orElseThrow();
+        cityRepository.findById(city.getId()).orElseThrow();
+
+        assertTrue(region("city").getHits() > hits, "la seconda lettura deve arrivare dalla cache");
+    }
+
+    @Test
+    void cachedListIsInvalidatedByWrites() {
+        String queries = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+        int before = cityRepository.findAll().size();
+        long hits = region(queries).getHits();
+        assertEquals(before, cityRepository.findAll().size());
+        assertTrue(region(queries).getHits() > hits, "la lista ripetuta deve arrivare dalla cache delle query");
+
+        fixtures.city("Nuova " + System.nanoTime());
+        assertEquals(before + 1, cityRepository.findAll().size(), "dopo una scrittura la lista va riletta");
+    }
+
+    private CacheRegionStats region(String name) {
+        return monitor.snapshot().stream()
+                .filter(region -> region.getRegion().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,180 @@
+package com.socialpizza.backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialpizza.backend.dto.PlatformStatsView;
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.entity.ArchivedEvent;
+import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.repository.AppUserRepository;
+import com.socialpizza.backend.repository.ArchivedEventRepository;
+import com.socialpizza.backend.repository.ArchivedParticipationRepository;
+import com.socialpizza.backend.repository.ParticipationRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import com.socialpizza.backend.service.AdminJob;
+import com.socialpizza.backend.service.EventArchiveService;
+import com.socialpizza.backend.service.EventService;
+import com.socialpizza.backend.service.PlatformStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Archiviazione degli eventi conclusi: spostamento con le iscrizioni, eventi futuri e appena passati
+ * intatti, statistiche riallineate e storico paginato da /api/events/archive/*.
+ * Database proprio, perché il passaggio archivia ogni evento concluso e non solo quelli del test;
+ * blocchi da 2 eventi, così lo spostamento richiede più transazioni.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive-test;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "archive.batch-size=2",
+        "archive.pause=0ms"
+})
+@ActiveProfiles("test")
+class EventArchiveTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired private TestFixtures fixtures;
+    @Autowired private EventArchiveService archiveService;
+    @Autowired private EventService eventService;
+    @Autowired private PlatformStats platformStats;
+    @Autowired private AppUserRepository userRepository;
+    @Autowired private SocialEventRepository eventRepository;
+    @Autowired private ParticipationRepository participationRepository;
+    @Autowired private ArchivedEventRepository archivedEventRepository;
+    @Autowired private ArchivedParticipationRepository archivedParticipationRepository;
+
+    private final HttpClient client = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private AppUser user;
+
+    @BeforeEach
+    void login() throws Exception {
+        String email = "archivio-" + System.nanoTime() + "@test.it";
+        client.send(post("/api/auth/register", "{\"name\":\"Archivio\",\"surname\":\"Test\",\"email\":\"" + email
+                + "\",\"password\":\"password123\"}"), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<Void> login = client.send(post("/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"password123\"}"), HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, login.statusCode());
+        user = userRepository.findByEmail(email).orElseThrow();
+    }
+
+    @Test
+    void pastEventsMoveToTheArchiveWithTheirParticipations() throws Exception {
+        AppUser owner = fixtures.user("archivio-locale-" + System.nanoTime(), "RISTORATORE");
+        AppUser guest = fixtures.user("archivio-ospite-" + System.nanoTime(), "UTENTE");
+        Restaurant restaurant = fixtures.restaurant(owner, 20);
+
+        // Tre eventi conclusi (dal più vecchio), uno finito da poche ore e uno futuro
+        SocialEvent oldest = pastEvent(restaurant, guest, LocalDateTime.now().minusDays(10));
+        SocialEvent middle = pastEvent(restaurant, guest, LocalDateTime.now().minusDays(5));
+        SocialEvent newest = pastEvent(restaurant, null, LocalDateTime.now().minusDays(3));
+        SocialEvent recent = pastEvent(restaurant, guest, LocalDateTime.now().minusHours(12));
+        SocialEvent future = fixtures.approvedEvent(user, restaurant, 5);
+        eventService.joinEvent(guest.getId(), future.getId());
+        platformStats.reconcile();
+        PlatformStatsView before = platformStats.snapshot();
+
+        AdminJob job = archiveService.start();
+        while (job.getStatus() != AdminJob.Status.COMPLETED) {
+            assertNull(job.getError(), "l'archiviazione non deve fallire");
+            Thread.sleep(10);
+        }
+
+        assertEquals(3, job.getDeletedEvents());
+        // Tre eventi con l'iscrizione dell'organizzatore, due anche con quella dell'ospite
+        assertEquals(5, job.getDeletedParticipations());
+        for (SocialEvent archived : List.of(oldest, middle, newest)) {
+            assertFalse(eventRepository.existsById(archived.getId()));
+            assertEquals(0, participationRepository.countByEventId(archived.getId()));
+        }
+        ArchivedEvent archivedMiddle = archivedEventRepository.findById(middle.getId()).orElseThrow();
+        assertEquals(2, archivedMiddle.getReservedSeats(), "i posti prenotati restano quelli al momento dello spostamento");
+        assertEquals(restaurant.getName(), archivedMiddle.getRestaurantName());
+        assertEquals(2, archivedParticipationRepository.findAll().stream()
+                .filter(p -> p.getEventId().equals(middle.getId())).count());
+
+        // Entro il periodo di tolleranza e futuri: intatti, con posti e iscrizioni
+        assertEquals(2, eventRepository.findById(recent.getId()).orElseThrow().getReservedSeats());
+        assertEquals(1, eventRepository.findById(future.getId()).orElseThrow().getReservedSeats());
+        assertEquals(1, participationRepository.countByEventId(future.getId()));
+        assertFalse(archivedEventRepository.existsById(recent.getId()));
+
+        // Statistiche riallineate sulle sole tabelle attive
+        PlatformStatsView after = platformStats.snapshot();
+        assertEquals(before.getTotalEvents() - 3, after.getTotalEvents());
+        assertEquals(before.getEventsByStatus().get("APPROVED") - 3, after.getEventsByStatus().get("APPROVED"));
+        platformStats.reconcile();
+        assertEquals(after.getEventsByStatus(), platformStats.snapshot().getEventsByStatus());
+
+        // Storico dal più recente, a pagine
+        assertEquals(List.of(newest.getId(), middle.getId()), ids("/api/events/archive/created?page=0&size=2"));
+        assertEquals(List.of(oldest.getId()), ids("/api/events/archive/created?page=1&size=2"));
+        assertEquals(List.of(), ids("/api/events/archive/created?page=2&size=2"));
+        assertEquals(List.of(newest.getId(), middle.getId(), oldest.getId()),
+                ids("/api/events/archive/restaurant/" + restaurant.getId()));
+        assertEquals(List.of(newest.getId()), ids("/api/events/archive/joined?size=1"));
+        assertEquals(400, client.send(get("/api/events/archive/created?page=-1"),
+                HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    /**
+     * Evento dell'utente loggato con la sua iscrizione (e quella dell'ospite, se indicato),
+     * poi spostato alla data indicata.
+     */
+    private SocialEvent pastEvent(Restaurant restaurant, AppUser guest, LocalDateTime date) {
+        SocialEvent event = fixtures.approvedEvent(user, restaurant, 5);
+        eventService.joinEvent(user.getId(), event.getId());
+        if (guest != null) eventService.joinEvent(guest.getId(), event.getId());
+
+        SocialEvent joined = eventRepository.findById(event.getId()).orElseThrow();
+        joined.setEventDate(date);
+        return eventRepository.save(joined);
+    }
+
+    private List<Long> ids(String path) throws Exception {
+        HttpResponse<String> response = client.send(get(path), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode events = objectMapper.readTree(response.body());
+        assertTrue(events.isArray());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode event : events) ids.add(event.get("id").asLong());
+        return ids;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Accept", "application/json").GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
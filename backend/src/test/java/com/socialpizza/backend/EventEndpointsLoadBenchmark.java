@@ -0,0 +1,119 @@
+package com.socialpizza.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Carico sugli endpoint degli eventi (iscrizioni e bacheca) con molte richieste concorrenti.
+ * Le sottoclassi avviano l'applicazione con thread di piattaforma o virtual thread:
+ * stesso scenario, si confrontano throughput e p99 stampati a fine test.
+ */
+abstract class EventEndpointsLoadBenchmark {
+
+    private static final int USERS = 400;
+    private static final int CONCURRENCY = 400;
+    private static final int FEED_REQUESTS_PER_USER = 10;
+
+    @LocalServerPort private int port;
+
+    @Autowired private TestFixtures fixtures;
+
+    protected abstract String mode();
+
+    @Test
+    void joinAndFeedUnderLoad() throws Exception {
+        Long eventId = seedEvent();
+        List<HttpClient> clients = loginUsers();
+
+        report("join", run(clients, 1, client -> post(client, "/api/events/" + eventId + "/join")));
+        report("feed", run(clients, FEED_REQUESTS_PER_USER, client -> get(client, "/api/events/feed?size=20")));
+    }
+
+    private Long seedEvent() {
+        return fixtures.approvedEvent(mode() + "-owner", USERS).getId();
+    }
+
+    private List<HttpClient> loginUsers() throws Exception {
+        List<HttpClient> clients = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            String email = fixtures.user(mode() + "-user" + i, "UTENTE").getEmail();
+
+            HttpClient client = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+            HttpResponse<Void> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"" + email + "\",\"password\":\"" + TestFixtures.PASSWORD + "\"}"))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            assertEquals(200, login.statusCode());
+            clients.add(client);
+        }
+        return clients;
+    }
+
+    /**
+     * Esegue {@code rounds} richieste per client con al massimo CONCURRENCY in volo;
+     * restituisce le latenze ordinate e, come ultimo elemento, la durata totale.
+     */
+    private long[] run(List<HttpClient> clients, int rounds,
+                       Function<HttpClient, CompletableFuture<HttpResponse<Void>>> call) throws Exception {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<?>> all = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (HttpClient client : clients) {
+                inFlight.acquire();
+                long sent = System.nanoTime();
+                all.add(call.apply(client).whenComplete((response, error) -> {
+                    latencies.add(System.nanoTime() - sent);
+                    inFlight.release();
+                }));
+            }
+        }
+        CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.nanoTime() - start;
+
+        long[] result = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        result = Arrays.copyOf(result, result.length + 1);
+        result[result.length - 1] = elapsed;
+        return result;
+    }
+
+    private void report(String scenario, long[] result) {
+        int requests = result.length - 1;
+        double seconds = result[requests] / 1_000_000_000.0;
+        double p99 = result[Math.min(requests - 1, requests * 99 / 100)] / 1_000_000.0;
+        System.out.printf("[%s] %s: %d richieste, %.0f req/s, p99 %.1f ms%n",
+                mode(), scenario, requests, requests / seconds, p99);
+    }
+
+    private CompletableFuture<HttpResponse<Void>> post(HttpClient client, String path) {
+        return client.sendAsync(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    private CompletableFuture<HttpResponse<Void>> get(HttpClient client, String path) {
+        return client.sendAsync(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
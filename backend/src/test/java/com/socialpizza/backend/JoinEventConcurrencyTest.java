@@ -0,0 +1,102 @@
+package com.socialpizza.backend;
+
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.repository.ParticipationRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import com.socialpizza.backend.service.ContentVersions;
+import com.socialpizza.backend.service.ContentVersions.Resource;
+import com.socialpizza.backend.service.EventService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Centinaia di iscrizioni simultanee allo stesso evento: nessun posto oltre maxParticipants.
+ * Ogni variazione dei posti fa avanzare la versione della bacheca.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JoinEventConcurrencyTest {
+
+    private static final int SEATS = 50;
+    private static final int USERS = 300;
+    private static final int THREADS = 64;
+
+    @Autowired private EventService eventService;
+    @Autowired private TestFixtures fixtures;
+    @Autowired private ContentVersions contentVersions;
+    @Autowired private SocialEventRepository eventRepository;
+    @Autowired private ParticipationRepository participationRepository;
+
+    @Test
+    void concurrentJoinsNeverOverbook() throws Exception {
+        Long eventId = fixtures.approvedEvent("owner-" + System.nanoTime(), SEATS).getId();
+        List<AppUser> users = fixtures.users("user-" + System.nanoTime(), USERS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+
+        for (AppUser user : users) {
+            Long userId = user.getId();
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    eventService.joinEvent(userId, eventId);
+                    joined.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if ("Evento Sold Out! Posti esauriti.".equals(e.getMessage())) {
+                        soldOut.incrementAndGet();
+                    } else {
+                        unexpected.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+        System.out.printf("joinEvent: %d richieste in %.3f s (%.0f iscrizioni/s)%n",
+                USERS, seconds, USERS / seconds);
+
+        assertEquals(0, unexpected.get());
+        assertEquals(SEATS, joined.get());
+        assertEquals(USERS - SEATS, soldOut.get());
+        assertEquals(SEATS, participationRepository.countByEventId(eventId));
+        assertEquals(SEATS, eventRepository.findById(eventId).orElseThrow().getReservedSeats());
+    }
+
+    @Test
+    void seatChangesInvalidateTheBoardEtag() {
+        Long eventId = fixtures.approvedEvent("etag-owner-" + System.nanoTime(), 5).getId();
+        Long userId = fixtures.user("etag-user-" + System.nanoTime(), "UTENTE").getId();
+
+        String beforeJoin = contentVersions.etag(Resource.EVENTS, null);
+        eventService.joinEvent(userId, eventId);
+        String afterJoin = contentVersions.etag(Resource.EVENTS, null);
+        assertNotEquals(beforeJoin, afterJoin, "la bacheca mostra i posti occupati: l'iscrizione cambia la versione");
+
+        eventService.leaveEvent(userId, eventId);
+        assertNotEquals(afterJoin, contentVersions.etag(Resource.EVENTS, null));
+    }
+}
@@ -0,0 +1,103 @@
+package com.socialpizza.backend;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latenza della bacheca mentre arriva un'ondata di login con bcrypt.
+ * L'hash gira sul pool dedicato, quindi i thread di Tomcat restano liberi per /feed.
+ * Eseguito solo con il profilo Maven "benchmarks".
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class LoginBurstBenchmarkTest {
+
+    private static final int FEED_REQUESTS = 200;
+    private static final int LOGIN_BURST = 400;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void feedLatencyStaysFlatDuringLoginBurst() throws Exception {
+        HttpClient anonymous = HttpClient.newHttpClient();
+        HttpClient feedClient = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+
+        String credentials = "{\"email\":\"burst@test.it\",\"password\":\"password123\"}";
+        HttpResponse<String> registered = anonymous.send(post("/api/auth/register",
+                "{\"name\":\"Burst\",\"surname\":\"Test\",\"email\":\"burst@test.it\",\"password\":\"password123\"}"),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, registered.statusCode(), registered.body());
+        assertEquals(200, feedClient.send(post("/api/auth/login", credentials), HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        long[] baseline = measureFeed(feedClient);
+
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger busy = new AtomicInteger();
+        List<CompletableFuture<Void>> logins = new ArrayList<>();
+        for (int i = 0; i < LOGIN_BURST; i++) {
+            logins.add(anonymous.sendAsync(post("/api/auth/login", credentials), HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() == 200) ok.incrementAndGet();
+                        else if (response.statusCode() == 503) busy.incrementAndGet();
+                    }));
+        }
+        long[] duringBurst = measureFeed(feedClient);
+        CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).join();
+
+        System.out.printf("feed senza carico: p50 %.1f ms, p99 %.1f ms%n", millis(baseline, 50), millis(baseline, 99));
+        System.out.printf("feed durante %d login: p50 %.1f ms, p99 %.1f ms (login ok %d, 503 %d)%n",
+                LOGIN_BURST, millis(duringBurst, 50), millis(duringBurst, 99), ok.get(), busy.get());
+
+        assertEquals(LOGIN_BURST, ok.get() + busy.get());
+        assertTrue(millis(duringBurst, 50) <= 2 * millis(baseline, 50) + 20,
+                "la latenza mediana della bacheca non deve risentire dei login");
+    }
+
+    private long[] measureFeed(HttpClient client) throws Exception {
+        long[] latencies = new long[FEED_REQUESTS];
+        HttpRequest feed = HttpRequest.newBuilder(uri("/api/events/feed?size=20")).GET().build();
+        for (int i = 0; i < FEED_REQUESTS; i++) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(feed, HttpResponse.BodyHandlers.discarding());
+            latencies[i] = System.nanoTime() - start;
+            assertEquals(200, response.statusCode());
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static double millis(long[] sortedNanos, int percentile) {
+        int index = Math.min(sortedNanos.length - 1, sortedNanos.length * percentile / 100);
+        return sortedNanos[index] / 1_000_000.0;
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
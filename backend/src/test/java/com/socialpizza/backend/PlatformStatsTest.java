@@ -0,0 +1,100 @@
+package com.socialpizza.backend;
+
+import com.socialpizza.backend.dto.PlatformStatsView;
+import com.socialpizza.backend.dto.RoleCount;
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.repository.AppUserRepository;
+import com.socialpizza.backend.service.EventService;
+import com.socialpizza.backend.service.PlatformStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Contatori incrementali delle statistiche: applicati solo dopo il commit, coerenti con il ricalcolo
+ * dal database e corretti (non sostituiti) dal riallineamento.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PlatformStatsTest {
+
+    @Autowired private PlatformStats platformStats;
+    @Autowired private EventService eventService;
+    @Autowired private AppUserRepository userRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private TestFixtures fixtures;
+
+    @AfterEach
+    void realign() {
+        platformStats.reconcile();
+    }
+
+    @Test
+    void incrementalCountersMatchTheDatabaseAfterLeavingACancelledEvent() {
+        SocialEvent event = fixtures.approvedEvent("stats-" + System.nanoTime(), 10);
+        AppUser user = fixtures.user("stats-iscritto-" + System.nanoTime(), "UTENTE");
+        platformStats.reconcile();
+
+        eventService.joinEvent(user.getId(), event.getId());
+        eventService.changeEventStatus(event.getId(), "CANCELLED");
+        // Il posto liberato non è più di un evento confermato: il tasso di riempimento non cambia
+        eventService.leaveEvent(user.getId(), event.getId());
+        PlatformStatsView incremental = platformStats.snapshot();
+
+        platformStats.reconcile();
+        PlatformStatsView recomputed = platformStats.snapshot();
+        assertEquals(recomputed.getFillRate(), incremental.getFillRate());
+        assertEquals(recomputed.getEventsByStatus(), incremental.getEventsByStatus());
+    }
+
+    @Test
+    void rolledBackChangesAreNotCounted() {
+        Map<String, Long> before = platformStats.snapshot().getUsersByRole();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            platformStats.userAdded("UTENTE");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, platformStats.snapshot().getUsersByRole());
+    }
+
+    @Test
+    void changesInsideATransactionApplyAfterTheCommit() {
+        long owners = platformStats.snapshot().getUsersByRole().getOrDefault("RISTORATORE", 0L);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            platformStats.roleChanged("UTENTE", "RISTORATORE");
+            assertEquals(owners, platformStats.snapshot().getUsersByRole().getOrDefault("RISTORATORE", 0L),
+                    "prima del commit i contatori non cambiano");
+        });
+
+        assertEquals(owners + 1, platformStats.snapshot().getUsersByRole().get("RISTORATORE"));
+    }
+
+    @Test
+    void reconcileCorrectsDriftAndDropsEntriesGoneFromTheDatabase() {
+        platformStats.userAdded("FANTASMA");
+        assertEquals(1L, platformStats.snapshot().getUsersByRole().get("FANTASMA"));
+
+        platformStats.reconcile();
+
+        Map<String, Long> usersByRole = platformStats.snapshot().getUsersByRole();
+        assertFalse(usersByRole.containsKey("FANTASMA"));
+        Map<String, Long> expected = new TreeMap<>();
+        for (RoleCount count : userRepository.countByRole()) {
+            if (count.getRole() != null) expected.put(count.getRole(), count.getUsers());
+        }
+        assertEquals(expected, usersByRole);
+    }
+}
@@ -0,0 +1,20 @@
+package com.socialpizza.backend;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Scenario di carico con il pool di thread di piattaforma di Tomcat (modalità predefinita).
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "auth.hashing.bcrypt-strength=4") // il login degli utenti di prova non è oggetto della misura
+@ActiveProfiles("test")
+class PlatformThreadsBenchmarkTest extends EventEndpointsLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,299 @@
+package com.socialpizza.backend;
+
+import com.socialpizza.backend.dto.EventSearchCriteria;
+import com.socialpizza.backend.repository.AppUserRepository;
+import com.socialpizza.backend.repository.ArchivedEventRepository;
+import com.socialpizza.backend.repository.ArchivedParticipationRepository;
+import com.socialpizza.backend.repository.ParticipationRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Piano di esecuzione delle query dei repository di eventi, iscrizioni, utenti e archivio.
+ * Ogni metodo dichiarato nei repository viene invocato con argomenti fittizi (in una transazione
+ * annullata alla fine), l'SQL generato da Hibernate viene intercettato e passato a EXPLAIN:
+ * il test fallisce se H2 sceglie la scansione completa di una tabella.
+ * Le letture integrali volute sono elencate in FULL_SCANS con il motivo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan-test;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        // Le metriche registrano già un proprio StatementInspector
+        "metrics.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.socialpizza.backend.QueryPlanTest$SqlRecorder"
+})
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final String TABLE_SCAN = ".tableScan";
+
+    // Metodi che per costruzione leggono tutta la tabella
+    private static final Map<String, String> FULL_SCANS = Map.of(
+            "SocialEventRepository.findStatsRows", "riallineamento di PlatformStats su tutti gli eventi",
+            "SocialEventRepository.findAllIndexRows", "ricostruzione dell'indice di ricerca full-text",
+            "AppUserRepository.findAllViews", "elenco completo degli utenti per l'admin",
+            "AppUserRepository.streamAllViews", "export NDJSON di tutti gli utenti");
+
+    @Autowired private SocialEventRepository eventRepository;
+    @Autowired private ParticipationRepository participationRepository;
+    @Autowired private AppUserRepository userRepository;
+    @Autowired private ArchivedEventRepository archivedEventRepository;
+    @Autowired private ArchivedParticipationRepository archivedParticipationRepository;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    /**
+     * Dati sufficienti perché l'ottimizzatore non preferisca la scansione per tabelle quasi vuote.
+     */
+    @BeforeEach
+    void seed() {
+        if (jdbc.queryForObject("SELECT COUNT(*) FROM social_event", Long.class) > 0) {
+            return;
+        }
+        jdbc.update("INSERT INTO city (id, name, cap) SELECT X, 'Città ' || X, '00' || X FROM SYSTEM_RANGE(1, 20)");
+        jdbc.update("INSERT INTO category (id, name, description) SELECT X, 'Categoria ' || X, '' FROM SYSTEM_RANGE(1, 10)");
+        jdbc.update("INSERT INTO app_user (id, name, surname, email, password, role) " +
+                "SELECT X, 'Utente' || X, 'Test', 'utente' || X || '@test.it', 'password123', " +
+                "CASE WHEN X <= 100 THEN 'RISTORATORE' WHEN X <= 105 THEN 'ADMIN' ELSE 'UTENTE' END FROM SYSTEM_RANGE(1, 2000)");
+        jdbc.update("INSERT INTO restaurant (id, name, address, max_capacity, city_id, owner_id) " +
+                "SELECT X, 'Pizzeria ' || X, 'Via ' || X, 60, MOD(X, 20) + 1, X FROM SYSTEM_RANGE(1, 100)");
+        jdbc.update("INSERT INTO social_event (id, title, description, event_date, max_participants, reserved_seats, " +
+                "status, category_id, organizer_id, restaurant_id) " +
+                "SELECT X, 'Evento ' || X, 'Serata ' || X, DATEADD('HOUR', X, TIMESTAMP '2026-01-01 20:00:00'), 40, 4, " +
+                "CASE MOD(X, 4) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END, " +
+                "MOD(X, 10) + 1, 106 + MOD(X, 1895), MOD(X, 100) + 1 FROM SYSTEM_RANGE(1, 5000)");
+        // (evento, utente) distinti: X mod 5000 e X mod 1895 si ripetono insieme solo dopo 1.895.000
+        jdbc.update("INSERT INTO participation (id, event_id, user_id, registration_date) " +
+                "SELECT X, MOD(X, 5000) + 1, 106 + MOD(X, 1895), CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 20000)");
+        // Archivio con id distinti da quelli attivi, come dopo un passaggio di EventArchiveService
+        jdbc.update("INSERT INTO archived_event (id, title, description, event_date, max_participants, reserved_seats, " +
+                "status, category_id, category_name, restaurant_id, restaurant_name, restaurant_address, city_id, city_name, " +
+                "organizer_id, organizer_name) " +
+                "SELECT 10000 + X, 'Passato ' || X, '', DATEADD('HOUR', -X, TIMESTAMP '2025-12-31 20:00:00'), 40, 4, 'APPROVED', " +
+                "MOD(X, 10) + 1, 'Categoria', MOD(X, 100) + 1, 'Pizzeria', 'Via', MOD(X, 20) + 1, 'Città', " +
+                "106 + MOD(X, 1895), 'Utente' FROM SYSTEM_RANGE(1, 5000)");
+        jdbc.update("INSERT INTO archived_participation (id, event_id, user_id, registration_date) " +
+                "SELECT 100000 + X, 10000 + MOD(X, 5000) + 1, 106 + MOD(X, 1895), CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 20000)");
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void socialEventQueriesUseIndexes() {
+        assertIndexedPlans(SocialEventRepository.class, eventRepository);
+    }
+
+    @Test
+    void participationQueriesUseIndexes() {
+        assertIndexedPlans(ParticipationRepository.class, participationRepository);
+    }
+
+    @Test
+    void appUserQueriesUseIndexes() {
+        assertIndexedPlans(AppUserRepository.class, userRepository);
+    }
+
+    @Test
+    void archiveQueriesUseIndexes() {
+        assertIndexedPlans(ArchivedEventRepository.class, archivedEventRepository);
+        assertIndexedPlans(ArchivedParticipationRepository.class, archivedParticipationRepository);
+    }
+
+    /**
+     * Ricerca a filtri dinamici (frammento SocialEventSearchRepository): le combinazioni usate da /api/events/search.
+     */
+    @Test
+    void searchQueriesUseIndexes() {
+        List<String> approved = List.of("APPROVED");
+        assertNoTableScan("search(stati)", captureSql(() ->
+                eventRepository.search(criteria(approved, null, null), 20)));
+        assertNoTableScan("search(stati, categoria)", captureSql(() ->
+                eventRepository.search(criteria(approved, 3L, null), 20)));
+        assertNoTableScan("search(stati, città)", captureSql(() ->
+                eventRepository.search(criteria(approved, null, 5L), 20)));
+    }
+
+    @Test
+    void fullScanListOnlyNamesExistingMethods() {
+        Set<String> declared = new HashSet<>();
+        for (Class<?> repository : List.of(SocialEventRepository.class, ParticipationRepository.class, AppUserRepository.class,
+                ArchivedEventRepository.class, ArchivedParticipationRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                declared.add(repository.getSimpleName() + "." + method.getName());
+            }
+        }
+        for (String name : FULL_SCANS.keySet()) {
+            assertTrue(declared.contains(name), "metodo inesistente in FULL_SCANS: " + name);
+        }
+    }
+
+    private void assertIndexedPlans(Class<?> repositoryType, Object repository) {
+        List<String> failures = new ArrayList<>();
+        for (Method method : repositoryType.getDeclaredMethods()) {
+            if (method.isSynthetic() || method.isDefault()) {
+                continue;
+            }
+            String name = repositoryType.getSimpleName() + "." + method.getName();
+            List<String> statements = captureSql(() -> invoke(repository, method));
+            assertFalse(statements.isEmpty(), name + " non ha eseguito nessuna query");
+            if (FULL_SCANS.containsKey(name)) {
+                continue;
+            }
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains(TABLE_SCAN)) {
+                    failures.add(name + "\n  SQL:   " + sql + "\n  piano: " + plan);
+                }
+            }
+        }
+        assertEquals(List.of(), failures, "query con scansione completa di una tabella:\n" + String.join("\n", failures));
+    }
+
+    private void assertNoTableScan(String name, List<String> statements) {
+        assertFalse(statements.isEmpty(), name + " non ha eseguito nessuna query");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(TABLE_SCAN), name + "\n  SQL:   " + sql + "\n  piano: " + plan);
+        }
+    }
+
+    /**
+     * Esegue l'azione in una transazione sempre annullata (le UPDATE e DELETE non toccano i dati di prova)
+     * e restituisce l'SQL preparato da Hibernate nel frattempo.
+     */
+    private List<String> captureSql(Supplier<Object> action) {
+        TransactionTemplate rollback = new TransactionTemplate(transactionManager);
+        return rollback.execute(status -> {
+            status.setRollbackOnly();
+            SqlRecorder.start();
+            try {
+                Object result = action.get();
+                if (result instanceof Stream<?> stream) {
+                    try (stream) {
+                        stream.forEach(row -> { });
+                    }
+                }
+                return SqlRecorder.recorded();
+            } finally {
+                SqlRecorder.stop();
+            }
+        });
+    }
+
+    private static Object invoke(Object repository, Method method) {
+        Object[] arguments = new Object[method.getParameterCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = argument(method, method.getGenericParameterTypes()[i]);
+        }
+        try {
+            return method.invoke(repository, arguments);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(method.getName() + " ha sollevato un'eccezione", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Argomento fittizio per tipo: i valori contano poco, il piano dipende dalla forma della query.
+     */
+    private static Object argument(Method method, Type type) {
+        if (type == Long.class || type == long.class) return 7L;
+        if (type == Integer.class || type == int.class) return 1;
+        if (type == String.class) return "APPROVED";
+        if (type == Limit.class) return Limit.of(100);
+        if (type == Pageable.class) return PageRequest.of(0, 20);
+        if (type == LocalDateTime.class) return LocalDateTime.now();
+        if (type instanceof ParameterizedType parameterized
+                && Collection.class.isAssignableFrom((Class<?>) parameterized.getRawType())) {
+            Type element = parameterized.getActualTypeArguments()[0];
+            if (element == String.class) return List.of("APPROVED", "PENDING");
+            if (element == Long.class) return List.of(7L, 8L, 9L);
+        }
+        throw new IllegalArgumentException("Tipo di parametro non previsto in " + method.getName() + ": " + type);
+    }
+
+    private String explain(String sql) {
+        return jdbc.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                // Il piano è scelto alla preparazione: i parametri servono solo a rendere eseguibile la EXPLAIN
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet plan = statement.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    private static EventSearchCriteria criteria(List<String> statuses, Long categoryId, Long cityId) {
+        EventSearchCriteria criteria = new EventSearchCriteria();
+        criteria.setStatuses(statuses);
+        criteria.setCategoryId(categoryId);
+        criteria.setCityId(cityId);
+        return criteria;
+    }
+
+    /**
+     * StatementInspector registrato via proprietà Hibernate: annota l'SQL del solo thread del test.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+        static void start() {
+            RECORDED.set(new ArrayList<>());
+        }
+
+        static List<String> recorded() {
+            return List.copyOf(RECORDED.get());
+        }
+
+        static void stop() {
+            RECORDED.remove();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = RECORDED.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.socialpizza.backend;
+
+import com.socialpizza.backend.cache.EntityCacheMonitor;
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.replica.LocalH2Replicator;
+import com.socialpizza.backend.replica.ReplicationMonitor;
+import com.socialpizza.backend.service.AdminJob;
+import com.socialpizza.backend.service.AppUserService;
+import com.socialpizza.backend.session.SessionPrincipal;
+import com.socialpizza.backend.session.SessionPrincipals;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Due H2 in memoria, primario e replica: le transazioni readOnly leggono dalla replica,
+ * che vede le modifiche solo dopo la sincronizzazione, tranne per chi le ha appena scritte.
+ * Sincronizzazione e battito sono invocati a mano (intervalli lunghissimi).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-primary-test;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "replica.enabled=true",
+        "replica.urls[0]=jdbc:h2:mem:replica-test;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "replica.local-sync=true",
+        "replica.sync-interval=1h",
+        "replica.heartbeat-interval=1h",
+        "replica.max-lag=1h"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    @Autowired private TestFixtures fixtures;
+    @Autowired private SessionPrincipals principals;
+    @Autowired private LocalH2Replicator replicator;
+    @Autowired private ReplicationMonitor monitor;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private AppUserService userService;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ApplicationContext context;
+
+    @BeforeEach
+    void replicaUpToDate() {
+        replicator.sync();
+        monitor.beat();
+    }
+
+    @Test
+    void readOnlyTransactionsSeeWritesAfterSync() {
+        fixtures.city("Replicata");
+
+        assertEquals(0, countCitiesReadOnly("Replicata"), "la replica non è ancora sincronizzata");
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM city WHERE name = ?", Long.class, "Replicata"),
+                "fuori da una transazione readOnly si legge il primario");
+
+        replicator.sync();
+        monitor.beat();
+        assertEquals(1, countCitiesReadOnly("Replicata"));
+    }
+
+    @Test
+    void ownWritesAreReadFromThePrimary() {
+        AppUser user = fixtures.user("replica-" + System.nanoTime(), "UTENTE");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            principals.login(user, request, response);
+            fixtures.city("Scritta da me");
+            assertEquals(1, countCitiesReadOnly("Scritta da me"), "chi scrive rilegge subito il proprio dato");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        assertEquals(0, countCitiesReadOnly("Scritta da me"), "gli altri leggono ancora la replica");
+    }
+
+    @Test
+    void bannedUserLosesTheSessionWhileTheReplicaIsBehind() throws InterruptedException {
+        AppUser admin = fixtures.user("admin-replica-" + System.nanoTime(), "ADMIN");
+        AppUser user = fixtures.user("bannato-replica-" + System.nanoTime(), "UTENTE");
+        replicator.sync();
+        monitor.beat();
+
+        MockHttpSession session = new MockHttpSession();
+        inRequest(session, (request, response) -> principals.login(user, request, response));
+        assertNotNull(inRequest(session, (request, response) -> principals.current()));
+
+        // Il ban arriva al primario ma non alla replica: la rilettura della sessione non deve usarla
+        AdminJob job = userService.banUser(user.getId(), admin.getId());
+        while (job.getStatus() != AdminJob.Status.COMPLETED) {
+            assertNull(job.getError(), "la cascata non deve fallire");
+            Thread.sleep(10);
+        }
+
+        assertNull(inRequest(session, (request, response) -> principals.current()), "l'utente bannato è disconnesso");
+    }
+
+    @Test
+    void secondLevelCacheIsOffWithReplicas() {
+        // Un miss caricato da una replica in ritardo resterebbe in cache fino alla scadenza della regione
+        assertFalse(entityManagerFactory.unwrap(SessionFactory.class).getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        assertTrue(context.getBeansOfType(EntityCacheMonitor.class).isEmpty());
+    }
+
+    private SessionPrincipal inRequest(MockHttpSession session,
+                                       BiFunction<MockHttpServletRequest, MockHttpServletResponse, SessionPrincipal> action) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            return action.apply(request, response);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private long countCitiesReadOnly(String name) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status ->
+                jdbc.queryForObject("SELECT COUNT(*) FROM city WHERE name = ?", Long.class, name));
+    }
+}
@@ -0,0 +1,103 @@
+package com.socialpizza.backend;
+
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.entity.City;
+import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.repository.AppUserRepository;
+import com.socialpizza.backend.repository.CityRepository;
+import com.socialpizza.backend.repository.RestaurantRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dati di prova comuni ai test di integrazione: utenti, città, locali ed eventi salvati tramite i repository.
+ * Email e nomi sono resi unici dal prefisso scelto dal test, perché il database in memoria è condiviso
+ * tra i test dello stesso contesto.
+ */
+@Component
+public class TestFixtures {
+
+    public static final String PASSWORD = "password123";
+
+    @Autowired private AppUserRepository userRepository;
+    @Autowired private CityRepository cityRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private SocialEventRepository eventRepository;
+
+    public AppUser user(String name, String role) {
+        return userRepository.save(newUser(name, role));
+    }
+
+    /**
+     * {@code count} utenti UTENTE salvati in blocco, con nomi prefix-0, prefix-1, ...
+     */
+    public List<AppUser> users(String prefix, int count) {
+        List<AppUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(newUser(prefix + "-" + i, "UTENTE"));
+        }
+        return userRepository.saveAll(users);
+    }
+
+    public City city(String name) {
+        return cityRepository.save(newCity(name));
+    }
+
+    /**
+     * Locale del proprietario indicato, in una città nuova.
+     */
+    public Restaurant restaurant(AppUser owner, int capacity) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Pizzeria di " + owner.getName());
+        restaurant.setAddress("via dei test 1");
+        restaurant.setMaxCapacity(capacity);
+        restaurant.setCity(city("Città di " + owner.getName()));
+        restaurant.setOwner(owner);
+        return restaurantRepository.save(restaurant);
+    }
+
+    /**
+     * Evento confermato tra una settimana, con {@code seats} posti.
+     */
+    public SocialEvent approvedEvent(AppUser organizer, Restaurant restaurant, int seats) {
+        SocialEvent event = new SocialEvent();
+        event.setTitle("Serata di " + organizer.getName());
+        event.setEventDate(LocalDateTime.now().plusDays(7));
+        event.setMaxParticipants(seats);
+        event.setStatus("APPROVED");
+        event.setOrganizer(organizer);
+        event.setRestaurant(restaurant);
+        return eventRepository.save(event);
+    }
+
+    /**
+     * Proprietario, locale ed evento confermato in un colpo solo.
+     */
+    public SocialEvent approvedEvent(String ownerName, int seats) {
+        AppUser owner = user(ownerName, "RISTORATORE");
+        return approvedEvent(owner, restaurant(owner, seats), seats);
+    }
+
+    public static AppUser newUser(String name, String role) {
+        AppUser user = new AppUser();
+        user.setName(name);
+        user.setSurname("Test");
+        user.setEmail(name + "@test.it");
+        user.setPassword(PASSWORD);
+        user.setRole(role);
+        return user;
+    }
+
+    public static City newCity(String name) {
+        City city = new City();
+        city.setName(name);
+        city.setCAP("00000");
+        return city;
+    }
+}
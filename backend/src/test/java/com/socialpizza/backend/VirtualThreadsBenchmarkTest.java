@@ -0,0 +1,23 @@
+package com.socialpizza.backend;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Stesso scenario con il profilo "virtual": saltato sotto Java 21.
+ */
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "auth.hashing.bcrypt-strength=4") // il login degli utenti di prova non è oggetto della misura
+@ActiveProfiles({"test", "virtual"})
+class VirtualThreadsBenchmarkTest extends EventEndpointsLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
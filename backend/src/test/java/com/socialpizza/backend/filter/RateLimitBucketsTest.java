@@ -0,0 +1,86 @@
+package com.socialpizza.backend.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aritmetica GCRA dei bucket con un orologio simulato: 60 permessi al minuto (uno al secondo), burst 3.
+ */
+class RateLimitBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long T0 = 1_000 * SECOND;
+
+    private final RateLimitFilter.Buckets buckets = new RateLimitFilter.Buckets(new RateLimitProperties.Limit(60, 3), 100);
+
+    @Test
+    void fullBucketAdmitsTheBurstThenAsksToWait() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.acquire("a", T0), "richiesta " + (i + 1) + " del burst");
+        }
+        assertEquals(SECOND, buckets.acquire("a", T0), "il quarto permesso arriva dopo un intervallo");
+    }
+
+    @Test
+    void permitsComeBackOneIntervalAtATime() {
+        for (int i = 0; i < 3; i++) buckets.acquire("a", T0);
+
+        assertEquals(SECOND / 2, buckets.acquire("a", T0 + SECOND / 2));
+        assertEquals(0, buckets.acquire("a", T0 + SECOND));
+        assertEquals(SECOND, buckets.acquire("a", T0 + SECOND), "il permesso recuperato è già stato usato");
+    }
+
+    @Test
+    void refusedRequestsDoNotConsumePermits() {
+        for (int i = 0; i < 3; i++) buckets.acquire("a", T0);
+        for (int i = 0; i < 10; i++) buckets.acquire("a", T0);
+
+        assertEquals(0, buckets.acquire("a", T0 + SECOND));
+    }
+
+    @Test
+    void idleBucketRefillsToTheFullBurst() {
+        for (int i = 0; i < 3; i++) buckets.acquire("a", T0);
+
+        long later = T0 + 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.acquire("a", later));
+        }
+        assertTrue(buckets.acquire("a", later) > 0);
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) buckets.acquire("a", T0);
+        assertTrue(buckets.acquire("a", T0) > 0);
+        assertEquals(0, buckets.acquire("b", T0));
+    }
+
+    @Test
+    void sweepDropsOnlyRefilledBuckets() {
+        buckets.acquire("idle", T0);
+        for (int i = 0; i < 3; i++) buckets.acquire("busy", T0 + 2 * SECOND);
+
+        buckets.sweep(T0 + 2 * SECOND);
+        assertEquals(1, buckets.size());
+        assertTrue(buckets.acquire("busy", T0 + 2 * SECOND) > 0, "il client attivo mantiene il proprio stato");
+    }
+
+    @Test
+    void newClientsAreNotThrottledWhenTheMapIsFull() {
+        RateLimitFilter.Buckets small = new RateLimitFilter.Buckets(new RateLimitProperties.Limit(60, 3), 2);
+        for (String client : new String[] {"x", "y"}) {
+            for (int i = 0; i < 3; i++) small.acquire(client, T0);
+        }
+
+        // Nessun bucket comune per i nuovi arrivati: ognuno ha il proprio burst
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, small.acquire("nuovo", T0));
+        }
+        assertTrue(small.size() <= 2);
+    }
+}
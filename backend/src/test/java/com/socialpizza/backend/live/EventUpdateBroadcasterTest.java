@@ -0,0 +1,171 @@
+package com.socialpizza.backend.live;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Comportamento con i client lenti: al posto delle connessioni reali, emitter che registrano i messaggi
+ * e possono restare bloccati in scrittura finché il test non li sblocca. Coda di 4 messaggi per iscritto.
+ */
+class EventUpdateBroadcasterTest {
+
+    private static final int BUFFER = 4;
+
+    private final List<Client> clients = new ArrayList<>();
+    private Client next;
+    private EventUpdateBroadcaster broadcaster;
+
+    @BeforeEach
+    void start() {
+        LiveUpdatesProperties properties = new LiveUpdatesProperties();
+        properties.setBufferSize(BUFFER);
+        properties.setSenderThreads(1);
+        properties.setMaxSenderThreads(4);
+        properties.setSendTimeout(Duration.ofMillis(200));
+
+        broadcaster = new EventUpdateBroadcaster() {
+            @Override
+            SseEmitter newEmitter() {
+                return next;
+            }
+        };
+        ReflectionTestUtils.setField(broadcaster, "properties", properties);
+        ReflectionTestUtils.setField(broadcaster, "objectMapper", new ObjectMapper());
+        broadcaster.start();
+    }
+
+    @AfterEach
+    void stop() {
+        clients.forEach(client -> client.unblock.countDown());
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void slowClientReceivesResyncInsteadOfPartialUpdates() {
+        Client client = subscribe(new Client(true, false));
+        awaitUntil(() -> client.attempts.get() == 1);
+
+        // Bloccato sul primo messaggio: 4 aggiornamenti restano in coda, 2 vengono scartati
+        for (int i = 0; i < BUFFER + 2; i++) broadcaster.publish(update(i));
+        client.unblock.countDown();
+
+        awaitUntil(() -> client.received.size() == 2);
+        assertEquals(":connesso", client.received.get(0).trim());
+        assertTrue(client.received.get(1).contains("event:" + EventUpdateBroadcaster.RESYNC), client.received.get(1));
+        assertEquals(1, broadcaster.getSubscriberCount());
+
+        broadcaster.publish(update(99));
+        awaitUntil(() -> client.received.size() == 3);
+        assertTrue(client.received.get(2).contains("\"reservedSeats\":99"), "dopo il resync gli aggiornamenti riprendono");
+    }
+
+    @Test
+    void clientLosingMoreThanAFullQueueIsDisconnected() {
+        Client client = subscribe(new Client(true, false));
+        awaitUntil(() -> client.attempts.get() == 1);
+
+        for (int i = 0; i < 2 * BUFFER + 1; i++) broadcaster.publish(update(i));
+
+        assertEquals(0, broadcaster.getSubscriberCount());
+        assertTrue(client.completed, "la connessione viene chiusa");
+    }
+
+    @Test
+    void stalledWriteIsDroppedWithoutHoldingUpOtherClients() throws InterruptedException {
+        Client stalled = subscribe(new Client(true, false));
+        Client reader = subscribe(new Client(false, false));
+        awaitUntil(() -> stalled.attempts.get() == 1 && reader.received.size() == 1);
+
+        Thread.sleep(300);
+        broadcaster.heartbeat();
+        assertTrue(stalled.completed, "la scrittura bloccata oltre sendTimeout fa disconnettere il client");
+        assertEquals(1, broadcaster.getSubscriberCount());
+
+        broadcaster.publish(update(7));
+        awaitUntil(() -> reader.received.size() == 3);
+        assertTrue(reader.received.get(2).contains("\"reservedSeats\":7"));
+    }
+
+    @Test
+    void failedWriteRemovesTheSubscriber() {
+        Client client = subscribe(new Client(false, true));
+        awaitUntil(() -> broadcaster.getSubscriberCount() == 0);
+        assertEquals(1, client.attempts.get());
+    }
+
+    private Client subscribe(Client client) {
+        clients.add(client);
+        next = client;
+        broadcaster.subscribe(List.of(), List.of(), List.of());
+        return client;
+    }
+
+    private static EventUpdate update(int reservedSeats) {
+        return new EventUpdate(EventUpdate.Type.SEATS, 1L, 2L, 3L, "APPROVED", reservedSeats, 100);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("condizione non raggiunta entro 5 secondi");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Connessione simulata: registra il testo di ogni messaggio; se blocking, la scrittura attende unblock.
+     */
+    private static class Client extends SseEmitter {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final CountDownLatch unblock;
+        final boolean broken;
+        volatile boolean completed;
+
+        Client(boolean blocking, boolean broken) {
+            this.unblock = new CountDownLatch(blocking ? 1 : 0);
+            this.broken = broken;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts.incrementAndGet();
+            if (broken) throw new IOException("connessione chiusa dal client");
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) text.append(data.getData());
+            received.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.socialpizza.backend.search;
+
+import com.socialpizza.backend.dto.EventCursor;
+import com.socialpizza.backend.dto.EventIndexRow;
+import com.socialpizza.backend.entity.Restaurant;
+import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Indice in memoria senza Spring: ricerca per termini e prefisso, ordine per data e aggiornamenti incrementali.
+ */
+class EventSearchIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 5, 1, 20, 0);
+
+    private EventSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EventSearchIndex();
+        index.index(event(1L, "Serata margherita", "Da Gino", 3));
+        index.index(event(2L, "Pizze gourmet", "Da Gino", 1));
+        index.index(event(3L, "Degustazione di birre", "Birrificio", 2));
+    }
+
+    @Test
+    void allTermsMustMatch() {
+        assertEquals(List.of(2L, 1L), index.matchesInDateOrder("gino", null));
+        assertEquals(List.of(1L), index.matchesInDateOrder("margherita gino", null));
+        assertEquals(List.of(), index.matchesInDateOrder("margherita birre", null));
+    }
+
+    @Test
+    void lastTermMatchesAsPrefix() {
+        assertEquals(List.of(1L), index.matchesInDateOrder("marg", null));
+        assertEquals(List.of(3L), index.matchesInDateOrder("degust", null));
+        assertEquals(List.of(1L), index.matchesInDateOrder("gino marg", null));
+        // Un termine seguito da altri è considerato completo
+        assertEquals(List.of(), index.matchesInDateOrder("marg gino", null));
+    }
+
+    @Test
+    void exactMatchesRankAbovePrefixMatches() {
+        index.index(event(4L, "Pizzeria", "Altrove", 4));
+        assertEquals(List.of(2L, 4L), index.search("pizz", 10));
+    }
+
+    @Test
+    void matchesFollowTheCursorInDateOrder() {
+        assertEquals(List.of(1L), index.matchesInDateOrder("gino", new EventCursor(BASE.plusDays(1), 2L)));
+        // Stessa data: decide l'id
+        index.index(event(5L, "Gino bis", "Altrove", 1));
+        assertEquals(List.of(5L, 1L), index.matchesInDateOrder("gino", new EventCursor(BASE.plusDays(1), 2L)));
+    }
+
+    @Test
+    void reindexReplacesOldTermsAndRemoveDropsTheEvent() {
+        index.index(event(1L, "Serata napoletana", "Da Gino", 3));
+        assertEquals(List.of(), index.matchesInDateOrder("margherita", null));
+        assertEquals(List.of(1L), index.matchesInDateOrder("napoletana", null));
+
+        index.remove(List.of(1L, 2L));
+        assertEquals(List.of(), index.matchesInDateOrder("gino", null));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void updatesDuringRebuildAreNotLost() {
+        // La lettura del database vede solo l'evento 1, mentre arrivano una creazione e una cancellazione
+        SocialEventRepository repository = mock(SocialEventRepository.class);
+        when(repository.findAllIndexRows()).thenAnswer(invocation -> {
+            index.index(event(6L, "Serata calzone", "Da Gino", 6));
+            index.remove(3L);
+            return List.of(new EventIndexRow(1L, "Serata margherita", null, null, "Da Gino", BASE.plusDays(3)),
+                    new EventIndexRow(3L, "Degustazione di birre", null, null, "Birrificio", BASE.plusDays(2)));
+        });
+        ReflectionTestUtils.setField(index, "eventRepository", repository);
+
+        index.rebuild();
+
+        assertEquals(List.of(6L), index.matchesInDateOrder("calzone", null));
+        assertEquals(List.of(), index.matchesInDateOrder("birre", null));
+        assertEquals(List.of(1L, 6L), index.matchesInDateOrder("gino", null));
+    }
+
+    private static SocialEvent event(Long id, String title, String restaurantName, int daysFromBase) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName(restaurantName);
+        SocialEvent event = new SocialEvent();
+        event.setId(id);
+        event.setTitle(title);
+        event.setEventDate(BASE.plusDays(daysFromBase));
+        event.setRestaurant(restaurant);
+        return event;
+    }
+}
@@ -0,0 +1,42 @@
+package com.socialpizza.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tokenizzazione, stopword e stemming dell'analizzatore usato dall'indice di ricerca.
+ */
+class ItalianAnalyzerTest {
+
+    @Test
+    void splitsOnPunctuationAndDropsStopwords() {
+        assertEquals(List.of("serat", "pizz", "margherit"), ItalianAnalyzer.analyze("Serata della pizza, margherita!"));
+        assertEquals(List.of(), ItalianAnalyzer.analyze("e per il"));
+        assertEquals(List.of(), ItalianAnalyzer.analyze(null));
+    }
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertEquals(ItalianAnalyzer.analyze("pizza"), ItalianAnalyzer.analyze("PIZZÀ"));
+        assertEquals("caffe", ItalianAnalyzer.fold("Caffè"));
+    }
+
+    @Test
+    void stemsInflectionsToTheSameTerm() {
+        assertEquals(ItalianAnalyzer.stem("pizza"), ItalianAnalyzer.stem("pizze"));
+        assertEquals(ItalianAnalyzer.stem("amici"), ItalianAnalyzer.stem("amiche"));
+        assertEquals(ItalianAnalyzer.stem("stazione"), ItalianAnalyzer.stem("stazioni"));
+        assertEquals(ItalianAnalyzer.stem("veloce"), ItalianAnalyzer.stem("velocemente"));
+    }
+
+    @Test
+    void keepsShortWordsAndNumbers() {
+        assertEquals("bar", ItalianAnalyzer.stem("bar"));
+        assertEquals("2024", ItalianAnalyzer.stem("2024"));
+        assertTrue(ItalianAnalyzer.analyze("Festa 2024").contains("2024"));
+    }
+}
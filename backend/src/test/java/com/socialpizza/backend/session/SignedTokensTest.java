@@ -0,0 +1,139 @@
+package com.socialpizza.backend.session;
+
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.repository.AuthRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Firma e verifica dei token senza Spring: manomissioni, chiavi sconosciute o ruotate, scadenza e revoca.
+ */
+class SignedTokensTest {
+
+    private static final String K1 = Base64.getEncoder().encodeToString("chiave-uno-solo-per-i-test-0123456789".getBytes(StandardCharsets.US_ASCII));
+    private static final String K2 = Base64.getEncoder().encodeToString("chiave-due-solo-per-i-test-0123456789".getBytes(StandardCharsets.US_ASCII));
+
+    private AuthProperties properties;
+    private TokenRevocations revocations;
+    private SignedTokens tokens;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuthProperties();
+        properties.setMode(AuthProperties.Mode.TOKEN);
+        properties.getToken().setActiveKid("k1");
+        properties.getToken().getKeys().put("k1", K1);
+
+        revocations = new TokenRevocations();
+        ReflectionTestUtils.setField(revocations, "repository", mock(AuthRevocationRepository.class));
+        ReflectionTestUtils.setField(revocations, "properties", properties);
+        tokens = tokens();
+    }
+
+    @Test
+    void issuedTokenCarriesTheUser() {
+        SessionPrincipal principal = tokens.verify(tokens.issue(user()));
+
+        assertNotNull(principal);
+        assertEquals(7L, principal.getId());
+        assertEquals("UTENTE", principal.getRole());
+        assertEquals("mario@test.it", principal.getEmail());
+        assertEquals("Mario.Rossi\nbis", principal.getName(), "il nome può contenere qualsiasi carattere");
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String[] parts = tokens.issue(user()).split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("UTENTE", "ADMIN");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+        assertNull(tokens.verify(forged));
+    }
+
+    @Test
+    void badOrTruncatedSignatureIsRejected() {
+        String token = tokens.issue(user());
+        // Si altera il primo carattere della firma: l'ultimo porta anche bit di riempimento ignorati
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String altered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A') + token.substring(signatureStart + 1);
+
+        assertNull(tokens.verify(altered));
+        assertNull(tokens.verify(token.substring(0, token.lastIndexOf('.'))));
+        assertNull(tokens.verify(token.substring(0, token.lastIndexOf('.') + 1) + "non-base64!"));
+        assertNull(tokens.verify("spazzatura"));
+    }
+
+    @Test
+    void unknownKidIsRejected() {
+        String token = tokens.issue(user());
+
+        assertNull(tokens.verify("k9" + token.substring(token.indexOf('.'))));
+    }
+
+    @Test
+    void rotatedKeyStillVerifiesUntilItIsRemoved() {
+        String oldToken = tokens.issue(user());
+
+        properties.getToken().getKeys().put("k2", K2);
+        properties.getToken().setActiveKid("k2");
+        SignedTokens rotated = tokens();
+        assertNotNull(rotated.verify(oldToken), "la chiave precedente è ancora configurata");
+        assertNotNull(rotated.verify(rotated.issue(user())));
+
+        properties.getToken().getKeys().remove("k1");
+        assertNull(tokens().verify(oldToken));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        properties.getToken().setTtl(Duration.ofMillis(-1));
+
+        assertNull(tokens.verify(tokens.issue(user())));
+    }
+
+    @Test
+    void invalidateRevokesTokensIssuedBefore() throws InterruptedException {
+        SessionPrincipals principals = new SessionPrincipals();
+        ReflectionTestUtils.setField(principals, "properties", properties);
+        ReflectionTestUtils.setField(principals, "tokens", tokens);
+        ReflectionTestUtils.setField(principals, "revocations", revocations);
+        String before = tokens.issue(user());
+
+        principals.invalidate(7L);
+        assertNull(tokens.verify(before));
+
+        // La revoca vale fino all'istante in cui è stata fatta: un nuovo login ottiene un token valido
+        Thread.sleep(2);
+        assertNotNull(tokens.verify(tokens.issue(user())));
+    }
+
+    private SignedTokens tokens() {
+        SignedTokens signed = new SignedTokens();
+        ReflectionTestUtils.setField(signed, "properties", properties);
+        ReflectionTestUtils.setField(signed, "revocations", revocations);
+        signed.loadKeys();
+        return signed;
+    }
+
+    private static AppUser user() {
+        AppUser user = new AppUser();
+        user.setId(7L);
+        user.setRole("UTENTE");
+        user.setEmail("mario@test.it");
+        user.setName("Mario.Rossi\nbis");
+        return user;
+    }
+}
@@ -0,0 +1,87 @@
+package com.socialpizza.backend.session;
+
+import com.socialpizza.backend.entity.AuthRevocation;
+import com.socialpizza.backend.repository.AuthRevocationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lista di revoca con il repository simulato: confronto con l'istante di emissione, revoche lette
+ * dalle altre istanze e scarto di quelle più vecchie della durata di un token (1 ora).
+ */
+class TokenRevocationsTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final AuthRevocationRepository repository = mock(AuthRevocationRepository.class);
+    private TokenRevocations revocations;
+
+    @BeforeEach
+    void setUp() {
+        AuthProperties properties = new AuthProperties();
+        properties.getToken().setTtl(Duration.ofHours(1));
+
+        revocations = new TokenRevocations();
+        ReflectionTestUtils.setField(revocations, "repository", repository);
+        ReflectionTestUtils.setField(revocations, "properties", properties);
+    }
+
+    @Test
+    void revocationCoversOnlyTokensIssuedUpToIt() {
+        long before = System.currentTimeMillis();
+        revocations.revoke(7L);
+        long after = System.currentTimeMillis() + 1;
+
+        assertTrue(revocations.isRevoked(7L, before));
+        assertFalse(revocations.isRevoked(7L, after), "un token emesso dopo la revoca resta valido");
+        assertFalse(revocations.isRevoked(8L, before), "gli altri utenti non sono toccati");
+        verify(repository).save(any(AuthRevocation.class));
+    }
+
+    @Test
+    void refreshPicksUpRevocationsFromOtherInstances() {
+        long now = System.currentTimeMillis();
+        when(repository.findByRevokedAtGreaterThan(anyLong())).thenReturn(List.of(new AuthRevocation(7L, now)));
+
+        revocations.refresh();
+
+        assertTrue(revocations.isRevoked(7L, now - 1));
+        assertFalse(revocations.isRevoked(7L, now + 1));
+    }
+
+    @Test
+    void refreshKeepsTheLatestRevocation() {
+        long now = System.currentTimeMillis();
+        revocations.revoke(7L);
+        // Una revoca più vecchia letta dopo non deve riaprire i token già revocati
+        when(repository.findByRevokedAtGreaterThan(anyLong())).thenReturn(List.of(new AuthRevocation(7L, now - 60_000)));
+
+        revocations.refresh();
+
+        assertTrue(revocations.isRevoked(7L, now));
+    }
+
+    @Test
+    void revocationsOlderThanATokenLifetimeAreDropped() {
+        long now = System.currentTimeMillis();
+        when(repository.findByRevokedAtGreaterThan(anyLong())).thenReturn(List.of(new AuthRevocation(7L, now - 2 * HOUR)));
+
+        revocations.refresh();
+
+        // Nessun token emesso prima di allora è ancora valido, quindi la voce non serve più
+        assertFalse(revocations.isRevoked(7L, now - 3 * HOUR));
+        verify(repository).deleteOlderThan(anyLong());
+    }
+}
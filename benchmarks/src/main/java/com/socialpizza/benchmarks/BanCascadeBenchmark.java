@@ -0,0 +1,71 @@
+package com.socialpizza.benchmarks;
+
+import com.socialpizza.backend.service.AdminJob;
+import com.socialpizza.backend.service.AppUserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo completo di banUser: dalla chiamata fino al completamento del job di cancellazione a cascata
+ * (eventi, iscrizioni, locale, utente) per un ristoratore con un numero crescente di eventi.
+ * Ogni invocazione banna un utente diverso, preparato prima della misura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BanCascadeBenchmark {
+
+    private static final DataSeeder.Scale SCALE = new DataSeeder.Scale(10, 5, 2_000, 50, 5_000, 5, 40);
+    // Id degli utenti da bannare: ben oltre quelli generati da seed, distanziati per contenere eventi e iscrizioni
+    private static final long VICTIM_BASE = 100_000_000L;
+    private static final long VICTIM_STRIDE = 10_000_000L;
+
+    @Param({"10", "200", "2000"})
+    public int eventsPerUser;
+
+    @Param({"10"})
+    public int participantsPerEvent;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbc;
+    private AppUserService userService;
+    private long victims;
+    private long victim;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApp.start("ban" + eventsPerUser);
+        jdbc = context.getBean(JdbcTemplate.class);
+        DataSeeder.seed(jdbc, SCALE);
+        userService = context.getBean(AppUserService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareVictim() {
+        victim = DataSeeder.seedOrganizer(jdbc, VICTIM_BASE + victims++ * VICTIM_STRIDE,
+                eventsPerUser, participantsPerEvent, SCALE.users());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public AdminJob.Status ban() throws InterruptedException {
+        AdminJob job = userService.banUser(victim, SCALE.adminId());
+        while (job.getStatus() != AdminJob.Status.COMPLETED && job.getStatus() != AdminJob.Status.FAILED) {
+            Thread.sleep(1);
+        }
+        if (job.getStatus() == AdminJob.Status.FAILED) {
+            throw new IllegalStateException("Cancellazione fallita: " + job.getError());
+        }
+        return job.getStatus();
+    }
+}
@@ -0,0 +1,64 @@
+package com.socialpizza.benchmarks;
+
+import com.socialpizza.backend.SocialpizzaApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Avvia il backend su un database H2 creato dalle migrazioni Flyway.
+ * database è un nome di database in memoria ("join") oppure un URL H2 completo dopo "jdbc:h2:" ("file:./target/load").
+ */
+final class BenchmarkApp {
+
+    private BenchmarkApp() {}
+
+    /**
+     * Solo il contesto Spring, senza server HTTP: per i microbenchmark sui service.
+     */
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        return builder(database, WebApplicationType.NONE).properties(properties).run();
+    }
+
+    /**
+     * Backend completo con Tomcat su una porta libera (vedi {@link #port}): per il load test HTTP.
+     */
+    static ConfigurableApplicationContext startServer(String database, String... properties) {
+        return builder(database, WebApplicationType.SERVLET)
+                .properties("server.port=0")
+                .properties(properties)
+                .run();
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+    }
+
+    private static SpringApplicationBuilder builder(String database, WebApplicationType type) {
+        String url = database.contains(":") ? database : "mem:" + database;
+        return new SpringApplicationBuilder(SocialpizzaApplication.class)
+                .web(type)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:" + url + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                        "h2.tcp.enabled=false",
+                        "rate-limit.enabled=false",
+                        // I dati generati hanno date fisse: l'archiviazione periodica li sposterebbe durante la misura
+                        "archive.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        // Costo minimo di bcrypt: i benchmark misurano il resto del percorso
+                        "auth.hashing.bcrypt-strength=4",
+                        // Chiave casuale a ogni avvio per i benchmark in modalità token (risolve ${AUTH_TOKEN_KEY_K1:})
+                        "AUTH_TOKEN_KEY_K1=" + randomKey());
+    }
+
+    private static String randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return Base64.getEncoder().encodeToString(key);
+    }
+}
@@ -0,0 +1,164 @@
+package com.socialpizza.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Popola il database con dati generati direttamente in SQL (SYSTEM_RANGE di H2), senza passare da JPA:
+ * INSERT ... SELECT a blocchi, senza controlli delle chiavi esterne, quindi anche milioni di righe
+ * si caricano in pochi minuti. A parità di scala i dati generati sono sempre gli stessi.
+ * <p>
+ * Id e ruoli seguono uno schema fisso: gli utenti 1..restaurants sono RISTORATORE e proprietari
+ * del locale con lo stesso id, l'utente restaurants + 1 è ADMIN, gli altri sono UTENTE.
+ * Gli eventi ciclano su stato (metà APPROVED, un quarto PENDING, un quarto REJECTED), locale, categoria e data;
+ * ogni evento approvato ha participantsPerEvent iscritti distinti tra gli utenti semplici.
+ */
+final class DataSeeder {
+
+    record Scale(int cities, int categories, int users, int restaurants, int events,
+                 int participantsPerEvent, int maxParticipants) {
+
+        /**
+         * Volumi predefiniti per il load test. "production" corrisponde alla scala attesa in esercizio
+         * (1M utenti, 50k locali, 500k eventi, 20M iscrizioni) e richiede un database su file o molta memoria.
+         */
+        static Scale preset(String name) {
+            return switch (name) {
+                case "tiny" -> new Scale(20, 5, 1_000, 50, 2_000, 10, 40);
+                case "small" -> new Scale(100, 10, 20_000, 1_000, 20_000, 20, 40);
+                case "medium" -> new Scale(300, 15, 200_000, 10_000, 100_000, 40, 60);
+                case "production" -> new Scale(500, 20, 1_000_000, 50_000, 500_000, 80, 100);
+                default -> throw new IllegalArgumentException("Scala sconosciuta: " + name
+                        + " (tiny, small, medium, production)");
+            };
+        }
+
+        long adminId() {
+            return restaurants + 1L;
+        }
+
+        // Primo utente con ruolo UTENTE
+        long firstPlainUserId() {
+            return restaurants + 2L;
+        }
+
+        int plainUsers() {
+            return users - restaurants - 1;
+        }
+
+        long participations() {
+            return (long) approvedEvents() * participantsPerEvent;
+        }
+
+        int approvedEvents() {
+            return events / 2;
+        }
+    }
+
+    private static final String[] TABLES = {
+            "app_user", "category", "city", "restaurant", "social_event", "participation"
+    };
+
+    // Deve coincidere con allocationSize delle @SequenceGenerator sulle entità
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Righe per INSERT ... SELECT: transazioni più piccole tengono bassa la memoria di H2 sui volumi grandi
+    private static final int CHUNK = 100_000;
+
+    private DataSeeder() {}
+
+    static void seed(JdbcTemplate jdbc, Scale scale) {
+        seed(jdbc, scale, "password123");
+    }
+
+    /**
+     * Come {@link #seed(JdbcTemplate, Scale)}, con la stessa password (già codificata) per tutti gli utenti.
+     */
+    static void seed(JdbcTemplate jdbc, Scale scale, String password) {
+        // I dati generati sono coerenti per costruzione: i controlli delle chiavi esterne si saltano
+        jdbc.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            insert(jdbc, scale.cities(), "INSERT INTO city (id, name, cap) " +
+                    "SELECT X, 'Città ' || X, LPAD(X, 5, '0') FROM SYSTEM_RANGE(?, ?)");
+            insert(jdbc, scale.categories(), "INSERT INTO category (id, name, description) " +
+                    "SELECT X, 'Tema ' || X, 'Tema generato' FROM SYSTEM_RANGE(?, ?)");
+            insert(jdbc, scale.users(), "INSERT INTO app_user (id, name, surname, email, password, role) " +
+                            "SELECT X, 'Utente' || X, 'Bench', 'utente' || X || '@bench.it', ?, " +
+                            "CASE WHEN X <= ? THEN 'RISTORATORE' WHEN X = ? THEN 'ADMIN' ELSE 'UTENTE' END " +
+                            "FROM SYSTEM_RANGE(?, ?)",
+                    password, scale.restaurants(), scale.adminId());
+            insert(jdbc, scale.restaurants(), "INSERT INTO restaurant (id, name, address, max_capacity, city_id, owner_id) " +
+                            "SELECT X, 'Pizzeria ' || X, 'via dei Forni ' || X, ?, MOD(X - 1, ?) + 1, X FROM SYSTEM_RANGE(?, ?)",
+                    scale.maxParticipants(), scale.cities());
+            insert(jdbc, scale.events(), "INSERT INTO social_event (id, title, description, event_date, max_participants, " +
+                            "reserved_seats, status, organizer_id, restaurant_id, category_id) " +
+                            "SELECT X, 'Serata ' || X, 'Evento generato numero ' || X, DATEADD('DAY', MOD(X, 365) + 1, CURRENT_TIMESTAMP), ?, " +
+                            "CASE WHEN MOD(X, 4) > 1 THEN ? ELSE 0 END, " +
+                            "CASE MOD(X, 4) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END, " +
+                            "MOD(X - 1, ?) + 1, MOD(X - 1, ?) + 1, MOD(X - 1, ?) + 1 FROM SYSTEM_RANGE(?, ?)",
+                    scale.maxParticipants(), scale.participantsPerEvent(),
+                    scale.users(), scale.restaurants(), scale.categories());
+            if (scale.participantsPerEvent() > 0) {
+                // Iscritti scelti tra gli utenti semplici, distinti per evento finché participantsPerEvent <= plainUsers
+                int eventsPerChunk = Math.max(1, CHUNK / scale.participantsPerEvent());
+                insert(jdbc, scale.events(), eventsPerChunk, "INSERT INTO participation (id, event_id, user_id, registration_date) " +
+                                "SELECT (e.X - 1) * ? + p.X, e.X, ? + MOD(e.X * 7 + p.X, ?), CURRENT_TIMESTAMP " +
+                                "FROM SYSTEM_RANGE(?, ?) e, SYSTEM_RANGE(1, ?) p WHERE MOD(e.X, 4) > 1",
+                        new Object[]{scale.participantsPerEvent(), scale.firstPlainUserId(), scale.plainUsers()},
+                        scale.participantsPerEvent());
+            }
+        } finally {
+            jdbc.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+        restartSequences(jdbc);
+    }
+
+    /**
+     * Aggiunge un ristoratore con il suo locale, events eventi approvati e participantsPerEvent iscritti ciascuno,
+     * con id a partire da baseId (fuori dagli intervalli usati da seed). Restituisce l'id dell'utente.
+     */
+    static long seedOrganizer(JdbcTemplate jdbc, long baseId, int events, int participantsPerEvent, int existingUsers) {
+        jdbc.update("INSERT INTO app_user (id, name, surname, email, password, role) VALUES (?, 'Da bannare', 'Bench', ?, 'password123', 'RISTORATORE')",
+                baseId, "ban" + baseId + "@bench.it");
+        jdbc.update("INSERT INTO restaurant (id, name, address, max_capacity, city_id, owner_id) VALUES (?, 'Pizzeria da bannare', 'via del Ban', ?, 1, ?)",
+                baseId, participantsPerEvent + 1, baseId);
+        jdbc.update("INSERT INTO social_event (id, title, event_date, max_participants, reserved_seats, status, " +
+                        "organizer_id, restaurant_id, category_id) " +
+                        "SELECT ? + X, 'Serata da cancellare', DATEADD('DAY', 7, CURRENT_TIMESTAMP), ?, ?, 'APPROVED', ?, ?, 1 " +
+                        "FROM SYSTEM_RANGE(1, ?)",
+                baseId, participantsPerEvent + 1, participantsPerEvent, baseId, baseId, events);
+        jdbc.update("INSERT INTO participation (id, event_id, user_id, registration_date) " +
+                        "SELECT ? + (e.X - 1) * ? + p.X, ? + e.X, MOD(e.X + p.X, ?) + 1, CURRENT_TIMESTAMP " +
+                        "FROM SYSTEM_RANGE(1, ?) e, SYSTEM_RANGE(1, ?) p",
+                baseId, participantsPerEvent, baseId, existingUsers, events, participantsPerEvent);
+        return baseId;
+    }
+
+    private static void insert(JdbcTemplate jdbc, int total, String sql, Object... leading) {
+        insert(jdbc, total, CHUNK, sql, leading);
+    }
+
+    /**
+     * Esegue sql a blocchi di chunk valori di X: i parametri sono leading, poi l'intervallo (da, a), poi trailing.
+     */
+    private static void insert(JdbcTemplate jdbc, int total, int chunk, String sql, Object[] leading, Object... trailing) {
+        for (long from = 1; from <= total; from += chunk) {
+            long to = Math.min(total, from + chunk - 1);
+            Object[] args = new Object[leading.length + 2 + trailing.length];
+            System.arraycopy(leading, 0, args, 0, leading.length);
+            args[leading.length] = from;
+            args[leading.length + 1] = to;
+            System.arraycopy(trailing, 0, args, leading.length + 2, trailing.length);
+            jdbc.update(sql, args);
+        }
+    }
+
+    /**
+     * Le sequenze devono ripartire dopo gli id inseriti a mano, come in data.sql.
+     */
+    static void restartSequences(JdbcTemplate jdbc) {
+        for (String table : TABLES) {
+            Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            jdbc.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (maxId + ALLOCATION_SIZE));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.socialpizza.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.service.EventService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codifiche della bacheca a confronto: JSON e CBOR, con e senza gzip, sulle stesse pagine di EventView.
+ * Misura la CPU lato server (serializzazione, compressione) e lato client (lettura come albero generico);
+ * i byte trasferiti per pagina vengono stampati all'avvio di ogni combinazione di parametri.
+ * I mapper sono quelli dei convertitori HTTP dell'applicazione.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"json", "cbor"})
+    public String encoding;
+
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper mapper;
+    private List<EventView> page;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = BenchmarkApp.start("encoding");
+        DataSeeder.seed(context.getBean(JdbcTemplate.class), DataSeeder.Scale.preset("tiny"));
+        mapper = "cbor".equals(encoding)
+                ? context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper()
+                : context.getBean(ObjectMapper.class);
+        page = context.getBean(EventService.class).getApprovedOrPendingEvents().subList(0, pageSize);
+
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d eventi: %d byte, %d byte con gzip%n",
+                encoding, pageSize, encoded.length, gzip(encoded).length);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    // Risposta oltre la soglia di server.compression: serializzazione più gzip
+    @Benchmark
+    public byte[] serializeAndCompress() throws IOException {
+        return gzip(mapper.writeValueAsBytes(page));
+    }
+
+    // Costo per il client: lettura senza classi dedicate, come un client generico
+    @Benchmark
+    public JsonNode parse() throws IOException {
+        return mapper.readTree(encoded);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
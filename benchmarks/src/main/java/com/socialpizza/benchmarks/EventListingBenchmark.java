@@ -0,0 +1,47 @@
+package com.socialpizza.benchmarks;
+
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.service.EventService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lista completa di eventi approvati e in attesa (getApprovedOrPendingEvents) al crescere della tabella.
+ * Tre eventi su quattro rientrano nel risultato.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventListingBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int events;
+
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApp.start("listing" + events);
+        DataSeeder.seed(context.getBean(JdbcTemplate.class),
+                new DataSeeder.Scale(50, 10, 5_000, 200, events, 5, 40));
+        eventService = context.getBean(EventService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EventView> approvedOrPending() {
+        return eventService.getApprovedOrPendingEvents();
+    }
+}
@@ -0,0 +1,81 @@
+package com.socialpizza.benchmarks;
+
+import com.socialpizza.backend.service.EventService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Iscrizione e disiscrizione (joinEvent + leaveEvent) da 8 thread.
+ * uncontended: ogni thread usa un evento diverso, il costo è quello di due transazioni.
+ * contended: tutti i thread sullo stesso evento, si serializzano sul lock di riga del contatore posti.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(JoinEventBenchmark.THREADS)
+public class JoinEventBenchmark {
+
+    static final int THREADS = 8;
+
+    private static final DataSeeder.Scale SCALE = new DataSeeder.Scale(10, 5, 2_000, 50, 1_000, 0, 1_000_000);
+
+    private ConfigurableApplicationContext context;
+    private EventService eventService;
+    private final AtomicLong nextThread = new AtomicLong();
+
+    // Un evento approvato per thread, più uno condiviso: mod(id, 4) > 1 => APPROVED
+    private long[] ownEvents;
+    private long hotEvent;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApp.start("join");
+        DataSeeder.seed(context.getBean(JdbcTemplate.class), SCALE);
+        eventService = context.getBean(EventService.class);
+        ownEvents = new long[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            ownEvents[i] = 4L * (i + 1) + 2;
+        }
+        hotEvent = 3;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Ogni thread agisce come un utente diverso, quindi le iscrizioni non violano il vincolo UNIQUE.
+     */
+    @State(Scope.Thread)
+    public static class Caller {
+        long userId;
+        long ownEvent;
+
+        @Setup(Level.Trial)
+        public void assign(JoinEventBenchmark benchmark) {
+            int index = (int) benchmark.nextThread.getAndIncrement();
+            userId = SCALE.firstPlainUserId() + index;
+            ownEvent = benchmark.ownEvents[index % THREADS];
+        }
+    }
+
+    @Benchmark
+    public void uncontended(Caller caller) {
+        eventService.joinEvent(caller.userId, caller.ownEvent);
+        eventService.leaveEvent(caller.userId, caller.ownEvent);
+    }
+
+    @Benchmark
+    public void contended(Caller caller) {
+        eventService.joinEvent(caller.userId, hotEvent);
+        eventService.leaveEvent(caller.userId, hotEvent);
+    }
+}
@@ -0,0 +1,73 @@
+package com.socialpizza.benchmarks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latenze del load test raggruppate per endpoint (metodo + percorso con i parametri generici, es. "POST /api/events/{id}/join").
+ * Tiene tutti i campioni: i percentili sono esatti e la memoria resta contenuta anche per milioni di richieste.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, int status) {
+        series.computeIfAbsent(endpoint, k -> new Series()).add(nanos, status);
+    }
+
+    /**
+     * Richiesta fallita senza risposta (connessione rifiutata, timeout).
+     */
+    void failed(String endpoint, long nanos) {
+        record(endpoint, nanos, 0);
+    }
+
+    String report(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        StringBuilder out = new StringBuilder(String.format("%-48s %9s %9s %9s %9s %9s %9s %6s %6s %6s%n",
+                "endpoint", "richieste", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "4xx", "5xx", "errori"));
+        long total = 0;
+        for (Map.Entry<String, Series> entry : new TreeMap<>(series).entrySet()) {
+            Series s = entry.getValue();
+            long[] sorted = s.sorted();
+            total += sorted.length;
+            out.append(String.format("%-48s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %6d %6d %6d%n",
+                    entry.getKey(), sorted.length, sorted.length / seconds,
+                    millis(sorted, 50), millis(sorted, 95), millis(sorted, 99), millis(sorted, 100),
+                    s.clientErrors, s.serverErrors, s.failures));
+        }
+        out.append(String.format("totale: %d richieste in %.1f s, %.1f req/s%n", total, seconds, total / seconds));
+        return out.toString();
+    }
+
+    private static double millis(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) return 0;
+        int index = Math.min(sortedNanos.length - 1, (int) ((long) sortedNanos.length * percentile / 100));
+        return sortedNanos[index] / 1_000_000.0;
+    }
+
+    private static class Series {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long clientErrors;
+        private long serverErrors;
+        private long failures;
+
+        synchronized void add(long latency, int status) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = latency;
+            if (status == 0) failures++;
+            else if (status >= 500) serverErrors++;
+            else if (status >= 400) clientErrors++;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
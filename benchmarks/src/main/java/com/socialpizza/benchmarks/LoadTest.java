@@ -0,0 +1,261 @@
+package com.socialpizza.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialpizza.backend.search.EventSearchIndex;
+import com.socialpizza.backend.service.PasswordHasher;
+import com.socialpizza.backend.service.PlatformStats;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test HTTP del backend completo (Tomcat + H2) su una sola macchina, senza rete esterna.
+ * <p>
+ * Genera i dati con {@link DataSeeder} alla scala scelta (saltato se il database su file è già popolato),
+ * poi fa girare tre tipi di utenti virtuali, ognuno con il proprio cookie di sessione:
+ * <ul>
+ *   <li>utenti: bacheca (anche filtrata per città), iscrizione e disiscrizione a eventi approvati;</li>
+ *   <li>ristoratori: dashboard e decisione sulle proposte in attesa dei propri locali;</li>
+ *   <li>admin: ban di un utente e attesa del job di cancellazione a cascata.</li>
+ * </ul>
+ * Dopo un riscaldamento non misurato stampa throughput e percentili p50/p95/p99 per endpoint.
+ * <p>
+ * Parametri chiave=valore, tutti facoltativi:
+ * scale (tiny, small, medium, production; default small), db (nome in memoria o URL H2, es. file:./target/load),
+ * users, restaurateurs, admins (utenti virtuali), warmup e duration (secondi), auth (session o token).
+ * <pre>
+ * mvn -f benchmarks/pom.xml package exec:exec@load -Dload.args="scale=medium db=file:./target/load duration=120"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "password123";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final DataSeeder.Scale scale;
+    private final String baseUrl;
+    private final AtomicLong nextVictim;
+    private volatile LatencyRecorder recorder = new LatencyRecorder();
+    private volatile boolean running = true;
+
+    private LoadTest(DataSeeder.Scale scale, int port) {
+        this.scale = scale;
+        this.baseUrl = "http://localhost:" + port;
+        // Gli admin bannano a partire dall'ultimo utente, lontano da quelli usati dagli utenti virtuali
+        this.nextVictim = new AtomicLong(scale.users());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2) throw new IllegalArgumentException("Parametro non valido: " + arg + " (atteso chiave=valore)");
+            options.put(pair[0], pair[1]);
+        }
+        DataSeeder.Scale scale = DataSeeder.Scale.preset(options.getOrDefault("scale", "small"));
+        int users = Integer.parseInt(options.getOrDefault("users", "32"));
+        int restaurateurs = Integer.parseInt(options.getOrDefault("restaurateurs", "4"));
+        int admins = Integer.parseInt(options.getOrDefault("admins", "1"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        if (users + 1 > scale.plainUsers() || restaurateurs > scale.restaurants()) {
+            throw new IllegalArgumentException("Troppi utenti virtuali per la scala scelta");
+        }
+
+        ConfigurableApplicationContext context = BenchmarkApp.startServer(options.getOrDefault("db", "loadtest"),
+                "auth.mode=" + options.getOrDefault("auth", "session"));
+        try {
+            prepareData(context, scale);
+            new LoadTest(scale, BenchmarkApp.port(context)).run(users, restaurateurs, admins, warmup, duration);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void prepareData(ConfigurableApplicationContext context, DataSeeder.Scale scale) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Long existing = jdbc.queryForObject("SELECT COUNT(*) FROM app_user", Long.class);
+        if (existing != null && existing > 0) {
+            System.out.printf("Database già popolato (%d utenti): generazione saltata%n", existing);
+        } else {
+            long start = System.nanoTime();
+            // Un solo hash bcrypt per tutti: il login verifica una password vera senza ricalcolarla
+            String hash = context.getBean(PasswordHasher.class).encode(PASSWORD).join();
+            DataSeeder.seed(jdbc, scale, hash);
+            System.out.printf("Generati %d utenti, %d locali, %d eventi, %d iscrizioni in %.1f s%n",
+                    scale.users(), scale.restaurants(), scale.events(), scale.participations(),
+                    (System.nanoTime() - start) / 1e9);
+        }
+        // Indice di ricerca e statistiche sono costruiti all'avvio, prima dei dati generati
+        context.getBean(EventSearchIndex.class).rebuild();
+        context.getBean(PlatformStats.class).reconcile();
+    }
+
+    private void run(int users, int restaurateurs, int admins, Duration warmup, Duration duration) throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            long userId = scale.firstPlainUserId() + i;
+            threads.add(virtualUser("utente-" + i, userId, this::browse));
+        }
+        for (int i = 0; i < restaurateurs; i++) {
+            threads.add(virtualUser("ristoratore-" + i, i + 1L, this::moderate));
+        }
+        for (int i = 0; i < admins; i++) {
+            threads.add(virtualUser("admin-" + i, scale.adminId(), this::ban));
+        }
+        threads.forEach(Thread::start);
+
+        System.out.printf("Riscaldamento: %d s con %d utenti, %d ristoratori, %d admin%n",
+                warmup.toSeconds(), users, restaurateurs, admins);
+        Thread.sleep(warmup.toMillis());
+        recorder = new LatencyRecorder();
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        LatencyRecorder measured = recorder;
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        running = false;
+        for (Thread thread : threads) thread.join();
+
+        System.out.println();
+        System.out.print(measured.report(elapsed));
+    }
+
+    private interface Scenario {
+        void step(Session session) throws IOException, InterruptedException;
+    }
+
+    private Thread virtualUser(String name, long userId, Scenario scenario) {
+        return new Thread(() -> {
+            Session session = new Session();
+            try {
+                session.login(userId);
+                while (running) {
+                    scenario.step(session);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                System.err.println(name + " interrotto: " + e.getMessage());
+            }
+        }, name);
+    }
+
+    // --- Scenari ---
+
+    private void browse(Session session) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int choice = random.nextInt(10);
+        if (choice < 6) {
+            session.send("GET /api/events/feed", get("/api/events/feed?size=20"));
+        } else if (choice < 8) {
+            long cityId = 1 + random.nextInt(scale.cities());
+            session.send("GET /api/events/feed?cityId", get("/api/events/feed?size=20&cityId=" + cityId));
+        } else {
+            // Gli id con resto 2 o 3 modulo 4 sono eventi approvati (vedi DataSeeder)
+            long eventId = 4L * random.nextInt(Math.max(1, scale.events() / 4)) + 2 + random.nextInt(2);
+            if (eventId > scale.events()) return;
+            HttpResponse<String> joined = session.send("POST /api/events/{id}/join",
+                    HttpRequest.newBuilder(uri("/api/events/" + eventId + "/join")).POST(HttpRequest.BodyPublishers.noBody()).build());
+            // 400 = evento pieno o già iscritto: la risposta è comunque misurata
+            if (joined != null && joined.statusCode() == 200) {
+                session.send("DELETE /api/events/{id}/leave",
+                        HttpRequest.newBuilder(uri("/api/events/" + eventId + "/leave")).DELETE().build());
+            }
+        }
+    }
+
+    private void moderate(Session session) throws IOException, InterruptedException {
+        session.send("GET /api/events/dashboard/restaurateur", get("/api/events/dashboard/restaurateur"));
+        HttpResponse<String> pending = session.send("GET /api/events/pending/for-restaurateur",
+                get("/api/events/pending/for-restaurateur"));
+        if (pending == null || pending.statusCode() != 200) return;
+        JsonNode events = JSON.readTree(pending.body());
+        if (events.isEmpty()) return;
+        long eventId = events.get(0).get("id").asLong();
+        String decision = ThreadLocalRandom.current().nextBoolean() ? "APPROVED" : "REJECTED";
+        session.send("PATCH /api/events/{id}/moderator/decision",
+                HttpRequest.newBuilder(uri("/api/events/" + eventId + "/moderator/decision?decision=" + decision))
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    private void ban(Session session) throws IOException, InterruptedException {
+        long victim = nextVictim.getAndDecrement();
+        HttpResponse<String> accepted = session.send("DELETE /api/admin/users/{id}/ban",
+                HttpRequest.newBuilder(uri("/api/admin/users/" + victim + "/ban")).DELETE().build());
+        if (accepted == null || accepted.statusCode() != 202) return;
+        String jobId = JSON.readTree(accepted.body()).get("id").asText();
+        while (running) {
+            HttpResponse<String> job = session.send("GET /api/admin/jobs/{id}", get("/api/admin/jobs/" + jobId));
+            if (job == null || job.statusCode() != 200) return;
+            String status = JSON.readTree(job.body()).get("status").asText();
+            if ("COMPLETED".equals(status) || "FAILED".equals(status)) break;
+            Thread.sleep(50);
+        }
+        // Un ban al secondo per admin: in esercizio è un'operazione rara
+        Thread.sleep(1000);
+    }
+
+    // --- HTTP ---
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    /**
+     * Client HTTP di un utente virtuale, con i suoi cookie (sessione o token).
+     */
+    private class Session {
+        private final HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        void login(long userId) throws IOException, InterruptedException {
+            String body = "{\"email\":\"utente" + userId + "@bench.it\",\"password\":\"" + PASSWORD + "\"}";
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            // Con molti utenti virtuali il pool di hashing può rispondere 503: si riprova
+            for (int attempt = 0; attempt < 20; attempt++) {
+                HttpResponse<String> response = send("POST /api/auth/login", request);
+                if (response != null && response.statusCode() == 200) return;
+                Thread.sleep(100L * (attempt + 1));
+            }
+            throw new IOException("login non riuscito per l'utente " + userId);
+        }
+
+        /**
+         * Invia la richiesta e ne registra la latenza; null se non è arrivata risposta.
+         */
+        HttpResponse<String> send(String endpoint, HttpRequest request) throws InterruptedException {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                recorder.record(endpoint, System.nanoTime() - start, response.statusCode());
+                return response;
+            } catch (IOException e) {
+                recorder.failed(endpoint, System.nanoTime() - start);
+                return null;
+            }
+        }
+    }
+}
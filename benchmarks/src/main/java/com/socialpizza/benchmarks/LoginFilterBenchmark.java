@@ -0,0 +1,101 @@
+package com.socialpizza.benchmarks;
+
+import com.socialpizza.backend.entity.AppUser;
+import com.socialpizza.backend.filter.LoginFilter;
+import com.socialpizza.backend.repository.AppUserRepository;
+import com.socialpizza.backend.session.SessionPrincipals;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput di LoginFilter.doFilter, senza Tomcat, nelle due modalità di autenticazione:
+ * sessione (istantanea in HttpSession) e token (verifica HMAC del cookie a ogni richiesta).
+ * Ogni invocazione costruisce una richiesta nuova, come farebbe il container, quindi la memoizzazione
+ * per richiesta di SessionPrincipals non falsa il risultato.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoginFilterBenchmark {
+
+    private static final String COOKIE_NAME = "SOCIAL_SESSION_COOKIE";
+    private static final FilterChain PASS = (request, response) -> {};
+
+    @Param({"SESSION", "TOKEN"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private LoginFilter filter;
+
+    // Credenziali ottenute con un login vero: sessione in modalità SESSION, cookie firmato in modalità TOKEN
+    private MockHttpSession session;
+    private Cookie token;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApp.start("filter" + mode, "auth.mode=" + mode.toLowerCase());
+        DataSeeder.seed(context.getBean(JdbcTemplate.class), new DataSeeder.Scale(1, 1, 10, 1, 0, 0, 10));
+        filter = context.getBean(LoginFilter.class);
+
+        AppUser user = context.getBean(AppUserRepository.class).findById(3L).orElseThrow();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        context.getBean(SessionPrincipals.class).login(user, request, response);
+        session = (MockHttpSession) request.getSession(false);
+        token = response.getCookie(COOKIE_NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int authenticated() throws Exception {
+        MockHttpServletRequest request = request("/api/events/feed");
+        if (session != null) request.setSession(session);
+        if (token != null) request.setCookies(token);
+        return filter(request);
+    }
+
+    @Benchmark
+    public int anonymousPublicPath() throws Exception {
+        return filter(request("/api/resources/cities"));
+    }
+
+    @Benchmark
+    public int anonymousRejected() throws Exception {
+        return filter(request("/api/events/feed"));
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private int filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            filter.doFilter(request, response, PASS);
+            return response.getStatus();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
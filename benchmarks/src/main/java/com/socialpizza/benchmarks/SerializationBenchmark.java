@@ -0,0 +1,76 @@
+package com.socialpizza.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.socialpizza.backend.dto.EventView;
+import com.socialpizza.backend.entity.Participation;
+import com.socialpizza.backend.entity.SocialEvent;
+import com.socialpizza.backend.repository.ParticipationRepository;
+import com.socialpizza.backend.repository.SocialEventRepository;
+import com.socialpizza.backend.service.EventService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializzazione JSON con l'ObjectMapper dell'applicazione (stessi moduli e filtri dei controller).
+ * Confronta entità SocialEvent con tutto il grafo EAGER (locale, proprietario, città, organizzatore),
+ * le proiezioni EventView usate dalle liste e i grafi Participation (evento + utente).
+ * I dati sono caricati una volta: si misura solo Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "200"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+
+    private List<SocialEvent> events;
+    private List<EventView> views;
+    private List<Participation> participations;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApp.start("serialization");
+        DataSeeder.seed(context.getBean(JdbcTemplate.class),
+                new DataSeeder.Scale(20, 5, 1_000, 50, 2_000, 5, 40));
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        PageRequest page = PageRequest.of(0, pageSize, Sort.by("id"));
+        events = context.getBean(SocialEventRepository.class).findAll(page).getContent();
+        views = context.getBean(EventService.class).getApprovedOrPendingEvents().subList(0, pageSize);
+        participations = context.getBean(ParticipationRepository.class).findAll(page).getContent();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] eventEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(events);
+    }
+
+    @Benchmark
+    public byte[] eventViews() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public byte[] participationGraphs() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(participations);
+    }
+}
@@ -25,6 +25,43 @@ interface AdminRestaurant {
     owner: AdminUser | null;
 }
 
+// Statistiche aggregate della piattaforma (GET /api/admin/stats)
+interface PlatformStats {
+    totalEvents: number;
+    totalUsers: number;
+    eventsByStatus: Record<string, number>;
+    eventsByCity: { id: number; name: string; events: number }[];
+    eventsByCategory: { id: number; name: string; events: number }[];
+    eventsByMonth: Record<string, number>;
+    approvalRate: number;
+    rejectionRate: number;
+    fillRate: number;
+    topRestaurants: { id: number; name: string; approvedEvents: number; reservedSeats: number; fillRate: number }[];
+    usersByRole: Record<string, number>;
+}
+
+const percent = (value: number) => `${Math.round(value * 100)}%`;
+
+// Job di cancellazione eseguito in background dal server (ban utente, rimozione ristorante)
+interface AdminJob {
+    id: string;
+    status: "QUEUED" | "RUNNING" | "COMPLETED" | "FAILED";
+    error: string | null;
+}
+
+// Attende la fine del job restituito da una risposta 202, interrogandone lo stato
+async function waitForJob(res: Response): Promise<void> {
+    if (res.status !== 202) return;
+    let job: AdminJob = await res.json();
+    while (job.status === "QUEUED" || job.status === "RUNNING") {
+        await new Promise((resolve) => setTimeout(resolve, 500));
+        const poll = await fetch(`${API_ADMIN}/jobs/${job.id}`, { credentials: "include" });
+        if (!poll.ok) throw new Error(await poll.text());
+        job = await poll.json();
+    }
+    if (job.status === "FAILED") throw new Error(job.error ?? "Operazione non riuscita");
+}
+
 interface CreateUserForm {
     name: string;
     surname: string;
@@ -56,6 +93,7 @@ export function AdminDashboard() {
     const [restaurants, setRestaurants] = useState<AdminRestaurant[]>([]);
     const [categories, setCategories] = useState<Category[]>([]);
     const [cities, setCities] = useState<City[]>([]);
+    const [stats, setStats] = useState<PlatformStats | null>(null);
 
     // Stati UI generali
     const [loading, setLoading] = useState(true);
@@ -144,6 +182,10 @@ export function AdminDashboard() {
             });
             setCategories(sortedCats);
             setCities(await citiesRes.json());
+
+            // Le statistiche sono facoltative: se non arrivano il resto della dashboard resta utilizzabile
+            const statsRes = await fetch(`${API_ADMIN}/stats`, { credentials: "include" });
+            if (statsRes.ok) setStats(await statsRes.json());
         } catch (err: unknown) {
             const msg = err instanceof Error ? err.message : "Errore sconosciuto";
             setGeneralError(msg);
@@ -216,6 +258,7 @@ export function AdminDashboard() {
                 credentials: "include",
             });
             if (!res.ok) throw new Error(await res.text());
+            await waitForJob(res);
             await loadData();
         } catch (err: unknown) {
             const msg = err instanceof Error ? err.message : "Errore eliminazione utente";
@@ -268,6 +311,7 @@ export function AdminDashboard() {
                 credentials: "include",
             });
             if (!res.ok) throw new Error(await res.text());
+            await waitForJob(res);
             await loadData();
         } catch (err: unknown) {
             const msg = err instanceof Error ? err.message : "Errore eliminazione ristorante";
@@ -341,6 +385,23 @@ export function AdminDashboard() {
                 </div>
             )}
 
+            {/* Riepilogo: statistiche aggregate calcolate dal server */}
+            {stats && (
+                <section className="admin-card" style={{ gridColumn: "1 / -1" }}>
+                    <header>
+                        <h3>Statistiche</h3>
+                        <p>{stats.totalEvents} eventi, {stats.totalUsers} utenti</p>
+                    </header>
+                    <div className="list">
+                        <p><strong>Approvazione:</strong> {percent(stats.approvalRate)} · <strong>Rifiuto:</strong> {percent(stats.rejectionRate)} · <strong>Riempimento medio:</strong> {percent(stats.fillRate)}</p>
+                        <p><strong>Per città:</strong> {stats.eventsByCity.map(c => `${c.name} (${c.events})`).join(", ") || "-"}</p>
+                        <p><strong>Per tema:</strong> {stats.eventsByCategory.map(c => `${c.name} (${c.events})`).join(", ") || "-"}</p>
+                        <p><strong>Per mese:</strong> {Object.entries(stats.eventsByMonth).map(([m, n]) => `${m}: ${n}`).join(", ") || "-"}</p>
+                        <p><strong>Pizzerie più frequentate:</strong> {stats.topRestaurants.map(r => `${r.name} (${r.reservedSeats} posti, ${percent(r.fillRate)})`).join(", ") || "-"}</p>
+                    </div>
+                </section>
+            )}
+
             {/* Sezione 1: Gestione utenti - crea nuovi utenti, modifica ruoli, elimina utenti */}
             <section className="admin-card">
                 <header>
@@ -1,37 +1,52 @@
-import { useEffect, useState } from "react";
-import type { SocialEvent } from "../types";
+import { useEffect, useRef, useState } from "react";
+import type { EventPage, FeedEvent, LiveUpdate } from "../types";
 import "./EventBoard.css";
 import { EventCard } from "./EventCard";
 import { EventFilters, type FilterState } from "./EventFilters";
 
+const PAGE_SIZE = 30;
+
+// Costruisce la query string per /api/events/feed a partire dai filtri
+function buildFeedQuery(filters: FilterState | null, cursor: string | null): string {
+    const params = new URLSearchParams({ size: String(PAGE_SIZE) });
+    if (filters?.searchText) params.set("q", filters.searchText);
+    if (filters && filters.category > 0) params.set("categoryId", String(filters.category));
+    if (filters && filters.city > 0) params.set("cityId", String(filters.city));
+    if (filters?.dateFrom) {
+        params.set("from", filters.dateFrom);
+        params.set("to", filters.dateFrom);
+    }
+    if (cursor) params.set("cursor", cursor);
+    return params.toString();
+}
+
 // visualizzare e gestire gli eventi pubblici
 export function EventBoard() {
-    // Liste degli eventi: tutti gli eventi e quelli filtrati
-    const [events, setEvents] = useState<SocialEvent[]>([]);  // Tutti gli eventi approvati
-    const [filteredEvents, setFilteredEvents] = useState<SocialEvent[]>([]);  // Eventi dopo applicazione filtri
-    const [joinedEventIds, setJoinedEventIds] = useState<Set<number>>(new Set());  // Set di ID degli eventi a cui l'utente ha aderito
-    
+    // Eventi già caricati (filtrati dal server) e cursore della pagina successiva
+    const [events, setEvents] = useState<FeedEvent[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [filters, setFilters] = useState<FilterState | null>(null);  // Filtri correnti
+    // Filtri più recenti per il resync dello stream, che non va riaperto a ogni modifica dei filtri
+    const filtersRef = useRef<FilterState | null>(null);
+    filtersRef.current = filters;
+
     // Stati UI
     const [loading, setLoading] = useState(true);  // Indica se i dati sono ancora in caricamento
     const [error, setError] = useState("");  // Messaggio di errore
 
-    // Carica gli eventi pubblici e quelli a cui l'utente ha aderito
-    const fetchData = async () => {
+    // Carica una pagina della bacheca; con append aggiunge i risultati a quelli già mostrati
+    const fetchPage = async (currentFilters: FilterState | null, cursor: string | null, append: boolean) => {
         try {
-            const [publicRes, joinedRes] = await Promise.all([
-                fetch("http://localhost:8081/api/events/public", { credentials: "include" }),
-                fetch("http://localhost:8081/api/events/joined", { credentials: "include" })
-            ]);
-
-            if (publicRes.ok && joinedRes.ok) {
-                const publicData = await publicRes.json();
-                const joinedData: SocialEvent[] = await joinedRes.json();
-
-                setEvents(publicData);
-                setFilteredEvents(publicData);
+            const res = await fetch(
+                `http://localhost:8081/api/events/feed?${buildFeedQuery(currentFilters, cursor)}`,
+                { credentials: "include" }
+            );
 
-                const ids = new Set(joinedData.map(e => e.id));
-                setJoinedEventIds(ids);
+            if (res.ok) {
+                const page: EventPage<FeedEvent> = await res.json();
+                setEvents(prev => append ? [...prev, ...page.items] : page.items);
+                setNextCursor(page.nextCursor);
+                setError("");
             } else {
                 setError("Errore nel caricamento dati");
             }
@@ -42,44 +57,40 @@ export function EventBoard() {
         }
     };
 
+    // EventFilters notifica i filtri iniziali al montaggio: la prima pagina parte da lì
     useEffect(() => {
-        fetchData();
-    }, []);
-
-    // Applica i filtri agli eventi
-    const handleFilter = (filters: FilterState) => {
-        let filtered = [...events];
-
-        // Filtro di ricerca: titolo, descrizione, nome ristorante
-        if (filters.searchText) {
-            const search = filters.searchText.toLowerCase();
-            filtered = filtered.filter(evt => 
-                evt.title.toLowerCase().includes(search) ||
-                (evt.description && evt.description.toLowerCase().includes(search)) ||
-                evt.restaurant.name.toLowerCase().includes(search)
-            );
-        }
+        if (filters) fetchPage(filters, null, false);
+    }, [filters]);
 
-        // Filtro per categoria
-        if (filters.category > 0) {
-            filtered = filtered.filter(evt => evt.category.id === filters.category);
-        }
-
-        // Filtro per città
-        if (filters.city > 0) {
-            filtered = filtered.filter(evt => evt.restaurant.city?.id === filters.city);
-        }
-
-        // Filtro per data specifica
-        if (filters.dateFrom) {
-            const filterDateStr = filters.dateFrom; 
-            filtered = filtered.filter(evt => {
-                const evtDateStr = new Date(evt.eventDate).toISOString().split("T")[0];
-                return evtDateStr === filterDateStr;
-            });
-        }
-
-        setFilteredEvents(filtered);
+    // Aggiornamenti in tempo reale di posti e stato, limitati alla città filtrata:
+    // la connessione si riapre solo quando cambia la città
+    const liveCity = filters?.city;
+    useEffect(() => {
+        if (liveCity === undefined) return;
+        const query = liveCity > 0 ? `?cityId=${liveCity}` : "";
+        const source = new EventSource(`http://localhost:8081/api/events/live${query}`, { withCredentials: true });
+
+        const applyUpdate = (msg: MessageEvent) => {
+            const update: LiveUpdate = JSON.parse(msg.data);
+            setEvents(prev => prev.map(evt => evt.id === update.eventId
+                ? { ...evt, status: update.status, participantCount: update.reservedSeats, remainingSeats: update.remainingSeats }
+                : evt));
+        };
+        source.addEventListener("SEATS", applyUpdate);
+        source.addEventListener("STATUS", applyUpdate);
+        source.addEventListener("CANCELLED", (msg: MessageEvent) => {
+            const update: LiveUpdate = JSON.parse(msg.data);
+            setEvents(prev => prev.filter(evt => evt.id !== update.eventId));
+        });
+        // Alcuni messaggi sono andati persi: si ricarica la prima pagina
+        source.addEventListener("resync", () => fetchPage(filtersRef.current, null, false));
+
+        return () => source.close();
+    }, [liveCity]);
+
+    // I filtri vengono applicati dal server: si ricarica dalla prima pagina
+    const handleFilter = (newFilters: FilterState) => {
+        setFilters(newFilters);
     };
 
     // iscriversi a un evento
@@ -93,7 +104,9 @@ export function EventBoard() {
 
             if (response.ok) {
                 alert("Iscrizione avvenuta con successo! 🎉");
-                setJoinedEventIds(prev => new Set(prev).add(eventId));
+                // I posti arrivano già aggiornati dallo stream (SEATS, pubblicato dopo il commit):
+                // qui si segna solo l'iscrizione, un +1 locale li conterebbe due volte
+                setEvents(prev => prev.map(evt => evt.id === eventId ? { ...evt, joined: true } : evt));
             } else {
                 const errorMsg = await response.text();
                 alert(errorMsg || "Errore durante l'iscrizione"); 
@@ -104,9 +117,6 @@ export function EventBoard() {
         }
     };
 
-    if (loading) return <p className="loading-message">Caricamento in corso...</p>;
-    if (error) return <p className="error-message">{error}</p>;
-
     return (
         <div className="event-board-container">
             {/* Header della bacheca */}
@@ -114,27 +124,41 @@ export function EventBoard() {
                 <h2 className="event-board-title">Bacheca Eventi</h2>
             </div>
 
-            {/* Componente filtri per ricerca e filtrazione degli eventi */}
+            {/* Componente filtri per ricerca e filtrazione degli eventi.
+                Sempre montato: al montaggio notifica i filtri iniziali, da cui parte il primo caricamento */}
             <EventFilters onFilter={handleFilter} />
             
-            {/* Mostra messaggio vuoto o lista di eventi */}
-            {filteredEvents.length === 0 ? (
+            {/* Caricamento, errore, messaggio vuoto o lista di eventi */}
+            {loading ? (
+                <p className="loading-message">Caricamento in corso...</p>
+            ) : error ? (
+                <p className="error-message">{error}</p>
+            ) : events.length === 0 ? (
                 <div className="empty-message">
                     <p>Nessun evento trovato.</p>
                 </div>
             ) : (
                 // Griglia di carte degli eventi con pulsante di iscrizione
                 <div className="event-list">
-                    {filteredEvents.map(evt => (
+                    {events.map(evt => (
                         <EventCard 
                             key={evt.id} 
                             event={evt} 
                             onJoin={handleJoin}  // Callback per iscriversi all'evento
-                            isJoined={joinedEventIds.has(evt.id)}  // Indica se già iscritto
+                            isJoined={evt.joined}  // Indica se già iscritto
                         />
                     ))}
                 </div>
             )}
+
+            {/* Pagina successiva */}
+            {!loading && !error && nextCursor && (
+                <div className="load-more-row">
+                    <button className="organize-btn" onClick={() => fetchPage(filters, nextCursor, true)}>
+                        Carica altri eventi
+                    </button>
+                </div>
+            )}
         </div>
     );
-}
\ No newline at end of file
+}
@@ -30,6 +30,10 @@ export default function Login({ onLogin }: LoginProps) {
                         name: data.name, 
                         role: data.role 
                     }); 
+            } else if (response.status === 503) {
+                // Server sotto carico: il backend indica dopo quanti secondi riprovare
+                const retry = response.headers.get("Retry-After") ?? "qualche";
+                setError(`Troppi accessi in corso, riprova tra ${retry} secondi ⏳`);
             } else {
                 // Mostra messaggio per credenziali errate
                 setError("Credenziali non valide ❌");
@@ -2,6 +2,9 @@ import { useEffect, useState } from "react";
 import type { SocialEvent } from "../types";
 import "./MyCreatedEvents.css";
 
+// Eventi dello storico richiesti per pagina
+const ARCHIVE_PAGE_SIZE = 20;
+
 // Componente per visualizzare gli eventi creati dall'utente
 export function MyCreatedEvents() {
     // Stato per memorizzare la lista degli eventi creati
@@ -18,7 +21,26 @@ export function MyCreatedEvents() {
     };
 
     
-    useEffect(() => { fetchCreated(); }, []);
+    // Storico: eventi conclusi e archiviati dal server, caricati a pagine dal più recente
+    const [past, setPast] = useState<SocialEvent[]>([]);
+    const [pastPage, setPastPage] = useState(0);
+    const [hasMorePast, setHasMorePast] = useState(false);
+
+    const fetchPast = async (page: number) => {
+        try {
+            const res = await fetch(`http://localhost:8081/api/events/archive/created?page=${page}&size=${ARCHIVE_PAGE_SIZE}`, { credentials: "include" });
+            if (!res.ok) return;
+            const batch: SocialEvent[] = await res.json();
+            setPast(prev => page === 0 ? batch : [...prev, ...batch]);
+            setPastPage(page);
+            setHasMorePast(batch.length === ARCHIVE_PAGE_SIZE);
+        } catch (err) {
+            console.error("Errore caricamento storico eventi creati", err);
+        }
+    };
+
+    // Effetto per caricare eventi e storico al montaggio del componente
+    useEffect(() => { fetchCreated(); fetchPast(0); }, []);
 
     // Funzione per gestire il ritiro di una proposta di evento
     const handleWithdraw = async (id: number) => {
@@ -90,6 +112,28 @@ export function MyCreatedEvents() {
                     ))}
                 </div>
             )}
+
+            {/* Storico degli eventi conclusi, senza azioni */}
+            {past.length > 0 && (
+                <div className="history-section">
+                    <h3 className="history-title">Eventi passati che hai organizzato</h3>
+                    <div className="requests-list">
+                        {past.map(evt => (
+                            <div key={evt.id} className="request-card past">
+                                <h3 className="card-title">{evt.title}</h3>
+                                <p className="card-info">
+                                    📅 {new Date(evt.eventDate).toLocaleDateString('it-IT')} | 📍 {evt.restaurant.name}
+                                </p>
+                            </div>
+                        ))}
+                    </div>
+                    {hasMorePast && (
+                        <button className="action-btn more" onClick={() => fetchPast(pastPage + 1)}>
+                            Mostra altri
+                        </button>
+                    )}
+                </div>
+            )}
         </div>
     );
-}
\ No newline at end of file
+}
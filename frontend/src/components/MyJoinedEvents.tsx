@@ -2,6 +2,9 @@ import { useEffect, useState } from "react";
 import type { SocialEvent } from "../types";
 import "./MyJoinedEvents.css";
 
+// Eventi dello storico richiesti per pagina
+const ARCHIVE_PAGE_SIZE = 20;
+
 // Componente per visualizzare gli eventi a cui l'utente ha aderito
 export function MyJoinedEvents() {
     // Stato per memorizzare la lista degli eventi uniti
@@ -17,8 +20,26 @@ export function MyJoinedEvents() {
         }
     };
 
-    // Effetto per caricare gli eventi al montaggio del componente
-    useEffect(() => { fetchJoined(); }, []);
+    // Storico: eventi conclusi e archiviati dal server, caricati a pagine dal più recente
+    const [past, setPast] = useState<SocialEvent[]>([]);
+    const [pastPage, setPastPage] = useState(0);
+    const [hasMorePast, setHasMorePast] = useState(false);
+
+    const fetchPast = async (page: number) => {
+        try {
+            const res = await fetch(`http://localhost:8081/api/events/archive/joined?page=${page}&size=${ARCHIVE_PAGE_SIZE}`, { credentials: "include" });
+            if (!res.ok) return;
+            const batch: SocialEvent[] = await res.json();
+            setPast(prev => page === 0 ? batch : [...prev, ...batch]);
+            setPastPage(page);
+            setHasMorePast(batch.length === ARCHIVE_PAGE_SIZE);
+        } catch (err) {
+            console.error("Errore caricamento storico iscrizioni", err);
+        }
+    };
+
+    // Effetto per caricare eventi e storico al montaggio del componente
+    useEffect(() => { fetchJoined(); fetchPast(0); }, []);
 
     // Funzione per gestire l'abbandono di un evento
     const handleLeave = async (id: number) => {
@@ -70,6 +91,28 @@ export function MyJoinedEvents() {
                     ))}
                 </div>
             )}
+
+            {/* Storico degli eventi conclusi, senza azioni */}
+            {past.length > 0 && (
+                <div className="history-section">
+                    <h3 className="history-title">Eventi passati a cui hai partecipato</h3>
+                    <div className="requests-list">
+                        {past.map(evt => (
+                            <div key={evt.id} className="request-card past">
+                                <h3 className="card-title">{evt.title}</h3>
+                                <p className="card-info">
+                                    📅 {new Date(evt.eventDate).toLocaleDateString('it-IT')} | 📍 {evt.restaurant.name}
+                                </p>
+                            </div>
+                        ))}
+                    </div>
+                    {hasMorePast && (
+                        <button className="action-btn more" onClick={() => fetchPast(pastPage + 1)}>
+                            Mostra altri
+                        </button>
+                    )}
+                </div>
+            )}
         </div>
     );
-}
\ No newline at end of file
+}
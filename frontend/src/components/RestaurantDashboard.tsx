@@ -1,24 +1,27 @@
 import { useEffect, useState } from "react";
-import type { SocialEvent } from "../types";
+import type { LiveUpdate, RestaurantTotals, RestaurateurDashboard } from "../types";
 import "./RestaurantDashboard.css";
 
 export function RestaurantDashboard() {
     // Liste degli eventi: quelli in attesa di approvazione e quelli già approvati
-    const [pendingEvents, setPendingEvents] = useState<SocialEvent[]>([]);
-    const [approvedEvents, setApprovedEvents] = useState<SocialEvent[]>([]);
+    const [pendingEvents, setPendingEvents] = useState<RestaurateurDashboard["pending"]>([]);
+    const [approvedEvents, setApprovedEvents] = useState<RestaurateurDashboard["approved"]>([]);
+    // Totali per locale (eventi e posti occupati)
+    const [restaurants, setRestaurants] = useState<RestaurantTotals[]>([]);
     // caricamento iniziale
     const [loading, setLoading] = useState(true);
 
-    // Carica le liste di eventi pending e approvati dal backend
+    // Carica eventi pending, approvati e totali per locale con una sola richiesta
     const fetchData = async () => {
         try {
-            const [pendingRes, approvedRes] = await Promise.all([
-                fetch("http://localhost:8081/api/events/pending/for-restaurateur", { credentials: "include" }),
-                fetch("http://localhost:8081/api/events/approved/for-restaurateur", { credentials: "include" })
-            ]);
+            const res = await fetch("http://localhost:8081/api/events/dashboard/restaurateur", { credentials: "include" });
 
-            if (pendingRes.ok) setPendingEvents(await pendingRes.json());
-            if (approvedRes.ok) setApprovedEvents(await approvedRes.json());
+            if (res.ok) {
+                const dashboard: RestaurateurDashboard = await res.json();
+                setPendingEvents(dashboard.pending);
+                setApprovedEvents(dashboard.approved);
+                setRestaurants(dashboard.restaurants);
+            }
 
         } catch (err) {
             console.error(err);
@@ -33,6 +36,18 @@ export function RestaurantDashboard() {
         fetchData();
     }, []);
 
+    // Nuove proposte, decisioni e cancellazioni nei propri locali arrivano dallo stream: niente polling
+    useEffect(() => {
+        const source = new EventSource("http://localhost:8081/api/events/live?mine=true", { withCredentials: true });
+        ["CREATED", "STATUS", "CANCELLED", "resync"].forEach(type => source.addEventListener(type, () => fetchData()));
+        // I posti occupati cambiano spesso: si aggiorna solo l'evento interessato
+        source.addEventListener("SEATS", (msg: MessageEvent) => {
+            const update: LiveUpdate = JSON.parse(msg.data);
+            setApprovedEvents(prev => prev.map(evt => evt.id === update.eventId ? { ...evt, reservedSeats: update.reservedSeats } : evt));
+        });
+        return () => source.close();
+    }, []);
+
     // Gestisce approvazione o rifiuto di una proposta evento
     const handleDecision = async (eventId: number, decision: "APPROVED" | "REJECTED") => {
         let comment = "";
@@ -100,6 +115,25 @@ export function RestaurantDashboard() {
         <div className="restaurant-dashboard">
             <h2>🍕 Dashboard Ristoratore</h2>
 
+            {/* Riepilogo per locale */}
+            {restaurants.length > 0 && (
+                <div className="section">
+                    <h3>🏠 I tuoi locali</h3>
+                    <div className="pending-list">
+                        {restaurants.map(r => (
+                            <div key={r.restaurantId} className="pending-card">
+                                <div className="event-info">
+                                    <h4>{r.name}</h4>
+                                    <p><strong>Proposte in attesa:</strong> {r.pendingEvents}</p>
+                                    <p><strong>Eventi confermati:</strong> {r.approvedEvents}</p>
+                                    <p><strong>Posti occupati:</strong> {r.reservedSeats}</p>
+                                </div>
+                            </div>
+                        ))}
+                    </div>
+                </div>
+            )}
+
             {/* Proposta eventi in sospeso (in attesa di approvazione dal ristoratore) */}
             <div className="section">
                 <h3>🔔 Richieste in Sospeso ({pendingEvents.length})</h3>
@@ -141,6 +175,7 @@ export function RestaurantDashboard() {
                                     <h4>{evt.title}</h4>
                                     <p><strong>Data:</strong> {new Date(evt.eventDate).toLocaleDateString('it-IT')} ore {new Date(evt.eventDate).toLocaleTimeString('it-IT', {hour: '2-digit', minute:'2-digit'})}</p>
                                     <p><strong>Organizzatore:</strong> {evt.organizer.name}</p>
+                                    <p><strong>Iscritti:</strong> {evt.reservedSeats} / {evt.maxParticipants}</p>
                                     <span className="status-badge-green">Confermato</span>
                                 </div>
                                 {/* Pulsante cancellazione evento*/}
@@ -41,4 +41,46 @@ export interface SocialEvent {
     category: Category;  // Categoria dell'evento
     restaurant: Restaurant;  // Ristorante dove si terrà l'evento
     organizer: UserInfo;  // Chi ha organizzato l'evento
-}
\ No newline at end of file
+}
+
+// Evento della bacheca con i dati di iscrizione calcolati dal server
+export interface FeedEvent extends SocialEvent {
+    participantCount: number;  // Posti già occupati
+    remainingSeats: number;  // Posti ancora disponibili
+    joined: boolean;  // L'utente corrente è iscritto
+}
+
+// Pagina di risultati con cursore per la pagina successiva
+export interface EventPage<T> {
+    items: T[];
+    nextCursor: string | null;
+}
+
+// Variazione ricevuta dallo stream /api/events/live
+export interface LiveUpdate {
+    type: "CREATED" | "SEATS" | "STATUS" | "CANCELLED";
+    eventId: number;
+    restaurantId: number | null;
+    cityId: number | null;
+    status: SocialEvent["status"];
+    reservedSeats: number;
+    maxParticipants: number;
+    remainingSeats: number;
+}
+
+// Totali di un locale nella dashboard del ristoratore
+export interface RestaurantTotals {
+    restaurantId: number;
+    name: string;
+    maxCapacity: number;
+    pendingEvents: number;
+    approvedEvents: number;
+    reservedSeats: number;  // Posti occupati sommati sugli eventi confermati
+}
+
+// Risposta di /api/events/dashboard/restaurateur
+export interface RestaurateurDashboard {
+    pending: (SocialEvent & { reservedSeats: number })[];
+    approved: (SocialEvent & { reservedSeats: number })[];
+    restaurants: RestaurantTotals[];
+}